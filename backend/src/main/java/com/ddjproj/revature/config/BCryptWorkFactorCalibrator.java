@@ -0,0 +1,46 @@
+package com.ddjproj.revature.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+
+/**
+ * Picks the BCrypt cost for the hardware the app is running on.
+ * Each cost step doubles the work, the highest cost whose measured hash time stays within the
+ * target latency is used.
+ */
+public final class BCryptWorkFactorCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptWorkFactorCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "Calibrati0n!Sample";
+
+    private BCryptWorkFactorCalibrator(){
+    }
+
+    /**
+     * 
+     * @param targetMillis target time for one hash verification
+     * @param minStrength lower bound, used even if the hardware is slower than the target
+     * @param maxStrength upper bound
+     * @return calibrated BCrypt strength
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength){
+        // warm up so the first measurement is not dominated by class loading / JIT
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++){
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(strength).encode(SAMPLE_PASSWORD);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            if (elapsedMillis > targetMillis){
+                break;
+            }
+            chosen = strength;
+        }
+        logger.info("BCrypt strength calibrated to {} (target {} ms)", chosen, targetMillis);
+        return chosen;
+    }
+}
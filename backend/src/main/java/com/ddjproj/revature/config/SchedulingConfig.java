@@ -0,0 +1,13 @@
+package com.ddjproj.revature.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+
+/**
+ * enables @Scheduled housekeeping tasks (token store eviction, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
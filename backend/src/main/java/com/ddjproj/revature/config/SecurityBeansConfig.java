@@ -1,7 +1,12 @@
 package com.ddjproj.revature.config;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +20,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -54,16 +60,19 @@ public class SecurityBeansConfig {
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(Customizer.withDefaults())
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh", "/api/auth/logout").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                // re-dispatches of already authorized async responses (event streams, exports)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/h2-console/**").permitAll() // FIXME: allow h2 console for development. remove after
                 .anyRequest().authenticated())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider(passwordEncoder))
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             // add to allow h2 frames. FIXME: remove after development
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
@@ -78,10 +87,10 @@ public class SecurityBeansConfig {
 
 
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
 
     }
@@ -104,8 +113,22 @@ public class SecurityBeansConfig {
         return source;
     }
 
+    /**
+     * BCrypt with a cost calibrated at startup, wrapped so every hash records its algorithm ({bcrypt}$2a$12$...).
+     * Hashes without the prefix (stored before this encoder) still verify as BCrypt, and
+     * upgradeEncoding() reports them, as well as hashes below the calibrated cost, for rehashing.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.target-ms:250}") long targetMillis,
+                                           @Value("${security.password.min-strength:10}") int minStrength,
+                                           @Value("${security.password.max-strength:14}") int maxStrength){
+        int strength = BCryptWorkFactorCalibrator.calibrate(targetMillis, minStrength, maxStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
     }
 }
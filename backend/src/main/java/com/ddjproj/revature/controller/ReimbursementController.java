@@ -4,23 +4,39 @@ package com.ddjproj.revature.controller;
 
 import com.ddjproj.revature.dto.reimbursement.*;
 import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
 import com.ddjproj.revature.exception.ResourceNotFoundException;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
 import com.ddjproj.revature.exception.validation.UnauthorizedException;
 import com.ddjproj.revature.exception.validation.ValidationException;
+import com.ddjproj.revature.repository.ReimbursementScope;
 import com.ddjproj.revature.service.ReimbursementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/reimbursements")
 @CrossOrigin
 public class ReimbursementController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    // browsers keep the body but revalidate it with If-None-Match on every request
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ReimbursementService reimbursementService;
 
     @Autowired
@@ -35,33 +51,133 @@ public class ReimbursementController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ReimbursementResponseDTO> getReimbursement(@PathVariable Long id) throws UnauthorizedException, ResourceNotFoundException {
+    public ResponseEntity<ReimbursementResponseDTO> getReimbursement(@PathVariable Long id, WebRequest request) throws UnauthorizedException, ResourceNotFoundException {
+        // scope checked and version read from one projection, the row is only loaded on a miss
+        String eTag = reimbursementService.getReimbursementETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         ReimbursementResponseDTO response = reimbursementService.getReimbursementById(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
     }
 
     @GetMapping("/self")
-    public ResponseEntity<List<ReimbursementResponseDTO>> getMyReimbursements(
-            @RequestParam(required = false) ReimbursementStatus status) throws UnauthorizedException {
-        List<ReimbursementResponseDTO> response = reimbursementService.getMyReimbursements(status);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ReimbursementPageDTO> getMyReimbursements(
+            @RequestParam(required = false) ReimbursementStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) throws UnauthorizedException, ValidationException {
+        String eTag = reimbursementService.getMyReimbursementsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ReimbursementPageDTO response = reimbursementService.getMyReimbursements(status, cursor, size);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<ReimbursementResponseDTO>> getAllReimbursements(
-            @RequestParam(required = false) ReimbursementStatus status) throws UnauthorizedException {
-        List<ReimbursementResponseDTO> response = reimbursementService.getAllReimbursements(status);
+    public ResponseEntity<ReimbursementPageDTO> getAllReimbursements(
+            @RequestParam(required = false) ReimbursementStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) throws UnauthorizedException, ValidationException {
+        String eTag = reimbursementService.getAllReimbursementsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ReimbursementPageDTO response = reimbursementService.getAllReimbursements(status, cursor, size);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ReimbursementResponseDTO>> searchReimbursements(
+            @RequestParam String q,
+            @RequestParam(required = false) ReimbursementStatus status,
+            @RequestParam(required = false) ReimbursementType type,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer limit) throws UnauthorizedException, ValidationException {
+        List<ReimbursementResponseDTO> response = reimbursementService.searchReimbursements(q, status, type, userId, limit);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Server-Sent Events: a "reimbursement" event with the full ReimbursementResponseDTO after
+     * every create, update or resolve the caller is allowed to see
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReimbursementChanges() throws UnauthorizedException {
+        try {
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(reimbursementService.subscribeToChanges());
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ReimbursementStatsDTO> getStats(
+            @RequestParam(required = false) Long userId) throws UnauthorizedException {
+        ReimbursementStatsDTO response = reimbursementService.getStats(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * streamed export of the full reimbursement history, written while rows are read
+     *
+     * @param format NDJSON (default) or CSV
+     * @param gzip compress the body with Content-Encoding: gzip
+     * @return
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReimbursements(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) ReimbursementStatus status,
+            @RequestParam(required = false) ReimbursementType type,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long fromId,
+            @RequestParam(required = false) Long toId,
+            @RequestParam(defaultValue = "false") boolean gzip) throws UnauthorizedException {
+        // permission is checked here so a denial is a normal error response, not a broken stream
+        ReimbursementScope scope = reimbursementService.exportScope(status, userId);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE) : outputStream;
+            out = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+            reimbursementService.writeExport(scope, type, fromId, toId, format, out);
+            out.flush();
+            if (gzip) {
+                out.close();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reimbursements." + format.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ReimbursementResponseDTO> updateReimbursement(
             @PathVariable Long id,
-            @Valid @RequestBody CreateReimbursementDTO dto) throws UnauthorizedException, ResourceNotFoundException {
+            @Valid @RequestBody CreateReimbursementDTO dto) throws UnauthorizedException, ResourceNotFoundException, ValidationException {
         ReimbursementResponseDTO response = reimbursementService.updateReimbursement(id, dto);
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/resolve")
+    public ResponseEntity<BulkResolveResultDTO> bulkResolveReimbursements(
+            @Valid @RequestBody BulkResolveReimbursementDTO dto) throws ValidationException, UnauthorizedException {
+        BulkResolveResultDTO response = reimbursementService.bulkResolveReimbursements(dto);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/resolve")
     public ResponseEntity<ReimbursementResponseDTO> resolveReimbursement(
             @PathVariable Long id,
@@ -6,12 +6,16 @@ import com.ddjproj.revature.exception.ResourceNotFoundException;
 import com.ddjproj.revature.exception.validation.UnauthorizedException;
 import com.ddjproj.revature.exception.validation.ValidationException;
 import com.ddjproj.revature.service.accounts.UserAccountService;
+import com.ddjproj.revature.service.auth.JwtService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,10 +32,12 @@ public class UserAccountController {
     private static final Logger logger = LoggerFactory.getLogger(UserAccountController.class);
 
     private final UserAccountService userAccountService;
+    private final JwtService jwtService;
 
     @Autowired
-    public UserAccountController(UserAccountService userAccountService) {
+    public UserAccountController(UserAccountService userAccountService, JwtService jwtService) {
         this.userAccountService = userAccountService;
+        this.jwtService = jwtService;
     }
 
     /**
@@ -42,13 +48,22 @@ public class UserAccountController {
      * Required Permission: VIEW_ALL_USERACCOUNTS
      */
     @GetMapping
-    public ResponseEntity<List<UserAccountDTO>> getAllUsers() {
+    public ResponseEntity<List<UserAccountDTO>> getAllUsers(WebRequest request) {
         logger.info("Request to get all users");
 
+        // unchanged since the client's copy: 304 without reading the table
+        String eTag = userAccountService.getAllUsersETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
         List<UserAccountDTO> users = userAccountService.getAllUsers();
 
         logger.info("Returning {} users", users.size());
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(users);
     }
 
     /**
@@ -72,17 +87,20 @@ public class UserAccountController {
     /**
      * Request upgrade from RESTRICTED to EMPLOYEE role
      * Automatically processes the upgrade (no manager approval needed for MVP)
+     * The role change invalidates the caller's current token, a replacement is returned
+     * in the Authorization response header
      * @param request Contains userAccountId requesting upgrade
      * @return Updated user account with EMPLOYEE role
      * @throws ResourceNotFoundException if user not found
      * @throws ValidationException if user is not RESTRICTED role
+     * @throws UnauthorizedException if the id is not the caller's own
      * Endpoint: POST /api/users/upgrade
      * Required Role: RESTRICTED
      */
     @PostMapping("/upgrade")
     public ResponseEntity<UserAccountDTO> requestUpgrade(
             @RequestBody AccountUpgradeRequestDTO request)
-            throws ResourceNotFoundException, ValidationException {
+            throws ResourceNotFoundException, ValidationException, UnauthorizedException {
         logger.info("Upgrade request received for user id: {}", request.getUserAccountId());
 
         UserAccountDTO upgradedUser = userAccountService.processUpgradeRequest(request);
@@ -90,7 +108,11 @@ public class UserAccountController {
         logger.info("User {} upgraded to EMPLOYEE successfully",
                 upgradedUser.getEmail());
 
-        return ResponseEntity.ok(upgradedUser);
+        String token = jwtService.generateToken(userAccountService.getAccountForToken(upgradedUser.getUserAccountId()));
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .body(upgradedUser);
     }
 
     /**
@@ -5,6 +5,7 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,14 +18,22 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import com.ddjproj.revature.dto.auth.LoginAuthRequestDTO;
 import com.ddjproj.revature.dto.auth.LoginAuthResponseDTO;
+import com.ddjproj.revature.dto.auth.RefreshTokenRequestDTO;
 import com.ddjproj.revature.dto.auth.RegisterAuthRequestDTO;
 import com.ddjproj.revature.exception.ApplicationException;
+import com.ddjproj.revature.exception.security.AuthenticationException;
 import com.ddjproj.revature.exception.security.InvalidPasswordException;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
 import com.ddjproj.revature.exception.validation.EmailValidationException;
 import com.ddjproj.revature.service.auth.AuthenticationService;
+import com.ddjproj.revature.service.auth.LoginRateLimiter;
 import com.ddjproj.revature.service.auth.TokenBlacklistService;
+import com.ddjproj.revature.service.auth.TokenDigest;
+import com.ddjproj.revature.service.ReimbursementEventStream;
 import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.repository.UserAccountRepository;
 
@@ -45,12 +54,16 @@ public class AuthenticationController {
     private final AuthenticationService authenticationService;
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ReimbursementEventStream reimbursementEventStream;
 
-    public AuthenticationController(AuthenticationService authenticationService, PasswordEncoder passwordEncoder, UserAccountRepository userAccountRepository, TokenBlacklistService tokenBlacklist){
+    public AuthenticationController(AuthenticationService authenticationService, PasswordEncoder passwordEncoder, UserAccountRepository userAccountRepository, TokenBlacklistService tokenBlacklist, LoginRateLimiter loginRateLimiter, ReimbursementEventStream reimbursementEventStream){
         this.authenticationService = authenticationService;
         this.passwordEncoder = passwordEncoder;
         this.userAccountRepository = userAccountRepository;
         this.tokenBlacklist = tokenBlacklist;
+        this.loginRateLimiter = loginRateLimiter;
+        this.reimbursementEventStream = reimbursementEventStream;
 
     }
 
@@ -59,18 +72,21 @@ public class AuthenticationController {
      * user new account registration endpoint
      *
      * @param request
-     * @return
+     * @return 429 with Retry-After if the email or client exceeded the attempt rate
      * @throws EmailValidationException invalid email provided
      */
     @PostMapping("/register")
-    public ResponseEntity<LoginAuthResponseDTO> register(@RequestBody RegisterAuthRequestDTO request) throws ApplicationException {
+    public ResponseEntity<LoginAuthResponseDTO> register(@RequestBody RegisterAuthRequestDTO request, HttpServletRequest httpRequest) throws ApplicationException {
         logger.info("Registration request received for email: {}", request.getEmail());
 
         try {
+            loginRateLimiter.checkAttempt(request.getEmail(), httpRequest.getRemoteAddr());
             LoginAuthResponseDTO response = authenticationService.register(request);
             logger.info("User {} registered successfully with role: {}",
                     request.getEmail(), response.getRole());
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (EmailValidationException e) {
             logger.warn("Registration failed - email validation error: {}", e.getMessage());
             throw e;
@@ -86,19 +102,23 @@ public class AuthenticationController {
      * Authenticates user and returns JWT token
      *
      * @param request credentials (email, password)
-     * @return token and user data
+     * @return token and user data, 429 with Retry-After if rate limited or login capacity is saturated
      * @throws InvalidPasswordException if credentials are invalid
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginAuthResponseDTO> login(@RequestBody LoginAuthRequestDTO request)
+    public ResponseEntity<LoginAuthResponseDTO> login(@RequestBody LoginAuthRequestDTO request, HttpServletRequest httpRequest)
             throws InvalidPasswordException {
         logger.info("Login request received for email: {}", request.getEmail());
 
         try {
+            loginRateLimiter.checkAttempt(request.getEmail(), httpRequest.getRemoteAddr());
             LoginAuthResponseDTO response = authenticationService.authenticate(request);
             logger.info("User {} logged in successfully with role: {}",
                     request.getEmail(), response.getRole());
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            logger.warn("Login rejected for email {}: {}", request.getEmail(), e.getMessage());
+            return tooManyRequests(e);
         } catch (InvalidPasswordException e) {
             logger.warn("Login failed for email {}: Invalid credentials", request.getEmail());
             throw e;
@@ -118,26 +138,57 @@ public class AuthenticationController {
      * @throws InvalidPasswordException - for invalid password entries
      */
     @PostMapping("/authenticate")
-    public ResponseEntity<LoginAuthResponseDTO> authenticate(@RequestBody LoginAuthRequestDTO request) throws InvalidPasswordException {
+    public ResponseEntity<LoginAuthResponseDTO> authenticate(@RequestBody LoginAuthRequestDTO request, HttpServletRequest httpRequest) throws InvalidPasswordException {
 
         logger.info("Authentication request received for email: {}", request.getEmail());
-        return ResponseEntity.ok(authenticationService.authenticate(request));
+        try {
+            loginRateLimiter.checkAttempt(request.getEmail(), httpRequest.getRemoteAddr());
+            return ResponseEntity.ok(authenticationService.authenticate(request));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
+        }
         
     }
 
+    /**
+     * exchange a refresh token for a new access token (no password / BCrypt involved).
+     * the presented refresh token is consumed and a new one is returned
+     *
+     * @param request refresh token
+     * @return new token pair and user data, 401 if the refresh token is not valid
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginAuthResponseDTO> refresh(@RequestBody RefreshTokenRequestDTO request) {
+        try {
+            return ResponseEntity.ok(authenticationService.refresh(request));
+        } catch (AuthenticationException e) {
+            logger.warn("Token refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     /**
      * blacklists user's token, logs user from system
+     * optionally revokes the refresh token sent in the body
      * 
      * @param authHeader
+     * @param request optional body with the refresh token
      * @return
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, String>> logout(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, String>> logout(@RequestHeader("Authorization") String authHeader,
+                                                      @RequestBody(required = false) RefreshTokenRequestDTO request) {
         logger.info("Logout request received");
 
+        if (request != null) {
+            authenticationService.revokeRefreshToken(request.getRefreshToken());
+        }
+
         if (authHeader != null && authHeader.startsWith("Bearer ")){
             String token = authHeader.substring(7);
             tokenBlacklist.blacklistToken(token); // deauth the token for session
+            // event streams opened with it end now, other nodes close theirs on the next heartbeat
+            reimbursementEventStream.closeForToken(TokenDigest.of(token));
             logger.info("Token successfully blacklisted");
 
         } else {
@@ -157,11 +208,11 @@ public class AuthenticationController {
 
         logger.info("Password reset request for email: {}", email);
         try {
-            UserAccount user = userAccountRepository.findByEmail(email)
+            UserAccount user = userAccountRepository.findByEmailWithCredentials(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
 
-            String hashedPassword = passwordEncoder.encode(newPassword);     // hash the new password
+            String hashedPassword = passwordEncoder.encode(newPassword);     // hash the new password (current algorithm + calibrated cost)
             user.setPasswordHash(hashedPassword); // update stored hash value for useraccount
             userAccountRepository.save(user);  // persist the new hash
 
@@ -179,6 +230,18 @@ public class AuthenticationController {
 
     }
 
+    /**
+     * 429 response telling the client when to retry
+     *
+     * @param e
+     * @return
+     */
+    private <T> ResponseEntity<T> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
 //    @GetMapping("/test")
 //    public ResponseEntity<String> testAuthEndpoint() {
 //        return ResponseEntity.ok("Endpoint is correctly authorizing.");
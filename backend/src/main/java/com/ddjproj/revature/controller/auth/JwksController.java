@@ -0,0 +1,38 @@
+package com.ddjproj.revature.controller.auth;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ddjproj.revature.service.auth.SigningKeyService;
+
+
+/**
+ * publishes the JWT verification keys so other services can validate tokens without calling back
+ */
+@RestController
+public class JwksController {
+
+    private final SigningKeyService signingKeyService;
+
+    public JwksController(SigningKeyService signingKeyService){
+        this.signingKeyService = signingKeyService;
+    }
+
+    /**
+     * 
+     * @return JWK set with every key that may have signed a still valid token, and the next key.
+     * keys are published longer ahead than this response may be cached
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks(){
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(SigningKeyService.JWKS_MAX_AGE_SECONDS, TimeUnit.SECONDS).cachePublic())
+                .body(Map.of("keys", signingKeyService.getJwks()));
+    }
+}
@@ -1,8 +1,12 @@
 package com.ddjproj.revature.controller.auth;
 
 import java.io.IOException;
+import java.util.Collection;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -11,8 +15,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.ddjproj.revature.service.UserDetailService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
 import com.ddjproj.revature.service.auth.JwtService;
 import com.ddjproj.revature.service.auth.TokenBlacklistService;
+import com.ddjproj.revature.service.auth.TokenDigest;
+import io.jsonwebtoken.Claims;
 import io.micrometer.common.lang.NonNull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,6 +35,9 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter{
 
+    // hides the commons-logging logger inherited from GenericFilterBean
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final TokenBlacklistService tokenBlacklistService;
 
     private final JwtService jwtService;
@@ -71,25 +81,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
         try{
 
         String jwt = authHeader.substring(7);
+        String digest = TokenDigest.of(jwt);
 
         // checking if token is no longer valid / user logged out, etc.
-        if(tokenBlacklistService.isTokenBlackListed(jwt)){
+        if(tokenBlacklistService.isDigestBlackListed(digest)){
             System.out.println("Token is blacklisted.");
             filterChain.doFilter(request, response);
             return;
         }
         
 
-        userEmail = jwtService.extractUsername(jwt);
+        // parse + verify once, the claims are reused for the rest of the request
+        Claims claims = jwtService.parseVerifiedClaims(jwt, digest);
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = this.userDetailService.loadUserByUsername(userEmail);
-
-            if (jwtService.isTokenValid(jwt, userDetails)){
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userEmail, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-
+            JwtPrincipal principal = jwtService.toPrincipal(claims, digest);
+
+            if (principal != null){
+                // stateless path, everything needed is in the verified claims
+                if (jwtService.isPermissionVersionCurrent(claims, principal)){
+                    setAuthentication(request, principal, principal.getAuthorities());
+                } else {
+                    logger.debug("Token permission version is stale for user {}", principal.getUserId());
+                }
+            } else {
+                // tokens issued before the user claims existed still go through the user lookup
+                UserDetails userDetails = this.userDetailService.loadUserByUsername(userEmail);
+
+                if (jwtService.isTokenValid(claims, userDetails)){
+                    setAuthentication(request, userEmail, userDetails.getAuthorities());
+                }
             }
         }
 
@@ -101,4 +123,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
     
     }
 
+    private void setAuthentication(HttpServletRequest request, Object principal, Collection<? extends GrantedAuthority> authorities){
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
 }
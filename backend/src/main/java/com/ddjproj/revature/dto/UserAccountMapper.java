@@ -4,8 +4,6 @@ import com.ddjproj.revature.domain.entity.UserAccount;
 import org.springframework.stereotype.Component;
 import com.ddjproj.revature.dto.account.UserAccountDTO;
 
-import java.util.stream.Collectors;
-
 @Component
 public class UserAccountMapper {
 
@@ -22,9 +20,7 @@ public class UserAccountMapper {
                 entity.getUserAccountId(),
                 entity.getEmail(),
                 entity.getRole(),
-                entity.getPermissions().stream()
-                        .map(Enum::name)
-                        .collect(Collectors.toSet())
+                entity.getRole().getPermissionNames()
         );
     }
 
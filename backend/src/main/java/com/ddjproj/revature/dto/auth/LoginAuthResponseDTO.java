@@ -13,6 +13,7 @@ import java.util.Set;
 @NoArgsConstructor
 public class LoginAuthResponseDTO {
     private String token;
+    private String refreshToken;
     private String role;
     private Long userId;
     private String email;
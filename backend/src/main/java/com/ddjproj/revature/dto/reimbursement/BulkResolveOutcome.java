@@ -0,0 +1,10 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+/**
+ * per id result of a bulk resolve
+ */
+public enum BulkResolveOutcome {
+    RESOLVED,
+    ALREADY_RESOLVED,
+    NOT_FOUND
+}
@@ -0,0 +1,29 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResolveReimbursementDTO {
+
+    @NotEmpty(message = "At least one reimbursement id is required")
+    @Size(max = 5000, message = "At most 5000 reimbursements can be resolved at once")
+    @JsonProperty("ids")
+    private List<@NotNull Long> ids;
+
+    @NotNull(message = "Status is required")
+    @JsonProperty("status")
+    private ReimbursementStatus status;
+}
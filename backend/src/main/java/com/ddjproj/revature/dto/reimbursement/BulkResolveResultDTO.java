@@ -0,0 +1,23 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResolveResultDTO {
+
+    @JsonProperty("resolved")
+    private int resolved;
+
+    // keyed by reimbursement id, in request order
+    @JsonProperty("outcomes")
+    private Map<Long, BulkResolveOutcome> outcomes;
+}
@@ -0,0 +1,21 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReimbursementAggregateDTO {
+
+    @JsonProperty("count")
+    private long count;
+
+    // sum of amount
+    @JsonProperty("sum")
+    private long sum;
+}
@@ -0,0 +1,23 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReimbursementPageDTO {
+
+    @JsonProperty("items")
+    private List<ReimbursementResponseDTO> items;
+
+    // opaque, pass back as ?cursor= for the next page. null on the last page
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+}
@@ -0,0 +1,31 @@
+package com.ddjproj.revature.dto.reimbursement;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReimbursementStatsDTO {
+
+    @JsonProperty("total")
+    private ReimbursementAggregateDTO total;
+
+    @JsonProperty("byStatus")
+    private Map<ReimbursementStatus, ReimbursementAggregateDTO> byStatus;
+
+    @JsonProperty("byType")
+    private Map<ReimbursementType, ReimbursementAggregateDTO> byType;
+
+    // keyed by user id
+    @JsonProperty("byUser")
+    private Map<Long, ReimbursementAggregateDTO> byUser;
+}
@@ -0,0 +1,17 @@
+package com.ddjproj.revature.exception.security;
+
+import com.ddjproj.revature.exception.ApplicationException;
+
+public class TooManyRequestsException extends ApplicationException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,306 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.service.ChangeCounters;
+import com.ddjproj.revature.service.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caching decorator over {@link UserAccountRepoImpl} for the by id / by email lookups.
+ * Entries are detached copies without the password hash, bounded in number and dropped after a
+ * TTL (which also bounds staleness against writes made by other nodes). Writes through this
+ * repository invalidate the account right away and again once the transaction commits, and count
+ * the write in the shared user account change counter within the same transaction.
+ * A lookup only caches what it read if no invalidation of the account happened since it started,
+ * so a row read just before a write commits is never cached after that write's invalidation.
+ * When full, expired entries go first, then the oldest ones.
+ * Callers that need the hash, or a managed entity to modify and save, use the WithCredentials
+ * lookups, which are never cached.
+ */
+@Primary
+@Component
+public class CachingUserAccountRepository implements UserAccountRepository {
+
+    // power of two, generations are striped by account id
+    private static final int GENERATION_STRIPES = 256;
+
+    private final UserAccountRepoImpl delegate;
+    private final ChangeCounters changeCounters;
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    // email -> id, checked against the entry's email on read so a stale mapping is just a miss
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    // bumped on every invalidation of an id in the stripe
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter emailHits;
+    private final Counter emailMisses;
+
+    public CachingUserAccountRepository(UserAccountRepoImpl delegate,
+                                        ChangeCounters changeCounters,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${user.cache.max-entries:10000}") int maxEntries,
+                                        @Value("${user.cache.ttl-ms:60000}") long ttlMs) {
+        this.delegate = delegate;
+        this.changeCounters = changeCounters;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+
+        this.idHits = counter(meterRegistry, "user.cache.hits", "id", "User account lookups by id served from the cache");
+        this.idMisses = counter(meterRegistry, "user.cache.misses", "id", "User account lookups by id read from the database");
+        this.emailHits = counter(meterRegistry, "user.cache.hits", "email", "User account lookups by email served from the cache");
+        this.emailMisses = counter(meterRegistry, "user.cache.misses", "email", "User account lookups by email read from the database");
+        Gauge.builder("user.cache.size", byId, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return copy of the account without the password hash
+     */
+    @Override
+    public Optional<UserAccount> findByEmail(String email) {
+        Long id = email != null ? idsByEmail.get(email) : null;
+        Entry entry = id != null ? fresh(id) : null;
+        if (entry != null && entry.account.getEmail().equals(email)) {
+            emailHits.increment();
+            return Optional.of(entry.copy());
+        }
+        emailMisses.increment();
+        // the id is unknown until the row is read: any invalidation since then is treated as this one's
+        long[] before = snapshotGenerations();
+        return delegate.findByEmail(email).map(loaded -> cache(loaded, before[stripe(loaded.getUserAccountId())]));
+    }
+
+    /**
+     * @return copy of the account without the password hash
+     */
+    @Override
+    public Optional<UserAccount> findById(Long id) {
+        Entry entry = id != null ? fresh(id) : null;
+        if (entry != null) {
+            idHits.increment();
+            return Optional.of(entry.copy());
+        }
+        idMisses.increment();
+        long generation = id != null ? generations.get(stripe(id)) : 0L;
+        return delegate.findById(id).map(loaded -> cache(loaded, generation));
+    }
+
+    @Override
+    public Optional<UserAccount> findByEmailWithCredentials(String email) {
+        return delegate.findByEmailWithCredentials(email);
+    }
+
+    @Override
+    public Optional<UserAccount> findByIdWithCredentials(Long id) {
+        return delegate.findByIdWithCredentials(id);
+    }
+
+    @Override
+    public Map<Long, String> findEmailsByIds(Collection<Long> ids) {
+        Map<Long, String> emails = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Entry entry = fresh(id);
+            if (entry != null) {
+                emails.put(id, entry.account.getEmail());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            emails.putAll(delegate.findEmailsByIds(missing));
+        }
+        return emails;
+    }
+
+    @Override
+    @Transactional
+    public UserAccount save(UserAccount userAccount) {
+        UserAccount saved = delegate.save(userAccount);
+        invalidate(saved.getUserAccountId());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+        invalidate(id);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> incrementPermissionVersion(Long id) {
+        Optional<Long> version = delegate.incrementPermissionVersion(id);
+        invalidate(id);
+        return version;
+    }
+
+    /**
+     * cached entries never hold the hash, and no listed field changes: nothing to invalidate or count
+     */
+    @Override
+    @Transactional
+    public boolean updatePasswordHash(Long id, String expectedHash, String newHash) {
+        return delegate.updatePasswordHash(id, expectedHash, newHash);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public List<UserAccount> findByRole(String role) {
+        return delegate.findByRole(role);
+    }
+
+    @Override
+    public boolean existsByRole(Roles targetRole) {
+        return delegate.existsByRole(targetRole);
+    }
+
+    @Override
+    public List<UserAccount> findAll() {
+        return delegate.findAll();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * drop the account now, and again after commit in case a concurrent reader cached the
+     * pre-commit row in between. caller runs in the write's transaction
+     */
+    private void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        evict(id);
+        TransactionCallbacks.afterCommit(() -> evict(id));
+        changeCounters.userChanged();
+    }
+
+    // the generation first: a lookup that read the row before it then never caches it
+    private void evict(Long id) {
+        generations.incrementAndGet(stripe(id));
+        byId.remove(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private long[] snapshotGenerations() {
+        long[] snapshot = new long[GENERATION_STRIPES];
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            snapshot[i] = generations.get(i);
+        }
+        return snapshot;
+    }
+
+    private Entry fresh(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            byId.remove(id, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @param generation generation of the account's stripe before it was read
+     */
+    private UserAccount cache(UserAccount loaded, long generation) {
+        Long id = loaded.getUserAccountId();
+        Entry entry = new Entry(loaded, System.currentTimeMillis() + ttlMs);
+        if (maxEntries > 0) {
+            if (byId.size() >= maxEntries) {
+                makeRoom();
+            }
+            // checked under the map's lock for the id, which evict's remove also takes
+            byId.compute(id, (key, current) -> generations.get(stripe(id)) == generation ? entry : current);
+            idsByEmail.put(loaded.getEmail(), id);
+        }
+        return entry.copy();
+    }
+
+    /**
+     * drop expired entries first, then the oldest ones, down to 90% so that a full cache does not
+     * scan on every miss
+     */
+    private synchronized void makeRoom() {
+        long now = System.currentTimeMillis();
+        byId.values().removeIf(entry -> entry.expiresAt <= now);
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        if (byId.size() > target) {
+            List<Map.Entry<Long, Entry>> entries = new ArrayList<>(byId.entrySet());
+            entries.sort(Comparator.comparingLong(cached -> cached.getValue().expiresAt));
+            for (int i = 0; i < entries.size() && byId.size() > target; i++) {
+                byId.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+        // mappings whose account is gone would only ever miss
+        idsByEmail.values().removeIf(id -> !byId.containsKey(id));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String key, String description) {
+        return Counter.builder(name)
+                .tag("key", key)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+
+    private static final class Entry {
+        private final UserAccount account;
+        private final long expiresAt;
+
+        private Entry(UserAccount loaded, long expiresAt) {
+            // never keep the hash, or a reference to the managed entity
+            UserAccount account = new UserAccount();
+            account.setUserAccountId(loaded.getUserAccountId());
+            account.setEmail(loaded.getEmail());
+            account.setRole(loaded.getRole());
+            account.setPermissionVersion(loaded.getPermissionVersion());
+            this.account = account;
+            this.expiresAt = expiresAt;
+        }
+
+        // callers may modify what they get back
+        private UserAccount copy() {
+            UserAccount copy = new UserAccount();
+            copy.setUserAccountId(account.getUserAccountId());
+            copy.setEmail(account.getEmail());
+            copy.setRole(account.getRole());
+            copy.setPermissionVersion(account.getPermissionVersion());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ChangeCounter;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class ChangeCounterRepoImpl implements ChangeCounterRepository {
+
+    private final JpaChangeCounterRepository jpaRepository;
+
+    public ChangeCounterRepoImpl(JpaChangeCounterRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public ChangeCounter save(ChangeCounter changeCounter) {
+        return jpaRepository.save(changeCounter);
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return jpaRepository.existsById(name);
+    }
+
+    @Override
+    public Map<String, Long> findAllValues() {
+        Map<String, Long> values = new HashMap<>();
+        for (Object[] row : jpaRepository.findAllNamesAndValues()) {
+            values.put((String) row[0], (Long) row[1]);
+        }
+        return values;
+    }
+
+    @Override
+    public Optional<Long> findValue(String name) {
+        return jpaRepository.findValueByName(name);
+    }
+
+    @Override
+    public Optional<Long> increment(String name) {
+        if (jpaRepository.incrementByName(name) == 0) {
+            return Optional.empty();
+        }
+        // our own uncommitted update, the row stays locked until commit
+        return jpaRepository.findValueByName(name);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JpaChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    @Modifying
+    @Query("UPDATE ChangeCounter c SET c.value = c.value + 1 WHERE c.name = :name")
+    int incrementByName(@Param("name") String name);
+
+    @Query("SELECT c.value FROM ChangeCounter c WHERE c.name = :name")
+    Optional<Long> findValueByName(@Param("name") String name);
+
+    // name / value pairs only
+    @Query("SELECT c.name, c.value FROM ChangeCounter c")
+    List<Object[]> findAllNamesAndValues();
+
+}
@@ -0,0 +1,24 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.PermissionChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JpaPermissionChangeRepository extends JpaRepository<PermissionChange, Long> {
+
+    List<PermissionChange> findByChangeIdGreaterThanOrderByChangeIdAsc(Long changeId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PermissionChange c WHERE c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") Long cutoff);
+
+}
@@ -0,0 +1,39 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface JpaRefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenDigest(String tokenDigest);
+
+    // conditional update, only one concurrent rotation of the same token can win
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false AND t.revoked = false")
+    int markUsed(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.userId = :userId")
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Long now);
+
+}
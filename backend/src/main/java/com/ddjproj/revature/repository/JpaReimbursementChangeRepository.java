@@ -0,0 +1,31 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JpaReimbursementChangeRepository extends JpaRepository<ReimbursementChange, Long> {
+
+    // one range of the (stripe, seq, change_id) index
+    @Query("SELECT c FROM ReimbursementChange c WHERE c.stripe = :stripe AND c.seq <= :upToSeq " +
+            "AND (c.seq > :seq OR (c.seq = :seq AND c.changeId > :afterChangeId)) ORDER BY c.seq, c.changeId")
+    List<ReimbursementChange> findAfter(@Param("stripe") Integer stripe,
+                                        @Param("seq") Long seq,
+                                        @Param("afterChangeId") Long afterChangeId,
+                                        @Param("upToSeq") Long upToSeq,
+                                        Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReimbursementChange c WHERE c.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") Long cutoff);
+
+}
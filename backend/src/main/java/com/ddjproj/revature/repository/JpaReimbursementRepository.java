@@ -2,12 +2,22 @@ package com.ddjproj.revature.repository;
 
 import com.ddjproj.revature.domain.entity.Reimbursement;
 import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface JpaReimbursementRepository extends JpaRepository<Reimbursement, Long> {
@@ -24,4 +34,124 @@ public interface JpaReimbursementRepository extends JpaRepository<Reimbursement,
     @Query("SELECT r FROM Reimbursement r WHERE r.userId = :userId ORDER BY r.id DESC")
     List<Reimbursement> findByUserIdOrderByIdDesc(@Param("userId") Long userId);
 
+    List<Reimbursement> findByStatusOrderByIdDesc(ReimbursementStatus status);
+
+    List<Reimbursement> findByUserIdAndStatusOrderByIdDesc(Long userId, ReimbursementStatus status);
+
+    // keyset pages on id DESC, the Pageable only carries the limit
+    List<Reimbursement> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    List<Reimbursement> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long beforeId, Pageable pageable);
+
+    List<Reimbursement> findByStatusAndIdLessThanOrderByIdDesc(ReimbursementStatus status, Long beforeId, Pageable pageable);
+
+    List<Reimbursement> findByUserIdAndStatusAndIdLessThanOrderByIdDesc(Long userId, ReimbursementStatus status, Long beforeId, Pageable pageable);
+
+    // forward only cursors for exports, one per scope shape so each range scans its own index:
+    // rows are fetched from the driver in batches, read only so Hibernate keeps no snapshots.
+    // type has no index and stays an optional filter on the scanned range. must be consumed
+    // inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Reimbursement r WHERE r.id >= :fromId AND r.id <= :toId " +
+            "AND (:type IS NULL OR r.type = :type) ORDER BY r.id")
+    Stream<Reimbursement> streamForExport(@Param("type") ReimbursementType type,
+                                          @Param("fromId") Long fromId,
+                                          @Param("toId") Long toId);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Reimbursement r WHERE r.userId = :userId AND r.id >= :fromId AND r.id <= :toId " +
+            "AND (:type IS NULL OR r.type = :type) ORDER BY r.id")
+    Stream<Reimbursement> streamForExportByUserId(@Param("userId") Long userId,
+                                                  @Param("type") ReimbursementType type,
+                                                  @Param("fromId") Long fromId,
+                                                  @Param("toId") Long toId);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Reimbursement r WHERE r.status = :status AND r.id >= :fromId AND r.id <= :toId " +
+            "AND (:type IS NULL OR r.type = :type) ORDER BY r.id")
+    Stream<Reimbursement> streamForExportByStatus(@Param("status") ReimbursementStatus status,
+                                                  @Param("type") ReimbursementType type,
+                                                  @Param("fromId") Long fromId,
+                                                  @Param("toId") Long toId);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Reimbursement r WHERE r.userId = :userId AND r.status = :status " +
+            "AND r.id >= :fromId AND r.id <= :toId AND (:type IS NULL OR r.type = :type) ORDER BY r.id")
+    Stream<Reimbursement> streamForExportByUserIdAndStatus(@Param("userId") Long userId,
+                                                           @Param("status") ReimbursementStatus status,
+                                                           @Param("type") ReimbursementType type,
+                                                           @Param("fromId") Long fromId,
+                                                           @Param("toId") Long toId);
+
+    Optional<Reimbursement> findByIdAndUserId(Long id, Long userId);
+
+    Optional<Reimbursement> findByIdAndStatus(Long id, ReimbursementStatus status);
+
+    Optional<Reimbursement> findByIdAndUserIdAndStatus(Long id, Long userId, ReimbursementStatus status);
+
+    // primary key lookup of the four columns a conditional GET needs, the row itself is not loaded
+    @Query("SELECT new com.ddjproj.revature.repository.ReimbursementVersion(r.id, r.userId, r.status, r.version) " +
+            "FROM Reimbursement r WHERE r.id = :id")
+    Optional<ReimbursementVersion> findVersionById(@Param("id") Long id);
+
+    // the row as it is before a write, locked until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reimbursement r WHERE r.id = :id")
+    Optional<Reimbursement> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Reimbursement> findByIdInAndStatus(Collection<Long> ids, ReimbursementStatus status);
+
+    @Query("SELECT r.id FROM Reimbursement r WHERE r.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // bulk statement, bypasses the persistence context which is cleared afterwards
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Reimbursement r SET r.status = :to, r.version = r.version + 1 " +
+            "WHERE r.id IN :ids AND r.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("from") ReimbursementStatus from,
+                           @Param("to") ReimbursementStatus to);
+
+    // single row compare-and-set on the status, the affected row count tells whether it applied
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reimbursement r SET r.status = :to, r.version = r.version + 1 " +
+            "WHERE r.id = :id AND r.status = :from")
+    int updateStatusById(@Param("id") Long id,
+                         @Param("from") ReimbursementStatus from,
+                         @Param("to") ReimbursementStatus to);
+
+    // single row update within a scope (owner / status, null for no restriction), the affected
+    // row count tells whether the row matched
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reimbursement r SET r.description = :description, r.type = :type, r.amount = :amount, " +
+            "r.version = r.version + 1 WHERE r.id = :id " +
+            "AND (:ownerId IS NULL OR r.userId = :ownerId) AND (:status IS NULL OR r.status = :status)")
+    int updateDetailsById(@Param("id") Long id,
+                          @Param("ownerId") Long ownerId,
+                          @Param("status") ReimbursementStatus status,
+                          @Param("description") String description,
+                          @Param("type") ReimbursementType type,
+                          @Param("amount") Long amount);
+
+    @Query("SELECT new com.ddjproj.revature.repository.ReimbursementAggregate(r.status, r.type, COUNT(r), SUM(r.amount)) " +
+            "FROM Reimbursement r GROUP BY r.status, r.type")
+    List<ReimbursementAggregate> aggregateByStatusAndType();
+
+    @Query("SELECT new com.ddjproj.revature.repository.ReimbursementAggregate(r.userId, COUNT(r), SUM(r.amount)) " +
+            "FROM Reimbursement r GROUP BY r.userId")
+    List<ReimbursementAggregate> aggregateByUser();
+
 }
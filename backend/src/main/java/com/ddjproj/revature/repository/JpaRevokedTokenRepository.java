@@ -0,0 +1,24 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface JpaRevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByRevocationIdGreaterThanOrderByRevocationIdAsc(Long revocationId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Long now);
+
+}
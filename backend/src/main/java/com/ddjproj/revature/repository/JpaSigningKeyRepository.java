@@ -0,0 +1,14 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JpaSigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByOrderByCreatedAtAsc();
+
+}
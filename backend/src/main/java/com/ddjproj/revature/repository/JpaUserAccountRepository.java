@@ -4,8 +4,12 @@ import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.domain.enums.Roles;
 import com.ddjproj.revature.repository.UserAccountRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,5 +19,24 @@ public interface JpaUserAccountRepository extends JpaRepository<UserAccount, Lon
     boolean existsByEmail(String email);
     List<UserAccount> findUserAccountByRole(Roles role);
     boolean existsByRole(Roles role);
+
+    // id / email pairs only, no entity hydration
+    @Query("SELECT u.userAccountId, u.email FROM UserAccount u WHERE u.userAccountId IN :ids")
+    List<Object[]> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserAccount u SET u.permissionVersion = u.permissionVersion + 1 WHERE u.userAccountId = :id")
+    int incrementPermissionVersion(@Param("id") Long id);
+
+    @Query("SELECT u.permissionVersion FROM UserAccount u WHERE u.userAccountId = :id")
+    Optional<Long> findPermissionVersionById(@Param("id") Long id);
+
+    // compare-and-set on the hash, so a concurrent password change is never overwritten
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserAccount u SET u.passwordHash = :newHash " +
+            "WHERE u.userAccountId = :id AND u.passwordHash = :expectedHash")
+    int updatePasswordHash(@Param("id") Long id,
+                           @Param("expectedHash") String expectedHash,
+                           @Param("newHash") String newHash);
     // countByRole ?
 }
@@ -0,0 +1,32 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.PermissionChange;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class PermissionChangeRepoImpl implements PermissionChangeRepository {
+
+    private final JpaPermissionChangeRepository jpaRepository;
+
+    public PermissionChangeRepoImpl(JpaPermissionChangeRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public PermissionChange save(PermissionChange permissionChange) {
+        return jpaRepository.save(permissionChange);
+    }
+
+    @Override
+    public List<PermissionChange> findByChangeIdGreaterThan(Long changeId, int limit) {
+        return jpaRepository.findByChangeIdGreaterThanOrderByChangeIdAsc(changeId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int deleteByChangedAtBefore(Long cutoff) {
+        return jpaRepository.deleteByChangedAtBefore(cutoff);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RefreshToken;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class RefreshTokenRepoImpl implements RefreshTokenRepository {
+
+    private final JpaRefreshTokenRepository jpaRepository;
+
+    public RefreshTokenRepoImpl(JpaRefreshTokenRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        return jpaRepository.save(refreshToken);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenDigest(String tokenDigest) {
+        return jpaRepository.findByTokenDigest(tokenDigest);
+    }
+
+    @Override
+    public boolean markUsed(Long id) {
+        return jpaRepository.markUsed(id) == 1;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        jpaRepository.revokeFamily(familyId);
+    }
+
+    @Override
+    public void revokeAllForUser(Long userId) {
+        jpaRepository.revokeAllForUser(userId);
+    }
+
+    @Override
+    public int deleteByExpiresAtBefore(Long now) {
+        return jpaRepository.deleteByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class ReimbursementChangeRepoImpl implements ReimbursementChangeRepository {
+
+    private final JpaReimbursementChangeRepository jpaRepository;
+
+    public ReimbursementChangeRepoImpl(JpaReimbursementChangeRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public List<ReimbursementChange> saveAll(Collection<ReimbursementChange> changes) {
+        return jpaRepository.saveAll(changes);
+    }
+
+    @Override
+    public List<ReimbursementChange> findAfter(int stripe, long seq, long afterChangeId, long upToSeq, int limit) {
+        return jpaRepository.findAfter(stripe, seq, afterChangeId, upToSeq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int deleteByCreatedAtBefore(Long cutoff) {
+        return jpaRepository.deleteByCreatedAtBefore(cutoff);
+    }
+}
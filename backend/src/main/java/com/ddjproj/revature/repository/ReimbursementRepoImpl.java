@@ -2,17 +2,28 @@ package com.ddjproj.revature.repository;
 
 import com.ddjproj.revature.domain.entity.Reimbursement;
 import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Component
 public class ReimbursementRepoImpl implements ReimbursementRepository {
 
     private final JpaReimbursementRepository jpaRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public ReimbursementRepoImpl(JpaReimbursementRepository jpaRepository) {
         this.jpaRepository = jpaRepository;
@@ -48,6 +59,160 @@ public class ReimbursementRepoImpl implements ReimbursementRepository {
         return jpaRepository.findByUserIdAndStatus(userId, status);
     }
 
+    @Override
+    public List<Reimbursement> findAll(ReimbursementScope scope) {
+        if (scope.isNone()) {
+            return Collections.emptyList();
+        }
+        Long ownerId = scope.getOwnerId();
+        ReimbursementStatus status = scope.getStatus();
+        if (ownerId != null && status != null) {
+            return jpaRepository.findByUserIdAndStatusOrderByIdDesc(ownerId, status);
+        }
+        if (ownerId != null) {
+            return jpaRepository.findByUserIdOrderByIdDesc(ownerId);
+        }
+        if (status != null) {
+            return jpaRepository.findByStatusOrderByIdDesc(status);
+        }
+        return jpaRepository.findAllOrderByIdDesc();
+    }
+
+    @Override
+    public List<Reimbursement> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Reimbursement> findPage(ReimbursementScope scope, Long beforeId, int limit) {
+        if (scope.isNone()) {
+            return Collections.emptyList();
+        }
+        // seek past the last id of the previous page instead of an OFFSET scan
+        Long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        Pageable pageable = PageRequest.of(0, limit);
+        Long ownerId = scope.getOwnerId();
+        ReimbursementStatus status = scope.getStatus();
+        if (ownerId != null && status != null) {
+            return jpaRepository.findByUserIdAndStatusAndIdLessThanOrderByIdDesc(ownerId, status, before, pageable);
+        }
+        if (ownerId != null) {
+            return jpaRepository.findByUserIdAndIdLessThanOrderByIdDesc(ownerId, before, pageable);
+        }
+        if (status != null) {
+            return jpaRepository.findByStatusAndIdLessThanOrderByIdDesc(status, before, pageable);
+        }
+        return jpaRepository.findByIdLessThanOrderByIdDesc(before, pageable);
+    }
+
+    @Override
+    public Stream<Reimbursement> streamAll(ReimbursementScope scope, ReimbursementType type, Long fromId, Long toId) {
+        if (scope.isNone()) {
+            return Stream.empty();
+        }
+        Long from = fromId != null ? fromId : Long.MIN_VALUE;
+        Long to = toId != null ? toId : Long.MAX_VALUE;
+        Long ownerId = scope.getOwnerId();
+        ReimbursementStatus status = scope.getStatus();
+        Stream<Reimbursement> rows;
+        if (ownerId != null && status != null) {
+            rows = jpaRepository.streamForExportByUserIdAndStatus(ownerId, status, type, from, to);
+        } else if (ownerId != null) {
+            rows = jpaRepository.streamForExportByUserId(ownerId, type, from, to);
+        } else if (status != null) {
+            rows = jpaRepository.streamForExportByStatus(status, type, from, to);
+        } else {
+            rows = jpaRepository.streamForExport(type, from, to);
+        }
+        // detach as rows are consumed so the persistence context does not grow with the result
+        return rows.peek(entityManager::detach);
+    }
+
+    @Override
+    public Optional<Reimbursement> findById(Long id, ReimbursementScope scope) {
+        if (scope.isNone()) {
+            return Optional.empty();
+        }
+        Long ownerId = scope.getOwnerId();
+        ReimbursementStatus status = scope.getStatus();
+        if (ownerId != null && status != null) {
+            return jpaRepository.findByIdAndUserIdAndStatus(id, ownerId, status);
+        }
+        if (ownerId != null) {
+            return jpaRepository.findByIdAndUserId(id, ownerId);
+        }
+        if (status != null) {
+            return jpaRepository.findByIdAndStatus(id, status);
+        }
+        return jpaRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return jpaRepository.existsById(id);
+    }
+
+    @Override
+    public Optional<ReimbursementVersion> findVersionById(Long id) {
+        return jpaRepository.findVersionById(id);
+    }
+
+    @Override
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaRepository.findIdsByIdIn(ids);
+    }
+
+    @Override
+    public List<Reimbursement> lockByIdsAndStatus(Collection<Long> ids, ReimbursementStatus status) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaRepository.findByIdInAndStatus(ids, status);
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, ReimbursementStatus from, ReimbursementStatus to) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jpaRepository.updateStatusByIdIn(ids, from, to);
+    }
+
+    @Override
+    public boolean updateStatus(Long id, ReimbursementStatus from, ReimbursementStatus to) {
+        return jpaRepository.updateStatusById(id, from, to) == 1;
+    }
+
+    @Override
+    public boolean updateDetails(Long id, ReimbursementScope scope, String description, ReimbursementType type, Long amount) {
+        if (scope.isNone()) {
+            return false;
+        }
+        return jpaRepository.updateDetailsById(id, scope.getOwnerId(), scope.getStatus(),
+                description, type, amount) == 1;
+    }
+
+    @Override
+    public Optional<Reimbursement> lockById(Long id) {
+        return jpaRepository.lockById(id);
+    }
+
+    @Override
+    public List<ReimbursementAggregate> aggregateByStatusAndType() {
+        return jpaRepository.aggregateByStatusAndType();
+    }
+
+    @Override
+    public List<ReimbursementAggregate> aggregateByUser() {
+        return jpaRepository.aggregateByUser();
+    }
+
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
@@ -0,0 +1,32 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RevokedToken;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class RevokedTokenRepoImpl implements RevokedTokenRepository {
+
+    private final JpaRevokedTokenRepository jpaRepository;
+
+    public RevokedTokenRepoImpl(JpaRevokedTokenRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public RevokedToken save(RevokedToken revokedToken) {
+        return jpaRepository.save(revokedToken);
+    }
+
+    @Override
+    public List<RevokedToken> findByRevocationIdGreaterThan(Long revocationId, int limit) {
+        return jpaRepository.findByRevocationIdGreaterThanOrderByRevocationIdAsc(revocationId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int deleteByExpiresAtBefore(Long now) {
+        return jpaRepository.deleteByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.SigningKey;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class SigningKeyRepoImpl implements SigningKeyRepository {
+
+    private final JpaSigningKeyRepository jpaRepository;
+
+    public SigningKeyRepoImpl(JpaSigningKeyRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public SigningKey save(SigningKey signingKey) {
+        return jpaRepository.save(signingKey);
+    }
+
+    @Override
+    public List<SigningKey> findAllOrderByCreatedAt() {
+        return jpaRepository.findAllByOrderByCreatedAtAsc();
+    }
+
+    @Override
+    public void deleteById(String kid) {
+        jpaRepository.deleteById(kid);
+    }
+}
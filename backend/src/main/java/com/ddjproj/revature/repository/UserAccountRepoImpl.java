@@ -4,11 +4,17 @@ import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.domain.enums.Roles;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
 public class UserAccountRepoImpl implements UserAccountRepository{
+    private static final int MAX_IN_LIST = 1000;
+
     private final JpaUserAccountRepository jpaUserAccountRepository;
 
     public UserAccountRepoImpl(JpaUserAccountRepository jpaUserAccountRepository) {
@@ -51,6 +57,33 @@ public class UserAccountRepoImpl implements UserAccountRepository{
         return jpaUserAccountRepository.findById(id);
     }
 
+    @Override
+    public Optional<UserAccount> findByEmailWithCredentials(String email) {
+        return jpaUserAccountRepository.findUserAccountByEmail(email);
+    }
+
+    @Override
+    public Optional<UserAccount> findByIdWithCredentials(Long id) {
+        return jpaUserAccountRepository.findById(id);
+    }
+
+    @Override
+    public Map<Long, String> findEmailsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> emails = new HashMap<>();
+        // chunked to keep the IN list within what every database accepts
+        List<Long> idList = new ArrayList<>(ids);
+        for (int start = 0; start < idList.size(); start += MAX_IN_LIST) {
+            List<Long> chunk = idList.subList(start, Math.min(start + MAX_IN_LIST, idList.size()));
+            for (Object[] row : jpaUserAccountRepository.findEmailsByIdIn(chunk)) {
+                emails.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return emails;
+    }
+
     @Override
     public List<UserAccount> findAll() {
         return jpaUserAccountRepository.findAll();
@@ -60,4 +93,18 @@ public class UserAccountRepoImpl implements UserAccountRepository{
     public void deleteById(Long id) {
         jpaUserAccountRepository.deleteById(id);
     }
+
+    @Override
+    public Optional<Long> incrementPermissionVersion(Long id) {
+        if (jpaUserAccountRepository.incrementPermissionVersion(id) == 0) {
+            return Optional.empty();
+        }
+        // our own uncommitted update, the row stays locked until commit
+        return jpaUserAccountRepository.findPermissionVersionById(id);
+    }
+
+    @Override
+    public boolean updatePasswordHash(Long id, String expectedHash, String newHash) {
+        return jpaUserAccountRepository.updatePasswordHash(id, expectedHash, newHash) == 1;
+    }
 }
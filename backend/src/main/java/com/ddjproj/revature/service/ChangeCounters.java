@@ -0,0 +1,222 @@
+package com.ddjproj.revature.service;
+
+import com.ddjproj.revature.domain.entity.ChangeCounter;
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.repository.ChangeCounterRepository;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+import com.ddjproj.revature.repository.ReimbursementVersion;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Change counters in the shared change_counter table. Every write increments its counters inside
+ * its own transaction, and conditional GETs compare weak ETags built from them instead of reading
+ * and hashing the response. All nodes read the same rows, so a write through any node changes the
+ * tag on all of them as soon as it commits; a tag read is one query on this small table.
+ * <p>
+ * Reimbursement writes count in one of {@link #REIMBURSEMENT_STRIPES} rows, picked by the owner.
+ * The increment keeps its row locked until the writing transaction commits, so only writes for
+ * owners of the same stripe wait for each other, and only between the increment (the last
+ * statement of the write) and the commit. A list limited to one owner is tagged with that
+ * owner's stripe, so writes for other owners of the stripe cost it a redundant 200, never a
+ * stale 304; the list of every reimbursement is tagged with the sum of all stripes, which grows
+ * with every commit. A single reimbursement is tagged with its row version.
+ * <p>
+ * The same increment numbers the write's rows in the reimbursement_change log: per stripe the
+ * numbers become visible in commit order and without gaps, which is what the change cursors
+ * ({@link ReimbursementChangeCursor}) follow. The log is pruned after
+ * reimbursement.changes.retention-ms; a node whose cursor falls further behind than that finds
+ * a gap and reloads.
+ * <p>
+ * User account writes are rare, they count in one row. User emails are part of reimbursement
+ * responses, so reimbursement tags include that counter too.
+ */
+@Component
+public class ChangeCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeCounters.class);
+    public static final String USER_ACCOUNTS = "user_account";
+    // part of the stored counter names, changing it reassigns owners to other rows
+    public static final int REIMBURSEMENT_STRIPES = 16;
+    private static final String REIMBURSEMENT_STRIPE_PREFIX = "reimbursement:";
+
+    private final ChangeCounterRepository changeCounterRepository;
+    private final ReimbursementChangeRepository reimbursementChangeRepository;
+    private final long retentionMs;
+    // tells this node's log rows from the others'
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ChangeCounters(ChangeCounterRepository changeCounterRepository,
+                          ReimbursementChangeRepository reimbursementChangeRepository,
+                          @Value("${reimbursement.changes.retention-ms:86400000}") long retentionMs) {
+        this.changeCounterRepository = changeCounterRepository;
+        this.reimbursementChangeRepository = reimbursementChangeRepository;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * create missing counters. they start from the clock, so a recreated database never hands out
+     * numbers (and tags) a client may still hold from before
+     */
+    @PostConstruct
+    void createCounters() {
+        List<String> names = new ArrayList<>();
+        names.add(USER_ACCOUNTS);
+        for (int stripe = 0; stripe < REIMBURSEMENT_STRIPES; stripe++) {
+            names.add(stripeName(stripe));
+        }
+        for (String name : names) {
+            if (changeCounterRepository.existsByName(name)) {
+                continue;
+            }
+            try {
+                changeCounterRepository.save(new ChangeCounter(name, System.currentTimeMillis() * 1000));
+            } catch (DataIntegrityViolationException e) {
+                // created by another node at the same time
+                logger.debug("Change counter {} already created", name);
+            }
+        }
+    }
+
+    /**
+     * count a reimbursement write in the current transaction, once per stripe of the owners it
+     * touched, and log its rows under the stripe's new number. call it after every other
+     * statement of the write: the stripe rows stay locked until commit, and are locked in
+     * ascending order so writes spanning several stripes never deadlock
+     *
+     * @param changes the written rows, stamped here with their stripe, number and node
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reimbursementsChanged(Collection<ReimbursementChange> changes) {
+        SortedMap<Integer, List<ReimbursementChange>> byStripe = new TreeMap<>();
+        for (ReimbursementChange change : changes) {
+            byStripe.computeIfAbsent(stripe(change.getUserId()), s -> new ArrayList<>()).add(change);
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Integer, List<ReimbursementChange>> stripe : byStripe.entrySet()) {
+            long seq = next(stripeName(stripe.getKey()));
+            for (ReimbursementChange change : stripe.getValue()) {
+                change.setStripe(stripe.getKey());
+                change.setSeq(seq);
+                change.setNodeId(nodeId);
+                change.setCreatedAt(now);
+            }
+        }
+        reimbursementChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * count a user account write in the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userChanged() {
+        next(USER_ACCOUNTS);
+    }
+
+    /**
+     * must be computed before the data it describes is read: a write committed in between then
+     * only costs a redundant 200, never a stale 304
+     *
+     * @param ownerId owner the caller is limited to, null for every reimbursement
+     * @param caller tags are per caller, since the response depends on who asks
+     * @return weak ETag
+     */
+    public String reimbursementETag(Long ownerId, UserAccount caller) {
+        Map<String, Long> counters = changeCounterRepository.findAllValues();
+        long reimbursements = 0;
+        if (ownerId != null) {
+            reimbursements = counters.getOrDefault(stripeName(stripe(ownerId)), 0L);
+        } else {
+            for (int stripe = 0; stripe < REIMBURSEMENT_STRIPES; stripe++) {
+                reimbursements += counters.getOrDefault(stripeName(stripe), 0L);
+            }
+        }
+        return "W/\"r-" + reimbursements + "-" + counters.getOrDefault(USER_ACCOUNTS, 0L) + "-"
+                + caller.getUserAccountId() + "-" + caller.getRole() + "\"";
+    }
+
+    /**
+     * same ordering rule as the list tags, read the version before the row
+     *
+     * @param reimbursement version of the row the response is built from
+     * @return weak ETag of a single reimbursement
+     */
+    public String reimbursementETag(ReimbursementVersion reimbursement) {
+        return "W/\"r" + reimbursement.getId() + "-" + reimbursement.getVersion() + "-" + userChanges() + "\"";
+    }
+
+    /**
+     * @return weak ETag of the user account list
+     */
+    public String userETag() {
+        return "W/\"u-" + userChanges() + "\"";
+    }
+
+    /**
+     * @return committed value of every reimbursement stripe, indexed by stripe
+     */
+    public long[] reimbursementStripes() {
+        Map<String, Long> counters = changeCounterRepository.findAllValues();
+        long[] values = new long[REIMBURSEMENT_STRIPES];
+        for (int stripe = 0; stripe < REIMBURSEMENT_STRIPES; stripe++) {
+            values[stripe] = counters.getOrDefault(stripeName(stripe), 0L);
+        }
+        return values;
+    }
+
+    /**
+     * @return id this node stamps its reimbursement_change rows with
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * drop reimbursement_change rows older than the retention, every cursor has read them by then
+     */
+    @Scheduled(fixedDelayString = "${reimbursement.changes.prune-ms:600000}",
+            initialDelayString = "${reimbursement.changes.prune-ms:600000}")
+    public void pruneReimbursementChanges() {
+        int pruned = reimbursementChangeRepository.deleteByCreatedAtBefore(System.currentTimeMillis() - retentionMs);
+        if (pruned > 0) {
+            logger.debug("Pruned {} reimbursement changes", pruned);
+        }
+    }
+
+    /**
+     * @param ownerId
+     * @return stripe the owner's reimbursement writes count in
+     */
+    public static int stripe(Long ownerId) {
+        return ownerId == null ? 0 : (int) Math.floorMod(ownerId, (long) REIMBURSEMENT_STRIPES);
+    }
+
+    private static String stripeName(int stripe) {
+        return REIMBURSEMENT_STRIPE_PREFIX + stripe;
+    }
+
+    private long userChanges() {
+        return changeCounterRepository.findValue(USER_ACCOUNTS).orElse(0L);
+    }
+
+    private long next(String name) {
+        return changeCounterRepository.increment(name)
+                .orElseThrow(() -> new IllegalStateException("Change counter " + name + " is missing"));
+    }
+}
@@ -6,6 +6,7 @@ import com.ddjproj.revature.domain.enums.ReimbursementStatus;
 import com.ddjproj.revature.domain.enums.Roles;
 
 import com.ddjproj.revature.domain.enums.Permissions;
+import com.ddjproj.revature.repository.ReimbursementScope;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -24,7 +25,7 @@ public class PermissionEvaluatorImpl implements PermissionEvaluator {
         if (userAccount.getRole() == Roles.MANAGER) {
             return true;
         }
-        boolean hasBasePermission = userAccount.getPermissions().stream().anyMatch(p -> p.equals(permissionType));
+        boolean hasBasePermission = userAccount.getRole().hasPermission(permissionType);
 
         if (!hasBasePermission) {
             return false;
@@ -36,37 +37,50 @@ public class PermissionEvaluatorImpl implements PermissionEvaluator {
         return true;
     }
 
-    private boolean evaluateResourcePermission(UserAccount userAccount, Permissions permissionType, Object resourceObject) {
-        if (resourceObject instanceof Reimbursement) {
-            Reimbursement reimbursement = (Reimbursement) resourceObject;
-            switch (permissionType) {
-                case VIEW_ALL_REIMBURSEMENT_REQUESTS:
-                    // Employees can only view their own reimbursements
-                    if (userAccount.getRole() == Roles.EMPLOYEE) {
-                        return reimbursement.getUserId().equals(userAccount.getUserAccountId());
-                    }
-                    break;
+    /**
+     * row-level rules for reimbursements, applied in queries through the returned scope and to
+     * already loaded rows through {@link ReimbursementScope#matches(Reimbursement)}
+     *
+     * @param userAccount
+     * @param permissionType
+     * @return scope of rows the user may access with the permission
+     */
+    @Override
+    public ReimbursementScope reimbursementScope(UserAccount userAccount, Permissions permissionType) {
+        if (userAccount.getRole() == Roles.MANAGER) {
+            return ReimbursementScope.all();
+        }
+        if (!userAccount.getRole().hasPermission(permissionType)) {
+            return ReimbursementScope.none();
+        }
 
-                case VIEW_SUBMITTED_REIMBURSEMENT_REQUESTS:
-                    // Only view own reimbursements
-                    return reimbursement.getUserId().equals(userAccount.getUserAccountId());
+        switch (permissionType) {
+            case VIEW_ALL_REIMBURSEMENT_REQUESTS:
+            case VIEW_SINGLE_REIMBURSEMENT_REQUEST:
+                // Employees can only view their own reimbursements
+                if (userAccount.getRole() == Roles.EMPLOYEE) {
+                    return ReimbursementScope.ownedBy(userAccount.getUserAccountId());
+                }
+                return ReimbursementScope.all();
 
-                case VIEW_SINGLE_REIMBURSEMENT_REQUEST:
-                    // Employees can only view their own reimbursements
-                    if (userAccount.getRole() == Roles.EMPLOYEE) {
-                        return reimbursement.getUserId().equals(userAccount.getUserAccountId());
-                    }
-                    break;
+            case VIEW_SUBMITTED_REIMBURSEMENT_REQUESTS:
+                // Only view own reimbursements
+                return ReimbursementScope.ownedBy(userAccount.getUserAccountId());
 
-                case EDIT_PENDING_REIMBURSEMENT:
-                    // Can only edit own reimbursements when pending
-                    return reimbursement.getUserId().equals(userAccount.getUserAccountId())
-                            && reimbursement.getStatus() == ReimbursementStatus.PENDING;
+            case EDIT_PENDING_REIMBURSEMENT:
+                // Can only edit own reimbursements when pending
+                return ReimbursementScope.ownedBy(userAccount.getUserAccountId())
+                        .withStatus(ReimbursementStatus.PENDING);
 
-                default:
-                    // default to base permission check
-                    break;
-            }
+            default:
+                // default to base permission check
+                return ReimbursementScope.all();
+        }
+    }
+
+    private boolean evaluateResourcePermission(UserAccount userAccount, Permissions permissionType, Object resourceObject) {
+        if (resourceObject instanceof Reimbursement) {
+            return reimbursementScope(userAccount, permissionType).matches((Reimbursement) resourceObject);
         }
 
         // base useraccount check
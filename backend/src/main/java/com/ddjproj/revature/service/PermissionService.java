@@ -3,8 +3,11 @@ package com.ddjproj.revature.service;
 import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.domain.enums.Permissions;
 import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.repository.ReimbursementScope;
 import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -23,17 +26,43 @@ public class PermissionService {
     }
 
     /**
-     * Get the current authenticated user
+     * Get the current authenticated user.
+     * Built from the request principal, so it is detached and carries no password hash
      */
     public UserAccount getCurrentUser() throws UnauthorizedException {
+        JwtPrincipal principal = getCurrentPrincipal();
+
+        UserAccount currentUser = new UserAccount();
+        currentUser.setUserAccountId(principal.getUserId());
+        currentUser.setEmail(principal.getEmail());
+        currentUser.setRole(principal.getRole());
+        return currentUser;
+    }
+
+    /**
+     * Get the principal of the current request, resolved at most once per request.
+     * Tokens carrying the user claims already authenticate with a JwtPrincipal, anything else is
+     * looked up by email once and the resolved principal replaces it in the security context
+     */
+    public JwtPrincipal getCurrentPrincipal() throws UnauthorizedException {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
             throw new UnauthorizedException("No authenticated user found");
         }
+        if (auth.getPrincipal() instanceof JwtPrincipal) {
+            return (JwtPrincipal) auth.getPrincipal();
+        }
 
         String email = auth.getName();
-        return userAccountRepository.findByEmail(email)
+        UserAccount userAccount = userAccountRepository.findByEmail(email)
                 .orElseThrow(() -> new UnauthorizedException("User not found: " + email));
+
+        JwtPrincipal principal = new JwtPrincipal(userAccount.getUserAccountId(), userAccount.getEmail(), userAccount.getRole());
+        UsernamePasswordAuthenticationToken resolved =
+                new UsernamePasswordAuthenticationToken(principal, auth.getCredentials(), auth.getAuthorities());
+        resolved.setDetails(auth.getDetails());
+        SecurityContextHolder.getContext().setAuthentication(resolved);
+        return principal;
     }
 
     /**
@@ -66,4 +95,16 @@ public class PermissionService {
             throw new UnauthorizedException("Permission denied: " + permission.name());
         }
     }
+
+    /**
+     * Row-level scope of the reimbursements the current user may access with the permission,
+     * throw exception if the permission is not held at all
+     */
+    public ReimbursementScope requireReimbursementScope(Permissions permission) throws UnauthorizedException {
+        ReimbursementScope scope = permissionEvaluator.reimbursementScope(getCurrentUser(), permission);
+        if (scope.isNone()) {
+            throw new UnauthorizedException("Permission denied: " + permission.name());
+        }
+        return scope;
+    }
 }
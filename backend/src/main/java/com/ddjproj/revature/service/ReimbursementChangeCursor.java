@@ -0,0 +1,104 @@
+package com.ddjproj.revature.service;
+
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Follows the reimbursement_change log written through any node, stripe by stripe.
+ * Every write numbers its log rows with the new value of its owner's counter stripe, taken in
+ * the writing transaction ({@link ChangeCounters#reimbursementsChanged}). The stripe row stays
+ * locked until commit, so within a stripe a number is only visible once every lower one is, and
+ * numbers follow each other without gaps. A poll reads the committed stripe values once, then
+ * the log rows of each stripe that moved, up to that value: nothing that committed late can be
+ * passed over, and a missing number can only mean the rows were pruned before this cursor got to
+ * them. The poll then reports a gap and the caller reloads from the tables.
+ * <p>
+ * Not thread safe, each user keeps its own cursor and polls it from one thread at a time.
+ */
+final class ReimbursementChangeCursor {
+
+    // reported by poll when log rows were pruned before they were read
+    static final int GAP = -1;
+
+    private final ChangeCounters changeCounters;
+    private final ReimbursementChangeRepository reimbursementChangeRepository;
+    private final int batchSize;
+
+    // per stripe: number of the last write handed out, and the last of its rows
+    private final long[] seqs = new long[ChangeCounters.REIMBURSEMENT_STRIPES];
+    private final long[] changeIds = new long[ChangeCounters.REIMBURSEMENT_STRIPES];
+
+    ReimbursementChangeCursor(ChangeCounters changeCounters, ReimbursementChangeRepository reimbursementChangeRepository,
+                              int batchSize) {
+        this.changeCounters = changeCounters;
+        this.reimbursementChangeRepository = reimbursementChangeRepository;
+        this.batchSize = batchSize;
+        skip();
+    }
+
+    /**
+     * @return committed stripe values, a position to {@link #reset} to once the state they were
+     * read with is loaded
+     */
+    long[] positions() {
+        return changeCounters.reimbursementStripes();
+    }
+
+    /**
+     * the next poll hands out the writes numbered past the positions
+     */
+    void reset(long[] positions) {
+        System.arraycopy(positions, 0, seqs, 0, seqs.length);
+        // every row of the write at the position is already covered
+        Arrays.fill(changeIds, Long.MAX_VALUE);
+    }
+
+    /**
+     * move past everything committed so far without reading it
+     */
+    void skip() {
+        reset(positions());
+    }
+
+    /**
+     * @param consumer called with each batch of log rows, in commit order per stripe
+     * @return number of rows handed out, or {@link #GAP} if rows were pruned before they were read.
+     * the caller then reloads and resets the cursor, whatever was handed out before the gap
+     */
+    int poll(Consumer<List<ReimbursementChange>> consumer) {
+        long[] upTo = positions();
+        int count = 0;
+        for (int stripe = 0; stripe < seqs.length; stripe++) {
+            if (upTo[stripe] <= seqs[stripe]) {
+                continue;
+            }
+            List<ReimbursementChange> page;
+            do {
+                page = reimbursementChangeRepository.findAfter(stripe, seqs[stripe], changeIds[stripe], upTo[stripe], batchSize);
+                long seq = seqs[stripe];
+                for (ReimbursementChange change : page) {
+                    if (change.getSeq() > seq + 1) {
+                        return GAP;
+                    }
+                    seq = change.getSeq();
+                }
+                if (!page.isEmpty()) {
+                    consumer.accept(page);
+                    // only once the consumer took them, a failed batch is handed out again
+                    ReimbursementChange last = page.get(page.size() - 1);
+                    seqs[stripe] = last.getSeq();
+                    changeIds[stripe] = last.getChangeId();
+                    count += page.size();
+                }
+            } while (page.size() == batchSize);
+            if (seqs[stripe] < upTo[stripe]) {
+                return GAP;
+            }
+        }
+        return count;
+    }
+}
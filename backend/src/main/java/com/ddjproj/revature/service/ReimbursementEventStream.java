@@ -0,0 +1,491 @@
+package com.ddjproj.revature.service;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.dto.ReimbursementMapper;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+import com.ddjproj.revature.repository.ReimbursementRepository;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+import com.ddjproj.revature.service.auth.PermissionVersionTable;
+import com.ddjproj.revature.service.auth.TokenBlacklistService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events fan-out of committed reimbursement changes.
+ * Changes are read from the database, not from this node's writes: a single publisher thread
+ * follows the reimbursement_change log ({@link ReimbursementChangeCursor}), so writes committed
+ * through any node reach every subscriber, reads the changed rows and hands each one to every
+ * subscriber whose scope covers it. If the log was pruned past the cursor, every stream is
+ * closed so the clients reload.
+ * Subscribers have their own bounded buffer drained by a small sender pool, so a slow connection
+ * only delays itself, and is dropped once its buffer is full. A send still blocked after
+ * reimbursement.events.send-timeout-ms drops its subscriber too, and the pool gets a thread in
+ * place of the blocked one until the send returns, so clients that stop reading cannot take up
+ * every sender. Clients reconnect and reload the list after a drop.
+ *
+ * A stream lives at most as long as the token it was opened with. It is also closed once that
+ * token is revoked or the user's role changes or the account is removed, checked on every
+ * heartbeat against the shared revocation list and permission versions, and right away for
+ * logouts and changes made through this node. Tokens issued before permission versions carry
+ * none: they are only accepted while their role is still the account's, and are then held to
+ * the account's version from that moment.
+ */
+@Component
+public class ReimbursementEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReimbursementEventStream.class);
+    private static final String EVENT_NAME = "reimbursement";
+    // queued like an event so heartbeats keep their place behind pending changes
+    private static final Object HEARTBEAT = new Object();
+    // Subscriber.sendingSince once the send was given up on
+    private static final long STALLED = -1L;
+
+    private static final int POLL_BATCH_SIZE = 500;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ReimbursementRepository reimbursementRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final ReimbursementMapper reimbursementMapper;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final PermissionVersionTable permissionVersionTable;
+    private final ThreadPoolExecutor senders;
+    private final Thread publisher;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int senderThreads;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final long tokenLifetimeMs;
+    private final long pollMs;
+
+    // only the publisher thread polls it
+    private final ReimbursementChangeCursor changes;
+
+    // guarded by senders: threads added in place of ones blocked in a stalled send
+    private int replacedSenders;
+
+    private final Counter droppedSubscribers;
+    private final Counter closedSubscribers;
+    private final Counter stalledSubscribers;
+
+    public ReimbursementEventStream(ReimbursementRepository reimbursementRepository,
+                                    ReimbursementChangeRepository reimbursementChangeRepository,
+                                    ChangeCounters changeCounters,
+                                    UserAccountRepository userAccountRepository,
+                                    ReimbursementMapper reimbursementMapper,
+                                    TokenBlacklistService tokenBlacklistService,
+                                    PermissionVersionTable permissionVersionTable,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${reimbursement.events.buffer-size:64}") int bufferSize,
+                                    @Value("${reimbursement.events.max-subscribers:5000}") int maxSubscribers,
+                                    @Value("${reimbursement.events.sender-threads:4}") int senderThreads,
+                                    @Value("${reimbursement.events.timeout-ms:1800000}") long timeoutMs,
+                                    @Value("${reimbursement.events.send-timeout-ms:10000}") long sendTimeoutMs,
+                                    @Value("${reimbursement.events.poll-ms:1000}") long pollMs,
+                                    @Value("${security.jwt.expiration}") long tokenLifetimeMs) {
+        this.reimbursementRepository = reimbursementRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.reimbursementMapper = reimbursementMapper;
+        this.changes = new ReimbursementChangeCursor(changeCounters, reimbursementChangeRepository, POLL_BATCH_SIZE);
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.permissionVersionTable = permissionVersionTable;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.senderThreads = senderThreads;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.pollMs = pollMs;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // fixed size, only grown while sends are stalled. at most one send per subscriber at a time
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads + maxSubscribers,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "reimbursement-events-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = new Thread(this::publishLoop, "reimbursement-events-publisher");
+        this.publisher.setDaemon(true);
+
+        this.droppedSubscribers = Counter.builder("reimbursement.events.dropped_subscribers")
+                .description("SSE connections closed because their buffer was full")
+                .register(meterRegistry);
+        this.closedSubscribers = Counter.builder("reimbursement.events.closed_subscribers")
+                .description("SSE connections closed because their token expired or lost its permissions")
+                .register(meterRegistry);
+        this.stalledSubscribers = Counter.builder("reimbursement.events.stalled_subscribers")
+                .description("SSE connections closed because a send blocked longer than the send timeout")
+                .register(meterRegistry);
+        Gauge.builder("reimbursement.events.subscribers", subscribers, List::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        changes.skip();
+        publisher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.interrupt();
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * open a stream of the changes inside the scope, for at most the remaining lifetime of the
+     * caller's token
+     *
+     * @param scope rows the subscriber may view
+     * @param principal caller, with the token it authenticated with
+     * @return emitter to return from the controller
+     * @throws TooManyRequestsException if the connection limit is reached
+     * @throws UnauthorizedException if the token carries no permission version and its role is no
+     * longer the account's
+     */
+    public SseEmitter subscribe(ReimbursementScope scope, JwtPrincipal principal) throws TooManyRequestsException, UnauthorizedException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many open event streams, retry later.", 5);
+        }
+        Long permissionVersion = principal.getPermissionVersion();
+        if (permissionVersion == null) {
+            // issued before permission versions: checked once against the account, then held to its version
+            UserAccount account = userAccountRepository.findById(principal.getUserId())
+                    .filter(found -> found.getRole() == principal.getRole())
+                    .orElseThrow(() -> new UnauthorizedException("Permission denied: token role is no longer current"));
+            permissionVersion = account.getPermissionVersion();
+        }
+        long now = System.currentTimeMillis();
+        // principals resolved by email carry no expiration, the token lifetime bounds it
+        long expiresAt = principal.getExpiresAt() > 0 ? principal.getExpiresAt() : now + tokenLifetimeMs;
+        SseEmitter emitter = newEmitter(Math.max(1L, Math.min(timeoutMs, expiresAt - now)));
+        Subscriber subscriber = new Subscriber(emitter, scope, principal, permissionVersion, expiresAt, bufferSize);
+        // the container already finished these, nothing left to complete
+        emitter.onCompletion(() -> closeCompleted(subscriber));
+        emitter.onError(error -> closeCompleted(subscriber));
+        emitter.onTimeout(() -> {
+            closeCompleted(subscriber);
+            emitter.complete();
+        });
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // overridden by tests to observe what is sent
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * close every stream of the user, after a role change or removal
+     *
+     * @param userId
+     * @return number of streams closed
+     */
+    public int closeForUser(Long userId) {
+        return closeWhere(subscriber -> subscriber.userId.equals(userId));
+    }
+
+    /**
+     * close every stream opened with the token, after a logout
+     *
+     * @param digest token digest from {@link com.ddjproj.revature.service.auth.TokenDigest#of(String)}
+     * @return number of streams closed
+     */
+    public int closeForToken(String digest) {
+        return closeWhere(subscriber -> digest.equals(subscriber.tokenDigest));
+    }
+
+    /**
+     * comment line on every stream, keeps idle connections open through proxies and detects
+     * closed clients. streams whose token has expired, was revoked or is behind the user's
+     * permission version are closed instead
+     */
+    @Scheduled(fixedDelayString = "${reimbursement.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (isAuthorized(subscriber, now)) {
+                offer(subscriber, HEARTBEAT);
+            } else {
+                closedSubscribers.increment();
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * drop the subscribers whose current send has been blocked for longer than the send timeout,
+     * typically a client that stopped reading with a full socket buffer. the stuck emitter is left
+     * to its sender thread, which completes it once the send returns or the request times out
+     */
+    @Scheduled(fixedDelayString = "${reimbursement.events.send-timeout-ms:10000}")
+    public void dropStalledSends() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince.get();
+            if (since > 0 && now - since >= sendTimeoutMs && subscriber.sendingSince.compareAndSet(since, STALLED)) {
+                resizeSenders(1);
+                stalledSubscribers.increment();
+                logger.info("Dropping reimbursement event subscriber blocked in a send for {} ms", now - since);
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * hand every change committed since the last call to the subscribers it concerns.
+     * without subscribers the cursor still moves past the changes, none of them is enriched or sent
+     */
+    void publishChanges() {
+        if (subscribers.isEmpty()) {
+            changes.skip();
+            return;
+        }
+        int read = changes.poll(changed -> {
+            for (ReimbursementResponseDTO reimbursement : toResponseDtos(changedRows(changed))) {
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.covers(reimbursement)) {
+                        offer(subscriber, reimbursement);
+                    }
+                }
+            }
+        });
+        if (read == ReimbursementChangeCursor.GAP) {
+            logger.warn("Reimbursement changes were pruned before the change stream read them, closing every stream");
+            changes.skip();
+            for (Subscriber subscriber : subscribers) {
+                close(subscriber);
+            }
+        }
+    }
+
+    // the rows as they are now, once each, in log order
+    private List<Reimbursement> changedRows(List<ReimbursementChange> changed) {
+        Set<Long> ids = changed.stream()
+                .map(ReimbursementChange::getReimbursementId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Reimbursement> rows = reimbursementRepository.findAllByIds(ids).stream()
+                .collect(Collectors.toMap(Reimbursement::getId, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void publishLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                publishChanges();
+            } catch (RuntimeException e) {
+                logger.warn("Reading reimbursement changes failed, retrying", e);
+            }
+            try {
+                Thread.sleep(pollMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<ReimbursementResponseDTO> toResponseDtos(List<Reimbursement> reimbursements) {
+        Set<Long> userIds = reimbursements.stream()
+                .map(Reimbursement::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, String> emails = userAccountRepository.findEmailsByIds(userIds);
+        return reimbursements.stream()
+                .map(reimbursement -> {
+                    ReimbursementResponseDTO dto = reimbursementMapper.toResponseDto(reimbursement);
+                    // left null for deleted users, same as the single row lookup
+                    dto.setUserEmail(emails.get(reimbursement.getUserId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private boolean isAuthorized(Subscriber subscriber, long now) {
+        return subscriber.expiresAt > now
+                && (subscriber.tokenDigest == null || !tokenBlacklistService.isDigestBlackListed(subscriber.tokenDigest))
+                && permissionVersionTable.isCurrent(subscriber.userId, subscriber.permissionVersion);
+    }
+
+    private int closeWhere(Predicate<Subscriber> predicate) {
+        int closed = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (predicate.test(subscriber)) {
+                close(subscriber);
+                closed++;
+            }
+        }
+        if (closed > 0) {
+            closedSubscribers.increment(closed);
+        }
+        return closed;
+    }
+
+    private void offer(Subscriber subscriber, Object item) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.buffer.offer(item)) {
+            droppedSubscribers.increment();
+            logger.info("Dropping slow reimbursement event subscriber");
+            close(subscriber);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // runs on a sender thread, at most one per subscriber at a time
+    private void drain(Subscriber subscriber) {
+        try {
+            Object item;
+            while (!subscriber.closed.get() && (item = subscriber.buffer.poll()) != null) {
+                subscriber.sendingSince.set(System.currentTimeMillis());
+                try {
+                    send(subscriber.emitter, item);
+                } finally {
+                    if (subscriber.sendingSince.getAndSet(0L) == STALLED) {
+                        // given up on meanwhile, the thread added in its place is no longer needed
+                        resizeSenders(-1);
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        if (subscriber.closed.get()) {
+            // completed here rather than by the closing thread, which must not wait on a blocked send
+            if (subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } else if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            replacedSenders += delta;
+            int size = Math.max(1, Math.min(senderThreads + replacedSenders, senders.getMaximumPoolSize()));
+            // growing starts threads for the queued drains right away
+            senders.setCorePoolSize(size);
+        }
+    }
+
+    private static void send(SseEmitter emitter, Object item) throws IOException {
+        if (item == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+            return;
+        }
+        ReimbursementResponseDTO reimbursement = (ReimbursementResponseDTO) item;
+        emitter.send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(reimbursement, MediaType.APPLICATION_JSON));
+    }
+
+    private void closeCompleted(Subscriber subscriber) {
+        subscriber.completed.set(true);
+        close(subscriber);
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscribers.remove(subscriber);
+            subscriber.buffer.clear();
+            schedule(subscriber);
+        }
+    }
+
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReimbursementScope scope;
+        private final Long userId;
+        private final long permissionVersion;
+        private final String tokenDigest;
+        private final long expiresAt;
+        private final BlockingQueue<Object> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        // start of the send in progress, 0 when none, STALLED once given up on
+        private final AtomicLong sendingSince = new AtomicLong();
+
+        private Subscriber(SseEmitter emitter, ReimbursementScope scope, JwtPrincipal principal, long permissionVersion,
+                           long expiresAt, int bufferSize) {
+            this.emitter = emitter;
+            this.scope = scope;
+            this.userId = principal.getUserId();
+            this.permissionVersion = permissionVersion;
+            this.tokenDigest = principal.getTokenDigest();
+            this.expiresAt = expiresAt;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // same row-level rules as the single reimbursement lookup
+        private boolean covers(ReimbursementResponseDTO reimbursement) {
+            return scope.matches(reimbursement.getUserId(), reimbursement.getStatus());
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.ddjproj.revature.service;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+import com.ddjproj.revature.repository.ReimbursementRepository;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over reimbursement descriptions.
+ * Each token maps to a sorted long[] of reimbursement ids; queries intersect (AND) / merge (OR)
+ * those arrays and filter on the status / type / owner kept per document. Built from the database
+ * at startup and updated after each create / update committed through this node. Writes made
+ * through other nodes are caught up on a schedule: the reimbursement_change log tells which rows
+ * they wrote ({@link ReimbursementChangeCursor}), and those rows are read again. Each document
+ * keeps its row version, so an older copy never replaces a newer one.
+ */
+@Component
+public class ReimbursementSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReimbursementSearchIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String OR = "or";
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+
+    private final ReimbursementRepository reimbursementRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String nodeId;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by this
+    private final ReimbursementChangeCursor changes;
+
+    public ReimbursementSearchIndex(ReimbursementRepository reimbursementRepository,
+                                    ReimbursementChangeRepository reimbursementChangeRepository,
+                                    ChangeCounters changeCounters,
+                                    PlatformTransactionManager transactionManager) {
+        this.reimbursementRepository = reimbursementRepository;
+        this.nodeId = changeCounters.nodeId();
+        this.changes = new ReimbursementChangeCursor(changeCounters, reimbursementChangeRepository, CATCH_UP_BATCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * rebuild the whole index from the database
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // first: rows changed while streaming are applied again by the next catch-up
+        long[] positions = changes.positions();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Reimbursement> rows = reimbursementRepository.streamAll(ReimbursementScope.all(), null, null, null)) {
+                    rows.forEach(row -> apply(Document.of(row)));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changes.reset(positions);
+        logger.info("Indexed {} reimbursement descriptions ({} tokens) in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * apply the reimbursements written through other nodes since the last catch-up
+     *
+     * @return number of change log rows read, this node's own included
+     */
+    // the index was just built at startup, the first catch-up can wait a full interval
+    @Scheduled(initialDelayString = "${reimbursement.search.catch-up-ms:5000}",
+            fixedDelayString = "${reimbursement.search.catch-up-ms:5000}")
+    public synchronized int catchUp() {
+        int read = changes.poll(batch -> {
+            // this node's own writes were indexed after their commit
+            Set<Long> ids = new LinkedHashSet<>();
+            for (ReimbursementChange change : batch) {
+                if (!nodeId.equals(change.getNodeId())) {
+                    ids.add(change.getReimbursementId());
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<Reimbursement> rows = reimbursementRepository.findAllByIds(ids);
+            lock.writeLock().lock();
+            try {
+                for (Reimbursement row : rows) {
+                    apply(Document.of(row));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        if (read == ReimbursementChangeCursor.GAP) {
+            logger.warn("Reimbursement changes were pruned before the search index read them, rebuilding");
+            rebuild();
+            return 0;
+        }
+        if (read > 0) {
+            logger.debug("Search index caught up on {} reimbursement changes", read);
+        }
+        return read;
+    }
+
+    /**
+     * add or replace a reimbursement once its transaction commits
+     *
+     * @param reimbursement saved reimbursement
+     */
+    public void index(Reimbursement reimbursement) {
+        Document document = Document.of(reimbursement);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * search descriptions. terms are ANDed, an OR between terms separates alternatives:
+     * "hotel chicago OR airline chicago"
+     *
+     * @param query
+     * @param scope rows the caller may see, combined with the status / owner filters
+     * @param type optional type filter
+     * @param limit max ids returned
+     * @return matching ids, newest first
+     */
+    public List<Long> search(String query, ReimbursementScope scope, ReimbursementType type, int limit) {
+        List<List<String>> clauses = parse(query);
+        if (clauses.isEmpty() || scope.isNone() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (List<String> clause : clauses) {
+                long[] clauseMatches = intersect(clause);
+                matches = matches == null ? clauseMatches : union(matches, clauseMatches);
+            }
+
+            List<Long> result = new ArrayList<>(Math.min(limit, matches.length));
+            for (int i = matches.length - 1; i >= 0 && result.size() < limit; i--) {
+                Document document = documents.get(matches[i]);
+                if (document != null && document.matches(scope, type)) {
+                    result.add(matches[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the write lock
+    private void apply(Document document) {
+        Document previous = documents.get(document.id);
+        if (previous != null && previous.version >= document.version) {
+            return;
+        }
+        documents.put(document.id, document);
+        if (previous != null) {
+            for (String token : previous.tokens) {
+                Postings list = postings.get(token);
+                if (list != null && list.remove(document.id) && list.size == 0) {
+                    postings.remove(token);
+                }
+            }
+        }
+        for (String token : document.tokens) {
+            postings.computeIfAbsent(token, t -> new Postings()).add(document.id);
+        }
+    }
+
+    // caller holds the read lock. smallest posting list first, every step can only shrink the result
+    private long[] intersect(List<String> terms) {
+        Postings[] lists = new Postings[terms.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(terms.get(i));
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            Postings other = lists[i];
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(other.ids, 0, other.size, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                merged[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[k++] = b[j++];
+            } else {
+                merged[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        return k == merged.length ? merged : Arrays.copyOf(merged, k);
+    }
+
+    /**
+     * @return OR-separated clauses of ANDed terms
+     */
+    static List<List<String>> parse(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        List<String> clause = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            if (token.equals(OR)) {
+                if (!clause.isEmpty()) {
+                    clauses.add(clause);
+                    clause = new ArrayList<>();
+                }
+            } else if (!clause.contains(token)) {
+                clause.add(token);
+            }
+        }
+        if (!clause.isEmpty()) {
+            clauses.add(clause);
+        }
+        return clauses;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+
+    /**
+     * indexed copy of the searchable / filterable columns of one reimbursement
+     */
+    private static final class Document {
+        private final long id;
+        private final Long userId;
+        private final ReimbursementStatus status;
+        private final ReimbursementType type;
+        private final long version;
+        private final String[] tokens;
+
+        private Document(long id, Long userId, ReimbursementStatus status, ReimbursementType type, long version, String[] tokens) {
+            this.id = id;
+            this.userId = userId;
+            this.status = status;
+            this.type = type;
+            this.version = version;
+            this.tokens = tokens;
+        }
+
+        static Document of(Reimbursement reimbursement) {
+            Set<String> distinct = new LinkedHashSet<>(tokenize(reimbursement.getDescription()));
+            long version = reimbursement.getVersion() != null ? reimbursement.getVersion() : 0L;
+            return new Document(reimbursement.getId(), reimbursement.getUserId(), reimbursement.getStatus(),
+                    reimbursement.getType(), version, distinct.toArray(new String[0]));
+        }
+
+        boolean matches(ReimbursementScope scope, ReimbursementType typeFilter) {
+            return (scope.getOwnerId() == null || scope.getOwnerId().equals(userId))
+                    && (scope.getStatus() == null || scope.getStatus() == status)
+                    && (typeFilter == null || typeFilter == type);
+        }
+    }
+
+    /**
+     * sorted, duplicate free id array. ids are generated in increasing order so adds are
+     * almost always appends
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+}
@@ -2,46 +2,110 @@ package com.ddjproj.revature.service;
 
 
 import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
 import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.dto.*;
 import com.ddjproj.revature.domain.enums.Permissions;
 import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
 import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveOutcome;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveResultDTO;
 import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ExportFormat;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementPageDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementStatsDTO;
 import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
 import com.ddjproj.revature.dto.reimbursement.ResolveReimbursementDTO;
 import com.ddjproj.revature.exception.ResourceNotFoundException;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
 import com.ddjproj.revature.exception.validation.UnauthorizedException;
 import com.ddjproj.revature.exception.validation.ValidationException;
 import com.ddjproj.revature.repository.ReimbursementRepository;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import com.ddjproj.revature.repository.ReimbursementVersion;
 import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.events.DomainEventBus;
+import com.ddjproj.revature.service.events.ReimbursementCreated;
+import com.ddjproj.revature.service.events.ReimbursementResolved;
+import com.ddjproj.revature.service.events.ReimbursementUpdated;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Service
 @Transactional
 public class ReimbursementService {
     private static final Logger logger = LoggerFactory.getLogger(ReimbursementService.class);
+    // versioned so the cursor format can change without breaking clients mid-scroll
+    private static final String CURSOR_PREFIX = "r1:";
+    // matches the export query fetch size
+    private static final int EXPORT_BATCH_SIZE = 500;
+    // ids per locking SELECT / bulk UPDATE, keeps the IN list within what every database accepts
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final byte[] CSV_HEADER =
+            "id,userId,userEmail,description,amount,type,status\r\n".getBytes(StandardCharsets.UTF_8);
 
     private final ReimbursementRepository reimbursementRepository;
     private final UserAccountRepository userAccountRepository;
     private final PermissionService permissionService;
     private final ReimbursementMapper reimbursementMapper;
+    private final ObjectMapper objectMapper;
+    private final ReimbursementStatsService reimbursementStatsService;
+    private final ReimbursementSearchIndex reimbursementSearchIndex;
+    private final ChangeCounters changeCounters;
+    private final ReimbursementEventStream reimbursementEventStream;
+    private final DomainEventBus domainEventBus;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
     public ReimbursementService(ReimbursementRepository reimbursementRepository,
                                 UserAccountRepository userAccountRepository,
                                 PermissionService permissionService,
-                                ReimbursementMapper reimbursementMapper) {
+                                ReimbursementMapper reimbursementMapper,
+                                ObjectMapper objectMapper,
+                                ReimbursementStatsService reimbursementStatsService,
+                                ReimbursementSearchIndex reimbursementSearchIndex,
+                                ChangeCounters changeCounters,
+                                ReimbursementEventStream reimbursementEventStream,
+                                DomainEventBus domainEventBus,
+                                @Value("${reimbursement.page.default-size:50}") int defaultPageSize,
+                                @Value("${reimbursement.page.max-size:500}") int maxPageSize) {
         this.reimbursementRepository = reimbursementRepository;
         this.userAccountRepository = userAccountRepository;
         this.permissionService = permissionService;
         this.reimbursementMapper = reimbursementMapper;
+        this.objectMapper = objectMapper;
+        this.reimbursementStatsService = reimbursementStatsService;
+        this.reimbursementSearchIndex = reimbursementSearchIndex;
+        this.changeCounters = changeCounters;
+        this.reimbursementEventStream = reimbursementEventStream;
+        this.domainEventBus = domainEventBus;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public ReimbursementResponseDTO createReimbursement(CreateReimbursementDTO dto) throws UnauthorizedException {
@@ -58,109 +122,431 @@ public class ReimbursementService {
         reimbursement.setUserId(currentUser.getUserAccountId());
 
         Reimbursement saved = reimbursementRepository.save(reimbursement);
+        List<ReimbursementChange> changes = List.of(new ReimbursementChange(saved));
+        changeCounters.reimbursementsChanged(changes);
         logger.info("Reimbursement {} created successfully", saved.getId());
+        reimbursementStatsService.record(changes);
+        reimbursementSearchIndex.index(saved);
 
         // Convert to response DTO and add user email
         ReimbursementResponseDTO responseDto = reimbursementMapper.toResponseDto(saved);
         responseDto.setUserEmail(currentUser.getEmail());
 
+        domainEventBus.publish(new ReimbursementCreated(saved.getId(), saved.getUserId(), saved.getType(), saved.getAmount()));
         return responseDto;
     }
 
     public ReimbursementResponseDTO getReimbursementById(Long id) throws ResourceNotFoundException, UnauthorizedException {
         logger.info("Fetching reimbursement with id: {}", id);
 
-        Reimbursement reimbursement = reimbursementRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
-
-        // Check permission with the actual resource
-        permissionService.requirePermission(Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST, reimbursement);
+        // only rows the caller may view are fetched
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST);
+        Reimbursement reimbursement = findInScope(id, scope, Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST);
 
         return enrichResponseDto(reimbursement);
     }
 
-    public List<ReimbursementResponseDTO> getMyReimbursements(ReimbursementStatus statusFilter) throws UnauthorizedException {
-        permissionService.requirePermission(Permissions.VIEW_SUBMITTED_REIMBURSEMENT_REQUESTS);
+    public ReimbursementPageDTO getMyReimbursements(ReimbursementStatus statusFilter, String cursor, Integer pageSize) throws UnauthorizedException, ValidationException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SUBMITTED_REIMBURSEMENT_REQUESTS);
 
         UserAccount currentUser = permissionService.getCurrentUser();
         logger.info("User {} fetching their reimbursements", currentUser.getEmail());
 
-        List<Reimbursement> reimbursements;
-        if (statusFilter != null) {
-            reimbursements = reimbursementRepository.findByUserIdAndStatus(currentUser.getUserAccountId(), statusFilter);
-        } else {
-            reimbursements = reimbursementRepository.findByUserId(currentUser.getUserAccountId());
+        // own submissions regardless of role, narrowed by the permission scope
+        return findPage(scope.withOwner(currentUser.getUserAccountId()).withStatus(statusFilter), cursor, pageSize);
+    }
+
+    public ReimbursementPageDTO getAllReimbursements(ReimbursementStatus statusFilter, String cursor, Integer pageSize) throws UnauthorizedException, ValidationException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS);
+
+        logger.info("Fetching all reimbursements with status filter: {}", statusFilter);
+
+        return findPage(scope.withStatus(statusFilter), cursor, pageSize);
+    }
+
+    /**
+     * stream of changes to the reimbursements the caller may view, same row-level rules as
+     * {@link #getReimbursementById}
+     */
+    public SseEmitter subscribeToChanges() throws UnauthorizedException, TooManyRequestsException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST);
+        logger.info("User {} subscribing to reimbursement changes", permissionService.getCurrentUser().getEmail());
+        return reimbursementEventStream.subscribe(scope, permissionService.getCurrentPrincipal());
+    }
+
+    /**
+     * weak ETag of a {@link #getReimbursementById} response. same checks, but only the owner,
+     * status and version columns are read, so a 304 never loads or enriches the row
+     */
+    @Transactional(readOnly = true)
+    public String getReimbursementETag(Long id) throws ResourceNotFoundException, UnauthorizedException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST);
+        ReimbursementVersion reimbursement = reimbursementRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
+        if (!scope.matches(reimbursement.getUserId(), reimbursement.getStatus())) {
+            throw new UnauthorizedException("Permission denied: " + Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST.name());
         }
+        return changeCounters.reimbursementETag(reimbursement);
+    }
 
-        return reimbursements.stream()
-                .map(this::enrichResponseDto)
-                .collect(Collectors.toList());
+    /**
+     * weak ETag of {@link #getMyReimbursements}, no row is read
+     */
+    public String getMyReimbursementsETag() throws UnauthorizedException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SUBMITTED_REIMBURSEMENT_REQUESTS);
+        return eTag(scope.withOwner(permissionService.getCurrentUser().getUserAccountId()));
     }
 
-    public List<ReimbursementResponseDTO> getAllReimbursements(ReimbursementStatus statusFilter) throws UnauthorizedException {
-        permissionService.requirePermission(Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS);
+    /**
+     * weak ETag of {@link #getAllReimbursements}, no row is read
+     */
+    public String getAllReimbursementsETag() throws UnauthorizedException {
+        return eTag(permissionService.requireReimbursementScope(Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS));
+    }
 
-        logger.info("Fetching all reimbursements with status filter: {}", statusFilter);
+    // the owner's counter stripe when the scope is limited to one owner, else every stripe
+    private String eTag(ReimbursementScope scope) throws UnauthorizedException {
+        return changeCounters.reimbursementETag(scope.getOwnerId(), permissionService.getCurrentUser());
+    }
 
-        List<Reimbursement> reimbursements;
-        if (statusFilter != null) {
-            reimbursements = reimbursementRepository.findByStatus(statusFilter);
-        } else {
-            reimbursements = reimbursementRepository.findAll();
+    /**
+     * full-text search over descriptions, answered from the in-memory index. only the matching
+     * rows are loaded from the database
+     *
+     * @param query terms to match, see {@link ReimbursementSearchIndex#search}
+     * @param limit max results, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<ReimbursementResponseDTO> searchReimbursements(String query, ReimbursementStatus statusFilter,
+                                                               ReimbursementType typeFilter, Long userIdFilter,
+                                                               Integer limit) throws UnauthorizedException, ValidationException {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query is required");
+        }
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST)
+                .withStatus(statusFilter)
+                .withOwner(userIdFilter);
+        int max = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        List<Long> ids = reimbursementSearchIndex.search(query, scope, typeFilter, max);
+        logger.info("Search '{}' matched {} reimbursements", query, ids.size());
+
+        // keep the index order, and re-check the scope against the database row
+        Map<Long, Reimbursement> rows = reimbursementRepository.findAllByIds(ids).stream()
+                .filter(scope::matches)
+                .collect(Collectors.toMap(Reimbursement::getId, Function.identity()));
+        List<Reimbursement> ordered = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            Reimbursement row = rows.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
         }
+        return enrichResponseDtos(ordered);
+    }
 
-        return reimbursements.stream()
-                .map(this::enrichResponseDto)
-                .collect(Collectors.toList());
+    /**
+     * aggregates for the manager dashboard, served from in-memory counters
+     */
+    public ReimbursementStatsDTO getStats(Long userIdFilter) throws UnauthorizedException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS);
+        // counters cover every row, callers limited to a subset of rows cannot use them
+        if (!scope.equals(ReimbursementScope.all())) {
+            throw new UnauthorizedException("Permission denied: " + Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS.name());
+        }
+        return reimbursementStatsService.getStats(userIdFilter);
     }
 
-    public ReimbursementResponseDTO updateReimbursement(Long id, CreateReimbursementDTO dto) throws ResourceNotFoundException, UnauthorizedException {
-        logger.info("Updating reimbursement with id: {}", id);
+    /**
+     * permission check for an export, done on the request thread before streaming starts
+     *
+     * @return scope to pass to {@link #writeExport}
+     */
+    public ReimbursementScope exportScope(ReimbursementStatus statusFilter, Long userIdFilter) throws UnauthorizedException {
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.VIEW_ALL_REIMBURSEMENT_REQUESTS);
+        logger.info("Exporting reimbursements with status: {}, user: {}", statusFilter, userIdFilter);
+        return scope.withStatus(statusFilter).withOwner(userIdFilter);
+    }
 
-        Reimbursement reimbursement = reimbursementRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
+    /**
+     * write every reimbursement in the scope to the stream, in id order.
+     * rows come from a database cursor and are written / flushed in batches, so memory stays flat
+     * regardless of the row count. the scope must come from {@link #exportScope}
+     */
+    @Transactional(readOnly = true)
+    public long writeExport(ReimbursementScope scope, ReimbursementType typeFilter, Long fromId, Long toId,
+                            ExportFormat format, OutputStream out) throws IOException {
+        long written = 0;
+        List<Reimbursement> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+
+        if (format == ExportFormat.CSV) {
+            out.write(CSV_HEADER);
+        }
+        try (Stream<Reimbursement> rows = reimbursementRepository.streamAll(scope, typeFilter, fromId, toId)) {
+            Iterator<Reimbursement> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                    for (ReimbursementResponseDTO dto : enrichResponseDtos(batch)) {
+                        writeExportRow(dto, format, out);
+                    }
+                    written += batch.size();
+                    batch.clear();
+                    out.flush();
+                }
+            }
+        }
+        logger.info("Exported {} reimbursements as {}", written, format);
+        return written;
+    }
 
-        // Check permission with the actual resource
-        permissionService.requirePermission(Permissions.EDIT_PENDING_REIMBURSEMENT, reimbursement);
+    private void writeExportRow(ReimbursementResponseDTO dto, ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+            return;
+        }
+        String line = dto.getId() + "," + dto.getUserId() + "," + csvField(dto.getUserEmail()) + ","
+                + csvField(dto.getDescription()) + "," + dto.getAmount() + "," + dto.getType() + ","
+                + dto.getStatus() + "\r\n";
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
 
-        // Update fields using mapper
-        reimbursementMapper.updateEntityFromDto(reimbursement, dto);
+    // RFC 4180 quoting
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 
-        Reimbursement saved = reimbursementRepository.save(reimbursement);
+    public ReimbursementResponseDTO updateReimbursement(Long id, CreateReimbursementDTO dto) throws ResourceNotFoundException, UnauthorizedException, ValidationException {
+        logger.info("Updating reimbursement with id: {}", id);
+
+        // the row is locked before the write, its grouping columns are the old side of the change.
+        // the conditional UPDATE still decides: only pending rows within the caller's scope match
+        ReimbursementScope scope = permissionService.requireReimbursementScope(Permissions.EDIT_PENDING_REIMBURSEMENT)
+                .withStatus(ReimbursementStatus.PENDING);
+        Reimbursement reimbursement = reimbursementRepository.lockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
+        ReimbursementType oldType = reimbursement.getType();
+        Long oldAmount = reimbursement.getAmount();
+        if (!reimbursementRepository.updateDetails(id, scope, dto.getDescription(), dto.getType(), dto.getAmount())) {
+            if (scope.isNone() || (scope.getOwnerId() != null && !scope.getOwnerId().equals(reimbursement.getUserId()))) {
+                throw new UnauthorizedException("Permission denied: " + Permissions.EDIT_PENDING_REIMBURSEMENT.name());
+            }
+            throw new ValidationException("Can only edit pending reimbursements");
+        }
+
+        // detached by the UPDATE, brought in line with what it wrote instead of read back
+        reimbursement.setDescription(dto.getDescription());
+        reimbursement.setType(dto.getType());
+        reimbursement.setAmount(dto.getAmount());
+        reimbursement.setVersion(reimbursement.getVersion() + 1);
+        List<ReimbursementChange> changes = List.of(
+                new ReimbursementChange(reimbursement, ReimbursementStatus.PENDING, oldType, oldAmount));
+        changeCounters.reimbursementsChanged(changes);
+        ReimbursementResponseDTO response = enrichResponseDto(reimbursement);
+        Long editorId = permissionService.getCurrentUser().getUserAccountId();
         logger.info("Reimbursement {} updated successfully", id);
+        reimbursementStatsService.record(changes);
+        reimbursementSearchIndex.index(reimbursement);
 
-        return enrichResponseDto(saved);
+        domainEventBus.publish(new ReimbursementUpdated(id, reimbursement.getUserId(),
+                editorId, reimbursement.getType(), reimbursement.getAmount()));
+        return response;
     }
 
     public ReimbursementResponseDTO resolveReimbursement(Long id, ResolveReimbursementDTO dto) throws ValidationException, UnauthorizedException, ResourceNotFoundException {
         logger.info("Resolving reimbursement with id: {}", id);
 
-        Reimbursement reimbursement = reimbursementRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
-
         // Check permission - only managers can resolve
-        if (permissionService.getCurrentUser().getRole() != Roles.MANAGER) {
+        UserAccount resolver = permissionService.getCurrentUser();
+        if (resolver.getRole() != Roles.MANAGER) {
             throw new UnauthorizedException("Only managers can resolve reimbursements");
         }
-
-        // Additional check: can only resolve pending reimbursements
-        if (reimbursement.getStatus() != ReimbursementStatus.PENDING) {
-            throw new ValidationException("Can only resolve pending reimbursements");
+        if (dto.getStatus() != ReimbursementStatus.APPROVED && dto.getStatus() != ReimbursementStatus.DENIED) {
+            throw new ValidationException("Reimbursements can only be resolved as APPROVED or DENIED");
         }
 
-        UserAccount resolver = permissionService.getCurrentUser();
         logger.info("User {} resolving reimbursement {} with status: {}",
                 resolver.getEmail(), id, dto.getStatus());
 
-        reimbursement.setStatus(dto.getStatus());
+        // one conditional UPDATE, of concurrent resolvers only the first matches the PENDING row
+        if (!reimbursementRepository.updateStatus(id, ReimbursementStatus.PENDING, dto.getStatus())) {
+            if (reimbursementRepository.existsById(id)) {
+                throw new ValidationException("Can only resolve pending reimbursements");
+            }
+            throw new ResourceNotFoundException("Reimbursement not found with id: " + id);
+        }
 
         // Since we don't have resolver fields in the simplified entity,
         // we just update the status
 
-        Reimbursement saved = reimbursementRepository.save(reimbursement);
+        Reimbursement saved = reimbursementRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reimbursement not found with id: " + id));
+        // only the status changed, and the UPDATE matched it as PENDING
+        List<ReimbursementChange> changes = List.of(
+                new ReimbursementChange(saved, ReimbursementStatus.PENDING, saved.getType(), saved.getAmount()));
+        changeCounters.reimbursementsChanged(changes);
+        ReimbursementResponseDTO response = enrichResponseDto(saved);
         logger.info("Reimbursement {} resolved successfully with status: {}", id, dto.getStatus());
 
-        return enrichResponseDto(saved);
+        reimbursementStatsService.record(changes);
+        reimbursementSearchIndex.index(saved);
+
+        domainEventBus.publish(new ReimbursementResolved(id, saved.getUserId(), resolver.getUserAccountId(), saved.getStatus()));
+        return response;
+    }
+
+    /**
+     * resolve many pending reimbursements in one transaction. pending rows are locked and
+     * updated with one conditional UPDATE per chunk of ids, instead of a read / save per row
+     *
+     * @return outcome per requested id
+     */
+    public BulkResolveResultDTO bulkResolveReimbursements(BulkResolveReimbursementDTO dto) throws ValidationException, UnauthorizedException {
+        // single permission check for the whole batch
+        UserAccount resolver = permissionService.getCurrentUser();
+        if (resolver.getRole() != Roles.MANAGER) {
+            throw new UnauthorizedException("Only managers can resolve reimbursements");
+        }
+        ReimbursementStatus status = dto.getStatus();
+        if (status != ReimbursementStatus.APPROVED && status != ReimbursementStatus.DENIED) {
+            throw new ValidationException("Reimbursements can only be resolved as APPROVED or DENIED");
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(dto.getIds()));
+        logger.info("User {} bulk resolving {} reimbursements with status: {}", resolver.getEmail(), ids.size(), status);
+
+        Map<Long, BulkResolveOutcome> outcomes = new LinkedHashMap<>();
+        List<Reimbursement> resolvedRows = new ArrayList<>();
+        List<ReimbursementChange> changes = new ArrayList<>();
+        int resolved = 0;
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size()));
+
+            // locked until commit, so the conditional UPDATE below matches exactly these rows
+            List<Reimbursement> pending = reimbursementRepository.lockByIdsAndStatus(chunk, ReimbursementStatus.PENDING);
+            List<Long> pendingIds = pending.stream().map(Reimbursement::getId).collect(Collectors.toList());
+            resolved += reimbursementRepository.updateStatus(pendingIds, ReimbursementStatus.PENDING, status);
+
+            for (Reimbursement reimbursement : pending) {
+                // detached after the bulk UPDATE, only brought in line for the listeners below
+                reimbursement.setStatus(status);
+                reimbursement.setVersion(reimbursement.getVersion() + 1);
+                resolvedRows.add(reimbursement);
+                changes.add(new ReimbursementChange(reimbursement, ReimbursementStatus.PENDING,
+                        reimbursement.getType(), reimbursement.getAmount()));
+                domainEventBus.publish(new ReimbursementResolved(reimbursement.getId(), reimbursement.getUserId(),
+                        resolver.getUserAccountId(), status));
+                outcomes.put(reimbursement.getId(), BulkResolveOutcome.RESOLVED);
+            }
+
+            List<Long> remaining = chunk.stream().filter(id -> !outcomes.containsKey(id)).collect(Collectors.toList());
+            Set<Long> existing = new HashSet<>(reimbursementRepository.findExistingIds(remaining));
+            for (Long id : remaining) {
+                outcomes.put(id, existing.contains(id) ? BulkResolveOutcome.ALREADY_RESOLVED : BulkResolveOutcome.NOT_FOUND);
+            }
+        }
+
+        changeCounters.reimbursementsChanged(changes);
+        reimbursementStatsService.record(changes);
+        for (Reimbursement reimbursement : resolvedRows) {
+            reimbursementSearchIndex.index(reimbursement);
+        }
+
+        // response in request order
+        Map<Long, BulkResolveOutcome> ordered = new LinkedHashMap<>();
+        for (Long id : ids) {
+            ordered.put(id, outcomes.get(id));
+        }
+        logger.info("Bulk resolve by {} resolved {} of {} reimbursements", resolver.getEmail(), resolved, ids.size());
+
+        return BulkResolveResultDTO.builder()
+                .resolved(resolved)
+                .outcomes(ordered)
+                .build();
+    }
+
+    /**
+     * one keyset page on id DESC. one extra row is fetched to know whether a next page exists
+     */
+    private ReimbursementPageDTO findPage(ReimbursementScope scope, String cursor, Integer pageSize) throws ValidationException {
+        int limit = pageSize == null ? defaultPageSize : Math.max(1, Math.min(pageSize, maxPageSize));
+        Long beforeId = decodeCursor(cursor);
+
+        List<Reimbursement> rows = reimbursementRepository.findPage(scope, beforeId, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<ReimbursementResponseDTO> items = enrichResponseDtos(rows);
+        String nextCursor = hasNext ? encodeCursor(rows.get(rows.size() - 1).getId()) : null;
+
+        return ReimbursementPageDTO.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) throws ValidationException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * single row lookup restricted to the scope, a miss is told apart as not found / denied
+     * with a primary key existence check
+     */
+    private Reimbursement findInScope(Long id, ReimbursementScope scope, Permissions permission) throws ResourceNotFoundException, UnauthorizedException {
+        Optional<Reimbursement> reimbursement = reimbursementRepository.findById(id, scope);
+        if (reimbursement.isPresent()) {
+            return reimbursement.get();
+        }
+        if (reimbursementRepository.existsById(id)) {
+            throw new UnauthorizedException("Permission denied: " + permission.name());
+        }
+        throw new ResourceNotFoundException("Reimbursement not found with id: " + id);
+    }
+
+    /**
+     * list form of enrichResponseDto, submitter emails are resolved with one query for the
+     * distinct user ids instead of one per row
+     */
+    private List<ReimbursementResponseDTO> enrichResponseDtos(List<Reimbursement> reimbursements) {
+        Set<Long> userIds = reimbursements.stream()
+                .map(Reimbursement::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, String> emails = userAccountRepository.findEmailsByIds(userIds);
+
+        List<ReimbursementResponseDTO> dtos = new ArrayList<>(reimbursements.size());
+        for (Reimbursement reimbursement : reimbursements) {
+            ReimbursementResponseDTO dto = reimbursementMapper.toResponseDto(reimbursement);
+            // left null for deleted users, same as the single row lookup
+            dto.setUserEmail(emails.get(reimbursement.getUserId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     private ReimbursementResponseDTO enrichResponseDto(Reimbursement reimbursement) {
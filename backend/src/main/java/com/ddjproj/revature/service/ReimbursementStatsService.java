@@ -0,0 +1,369 @@
+package com.ddjproj.revature.service;
+
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementAggregateDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementStatsDTO;
+import com.ddjproj.revature.repository.ReimbursementAggregate;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+import com.ddjproj.revature.repository.ReimbursementRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory reimbursement aggregates (count / amount sum by status, type and user).
+ * Loaded with one GROUP BY per grouping, together with the change counter stripes in one
+ * snapshot, so the counters hold exactly the writes numbered up to those stripe values. Kept
+ * current by applying each write as a delta from its grouping columns before and after: writes
+ * committed through this node right after their commit, writes made through other nodes from the
+ * reimbursement_change log on a schedule ({@link ReimbursementChangeCursor}). A delta numbered
+ * at or below the stripe value the counters were loaded at is already counted and skipped.
+ * Memory is O(statuses * types + users), independent of the number of reimbursements, and reads
+ * never touch the reimbursement table; stats on one node are up to reimbursement.stats.catch-up-ms
+ * behind writes made through another.
+ * <p>
+ * A write is only lost to the stats if its log rows are pruned (reimbursement.changes.retention-ms)
+ * before the catch-up reads them, which the cursor detects and answers with a reload, or if this
+ * node's own after-commit callback fails. The scheduled reconciliation rebuilds every bucket from
+ * the database and reports the buckets that differed.
+ */
+@Service
+public class ReimbursementStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReimbursementStatsService.class);
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+
+    private final ReimbursementRepository reimbursementRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final String nodeId;
+
+    // swapped as a whole on reload, under the write lock. deltas are applied under the read lock
+    private volatile Counters counters = new Counters(new long[ChangeCounters.REIMBURSEMENT_STRIPES]);
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // deltas applied while a reload runs, replayed onto the reloaded counters. null otherwise
+    private volatile Queue<Delta> replay;
+
+    // guarded by this
+    private final ReimbursementChangeCursor changes;
+
+    public ReimbursementStatsService(ReimbursementRepository reimbursementRepository,
+                                     ReimbursementChangeRepository reimbursementChangeRepository,
+                                     ChangeCounters changeCounters,
+                                     PlatformTransactionManager transactionManager) {
+        this.reimbursementRepository = reimbursementRepository;
+        this.nodeId = changeCounters.nodeId();
+        this.changes = new ReimbursementChangeCursor(changeCounters, reimbursementChangeRepository, CATCH_UP_BATCH_SIZE);
+        // the stripes and both GROUP BYs read from one snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PostConstruct
+    void bootstrap() {
+        reload();
+    }
+
+    /**
+     * rebuild the counters from the database, and report every (status, type) and user bucket
+     * that differed. a write committed through another node while this runs can show up as a
+     * difference too, the catch-up right before keeps that window short
+     */
+    @Scheduled(fixedDelayString = "${reimbursement.stats.reconcile-ms:300000}",
+            initialDelayString = "${reimbursement.stats.reconcile-ms:300000}")
+    public synchronized void reconcile() {
+        catchUp();
+        Counters previous = counters;
+        reload();
+        int drifted = counters.differingBuckets(previous);
+        if (drifted > 0) {
+            logger.warn("Reimbursement stats differed in {} buckets, reconciled from the database", drifted);
+        }
+    }
+
+    /**
+     * apply the writes made through other nodes since the last catch-up, from the change log
+     *
+     * @return number of log rows read, this node's own included
+     */
+    @Scheduled(fixedDelayString = "${reimbursement.stats.catch-up-ms:5000}",
+            initialDelayString = "${reimbursement.stats.catch-up-ms:5000}")
+    public synchronized int catchUp() {
+        int read = changes.poll(batch -> {
+            for (ReimbursementChange change : batch) {
+                // this node's own writes were applied after their commit
+                if (!nodeId.equals(change.getNodeId())) {
+                    apply(Delta.of(change));
+                }
+            }
+        });
+        if (read == ReimbursementChangeCursor.GAP) {
+            logger.warn("Reimbursement changes were pruned before the stats read them, reloading");
+            reload();
+            return 0;
+        }
+        if (read > 0) {
+            logger.debug("Reimbursement stats caught up on {} changes", read);
+        }
+        return read;
+    }
+
+    /**
+     * apply the writes once their transaction commits. the changes must already be numbered by
+     * {@link ChangeCounters#reimbursementsChanged}
+     *
+     * @param written the log rows of the write
+     */
+    public void record(Collection<ReimbursementChange> written) {
+        List<Delta> deltas = written.stream().map(Delta::of).collect(Collectors.toList());
+        TransactionCallbacks.afterCommit(() -> deltas.forEach(this::apply));
+    }
+
+    /**
+     * O(statuses * types + users), independent of the number of reimbursements
+     *
+     * @param userId optional, limits byUser to the one user
+     * @return current aggregates
+     */
+    public ReimbursementStatsDTO getStats(Long userId) {
+        return counters.toDto(userId);
+    }
+
+    private void apply(Delta delta) {
+        swapLock.readLock().lock();
+        try {
+            delta.applyTo(counters);
+            Queue<Delta> pending = replay;
+            if (pending != null) {
+                pending.add(delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * load the counters as of one set of stripe values, then replay the deltas applied to the
+     * old counters meanwhile. deltas the load already counted are skipped
+     */
+    private synchronized void reload() {
+        replay = new ConcurrentLinkedQueue<>();
+        Counters loaded;
+        try {
+            loaded = snapshotTransaction.execute(status -> load());
+        } catch (RuntimeException e) {
+            replay = null;
+            throw e;
+        }
+        swapLock.writeLock().lock();
+        try {
+            for (Delta delta : replay) {
+                delta.applyTo(loaded);
+            }
+            counters = loaded;
+            replay = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        changes.reset(loaded.asOf);
+    }
+
+    // runs in the snapshot transaction: the aggregates hold exactly the writes numbered up to the stripes
+    private Counters load() {
+        Counters loaded = new Counters(changes.positions());
+        for (ReimbursementAggregate row : reimbursementRepository.aggregateByStatusAndType()) {
+            loaded.addGroup(row.getStatus(), row.getType(), row.getCount(), row.getSum());
+        }
+        for (ReimbursementAggregate row : reimbursementRepository.aggregateByUser()) {
+            loaded.addUser(row.getUserId(), row.getCount(), row.getSum());
+        }
+        return loaded;
+    }
+
+    /**
+     * one written row: its stripe and number, and its grouping columns before (none when
+     * created) and after
+     */
+    private static final class Delta {
+        private final int stripe;
+        private final long seq;
+        private final Long userId;
+        private final ReimbursementStatus oldStatus;
+        private final ReimbursementType oldType;
+        private final long oldAmount;
+        private final ReimbursementStatus newStatus;
+        private final ReimbursementType newType;
+        private final long newAmount;
+
+        private Delta(ReimbursementChange change) {
+            this.stripe = change.getStripe();
+            this.seq = change.getSeq();
+            this.userId = change.getUserId();
+            this.oldStatus = change.getOldStatus();
+            this.oldType = change.getOldType();
+            this.oldAmount = change.getOldAmount() != null ? change.getOldAmount() : 0L;
+            this.newStatus = change.getNewStatus();
+            this.newType = change.getNewType();
+            this.newAmount = change.getNewAmount() != null ? change.getNewAmount() : 0L;
+        }
+
+        static Delta of(ReimbursementChange change) {
+            return new Delta(change);
+        }
+
+        /**
+         * no-op on counters loaded after this write committed, they already include it
+         */
+        void applyTo(Counters counters) {
+            if (seq <= counters.asOf[stripe]) {
+                return;
+            }
+            if (oldStatus != null && oldType != null) {
+                counters.addGroup(oldStatus, oldType, -1, -oldAmount);
+                counters.addUser(userId, -1, -oldAmount);
+            }
+            counters.addGroup(newStatus, newType, 1, newAmount);
+            counters.addUser(userId, 1, newAmount);
+        }
+    }
+
+    /**
+     * striped counters: one LongAdder pair per (status, type) cell, indexed by ordinal
+     */
+    private static final class Counters {
+        private static final ReimbursementStatus[] STATUSES = ReimbursementStatus.values();
+        private static final ReimbursementType[] TYPES = ReimbursementType.values();
+
+        // stripe values these counters were loaded at, every write numbered up to them is included
+        private final long[] asOf;
+        private final LongAdder[][] counts = new LongAdder[STATUSES.length][TYPES.length];
+        private final LongAdder[][] sums = new LongAdder[STATUSES.length][TYPES.length];
+        // count, sum
+        private final Map<Long, LongAdder[]> byUser = new ConcurrentHashMap<>();
+
+        Counters(long[] asOf) {
+            this.asOf = asOf;
+            for (int s = 0; s < STATUSES.length; s++) {
+                for (int t = 0; t < TYPES.length; t++) {
+                    counts[s][t] = new LongAdder();
+                    sums[s][t] = new LongAdder();
+                }
+            }
+        }
+
+        void addGroup(ReimbursementStatus status, ReimbursementType type, long count, long sum) {
+            counts[status.ordinal()][type.ordinal()].add(count);
+            sums[status.ordinal()][type.ordinal()].add(sum);
+        }
+
+        void addUser(Long userId, long count, long sum) {
+            LongAdder[] user = byUser.computeIfAbsent(userId, id -> new LongAdder[]{new LongAdder(), new LongAdder()});
+            user[0].add(count);
+            user[1].add(sum);
+        }
+
+        /**
+         * @return number of (status, type) cells and users whose count or sum is not the same in both
+         */
+        int differingBuckets(Counters other) {
+            int differing = 0;
+            for (int s = 0; s < STATUSES.length; s++) {
+                for (int t = 0; t < TYPES.length; t++) {
+                    if (counts[s][t].sum() != other.counts[s][t].sum() || sums[s][t].sum() != other.sums[s][t].sum()) {
+                        differing++;
+                    }
+                }
+            }
+            Set<Long> userIds = new HashSet<>(byUser.keySet());
+            userIds.addAll(other.byUser.keySet());
+            for (Long userId : userIds) {
+                if (userCount(userId) != other.userCount(userId) || userSum(userId) != other.userSum(userId)) {
+                    differing++;
+                }
+            }
+            return differing;
+        }
+
+        private long userCount(Long userId) {
+            LongAdder[] user = byUser.get(userId);
+            return user == null ? 0L : user[0].sum();
+        }
+
+        private long userSum(Long userId) {
+            LongAdder[] user = byUser.get(userId);
+            return user == null ? 0L : user[1].sum();
+        }
+
+        ReimbursementStatsDTO toDto(Long userId) {
+            long[] statusCounts = new long[STATUSES.length];
+            long[] statusSums = new long[STATUSES.length];
+            long[] typeCounts = new long[TYPES.length];
+            long[] typeSums = new long[TYPES.length];
+            for (int s = 0; s < STATUSES.length; s++) {
+                for (int t = 0; t < TYPES.length; t++) {
+                    long count = counts[s][t].sum();
+                    long sum = sums[s][t].sum();
+                    statusCounts[s] += count;
+                    statusSums[s] += sum;
+                    typeCounts[t] += count;
+                    typeSums[t] += sum;
+                }
+            }
+
+            Map<ReimbursementStatus, ReimbursementAggregateDTO> byStatus = new EnumMap<>(ReimbursementStatus.class);
+            long totalCount = 0;
+            long totalSum = 0;
+            for (int s = 0; s < STATUSES.length; s++) {
+                byStatus.put(STATUSES[s], new ReimbursementAggregateDTO(statusCounts[s], statusSums[s]));
+                totalCount += statusCounts[s];
+                totalSum += statusSums[s];
+            }
+            Map<ReimbursementType, ReimbursementAggregateDTO> byType = new EnumMap<>(ReimbursementType.class);
+            for (int t = 0; t < TYPES.length; t++) {
+                byType.put(TYPES[t], new ReimbursementAggregateDTO(typeCounts[t], typeSums[t]));
+            }
+
+            Map<Long, ReimbursementAggregateDTO> users = new LinkedHashMap<>();
+            if (userId != null) {
+                LongAdder[] user = byUser.get(userId);
+                users.put(userId, user == null ? new ReimbursementAggregateDTO(0, 0)
+                        : new ReimbursementAggregateDTO(user[0].sum(), user[1].sum()));
+            } else {
+                byUser.forEach((id, user) -> {
+                    long count = user[0].sum();
+                    if (count != 0) {
+                        users.put(id, new ReimbursementAggregateDTO(count, user[1].sum()));
+                    }
+                });
+            }
+
+            return ReimbursementStatsDTO.builder()
+                    .total(new ReimbursementAggregateDTO(totalCount, totalSum))
+                    .byStatus(byStatus)
+                    .byType(byType)
+                    .byUser(users)
+                    .build();
+        }
+    }
+}
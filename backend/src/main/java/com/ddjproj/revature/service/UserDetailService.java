@@ -1,9 +1,7 @@
 package com.ddjproj.revature.service;
 
-import java.util.stream.Collectors;
-
 import com.ddjproj.revature.repository.UserAccountRepoImpl;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -28,14 +26,11 @@ public class UserDetailService implements UserDetailsService{
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserAccount userAccount = userAccountRepoImpl.findByEmail(email)
+        UserAccount userAccount = userAccountRepoImpl.findByEmailWithCredentials(email)
                 .orElseThrow(() -> new UsernameNotFoundException("An UserAccount with that email address could not be found: " + email));
 
-        var authorities = userAccount.getPermissions().stream()
-                .map(permission -> new SimpleGrantedAuthority(permission.name()))
-                .collect(Collectors.toList());
-
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + userAccount.getRole().name()));
+        // permissions + ROLE_ entry, shared per role
+        var authorities = JwtPrincipal.authoritiesFor(userAccount.getRole());
 
         return new User(userAccount.getEmail(), userAccount.getPasswordHash(), authorities);
 
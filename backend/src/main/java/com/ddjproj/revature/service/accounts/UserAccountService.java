@@ -5,9 +5,17 @@ import com.ddjproj.revature.domain.enums.Roles;
 import com.ddjproj.revature.dto.account.UserAccountDTO;
 import com.ddjproj.revature.dto.account.AccountUpgradeRequestDTO;
 import com.ddjproj.revature.exception.ResourceNotFoundException;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
 import com.ddjproj.revature.exception.validation.ValidationException;
 import com.ddjproj.revature.dto.UserAccountMapper;
 import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.ChangeCounters;
+import com.ddjproj.revature.service.PermissionService;
+import com.ddjproj.revature.service.auth.PermissionVersionTable;
+import com.ddjproj.revature.service.events.DomainEventBus;
+import com.ddjproj.revature.service.events.UserDeleted;
+import com.ddjproj.revature.service.events.UserRoleChanged;
+import com.ddjproj.revature.service.auth.RefreshTokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,14 +35,29 @@ public class UserAccountService {
     private final UserAccountRepository userAccountRepository;
     private final UserAccountMapper userAccountMapper;
     private final PasswordEncoder passwordEncoder;
+    private final PermissionVersionTable permissionVersionTable;
+    private final RefreshTokenService refreshTokenService;
+    private final ChangeCounters changeCounters;
+    private final DomainEventBus domainEventBus;
+    private final PermissionService permissionService;
 
     @Autowired
     public UserAccountService(UserAccountRepository userAccountRepository,
                               UserAccountMapper userAccountMapper,
-                              PasswordEncoder passwordEncoder) {
+                              PasswordEncoder passwordEncoder,
+                              PermissionVersionTable permissionVersionTable,
+                              RefreshTokenService refreshTokenService,
+                              ChangeCounters changeCounters,
+                              DomainEventBus domainEventBus,
+                              PermissionService permissionService) {
         this.userAccountRepository = userAccountRepository;
         this.userAccountMapper = userAccountMapper;
         this.passwordEncoder = passwordEncoder;
+        this.permissionVersionTable = permissionVersionTable;
+        this.refreshTokenService = refreshTokenService;
+        this.changeCounters = changeCounters;
+        this.domainEventBus = domainEventBus;
+        this.permissionService = permissionService;
     }
 
     public UserAccountDTO createUserAcount(UserAccountDTO userAccountDTO) throws ValidationException {
@@ -82,6 +105,13 @@ public class UserAccountService {
         return userAccountMapper.toDto(userAccount);
     }
 
+    /**
+     * weak ETag of {@link #getAllUsers}, bumped by every user account write
+     */
+    public String getAllUsersETag() {
+        return changeCounters.userETag();
+    }
+
     public List<UserAccountDTO> getAllUsers() {
         logger.info("Fetching all user accounts");
 
@@ -95,20 +125,47 @@ public class UserAccountService {
     public UserAccountDTO updateUserRole(Long userId, Roles newRole) throws ResourceNotFoundException {
         logger.info("Updating user {} role to {}", userId, newRole);
 
-        UserAccount userAccount = userAccountRepository.findById(userId)
+        // locks the row first: logins read the new role only together with the new version
+        long permissionVersion = userAccountRepository.incrementPermissionVersion(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
+        // saved back, needs the full entity
+        UserAccount userAccount = userAccountRepository.findByIdWithCredentials(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+
+        Roles previousRole = userAccount.getRole();
         userAccount.setRole(newRole);
         UserAccount saved = userAccountRepository.save(userAccount);
 
+        // tokens issued with the old role are no longer accepted, on every node
+        permissionVersionTable.record(userId, permissionVersion);
+        domainEventBus.publish(new UserRoleChanged(userId, previousRole, newRole));
+
         logger.info("User {} role updated to {}", userId, newRole);
 
         return userAccountMapper.toDto(saved);
     }
 
-    public UserAccountDTO processUpgradeRequest(AccountUpgradeRequestDTO upgradeRequest) throws ResourceNotFoundException, ValidationException {
+    /**
+     * account as stored, read uncached, to issue a token with its current role and permission version
+     */
+    public UserAccount getAccountForToken(Long userId) throws ResourceNotFoundException {
+        return userAccountRepository.findByIdWithCredentials(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    }
+
+    /**
+     * upgrade the caller from RESTRICTED to EMPLOYEE. the id in the request must be the caller's own,
+     * a replacement token is issued for it afterwards
+     */
+    public UserAccountDTO processUpgradeRequest(AccountUpgradeRequestDTO upgradeRequest) throws ResourceNotFoundException, ValidationException, UnauthorizedException {
         logger.info("Processing upgrade request for user {}", upgradeRequest.getUserAccountId());
 
+        Long callerId = permissionService.getCurrentPrincipal().getUserId();
+        if (!callerId.equals(upgradeRequest.getUserAccountId())) {
+            throw new UnauthorizedException("Users can only request an upgrade of their own account");
+        }
+
         UserAccount userAccount = userAccountRepository.findById(upgradeRequest.getUserAccountId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + upgradeRequest.getUserAccountId()));
 
@@ -125,11 +182,14 @@ public class UserAccountService {
     public void deleteUser(Long userId) throws ResourceNotFoundException {
         logger.info("Deleting user account with id: {}", userId);
 
-        // Check if user exists by trying to find them
-        userAccountRepository.findById(userId)
+        // also checks the user exists, and locks the row until the delete commits
+        long permissionVersion = userAccountRepository.incrementPermissionVersion(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         userAccountRepository.deleteById(userId);
+        permissionVersionTable.record(userId, permissionVersion);
+        refreshTokenService.revokeAllForUser(userId);
+        domainEventBus.publish(new UserDeleted(userId));
         logger.info("User account {} deleted", userId);
     }
 
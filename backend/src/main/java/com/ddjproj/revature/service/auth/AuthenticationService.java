@@ -3,13 +3,12 @@ package com.ddjproj.revature.service.auth;
 
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.ddjproj.revature.domain.enums.Roles;
 import com.ddjproj.revature.exception.validation.ValidationException;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 // https://docs.spring.io/spring-security/site/docs/current/api/org/springframework/security/crypto/bcrypt/BCrypt.html
 
@@ -19,13 +18,15 @@ import org.springframework.stereotype.Service;
 import com.ddjproj.revature.dto.account.UserAccountDTO;
 import com.ddjproj.revature.dto.auth.LoginAuthRequestDTO;
 import com.ddjproj.revature.dto.auth.LoginAuthResponseDTO;
+import com.ddjproj.revature.dto.auth.RefreshTokenRequestDTO;
 import com.ddjproj.revature.dto.auth.RegisterAuthRequestDTO;
 
 
+import com.ddjproj.revature.exception.security.AuthenticationException;
 import com.ddjproj.revature.exception.security.InvalidPasswordException;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
 import com.ddjproj.revature.exception.validation.EmailValidationException;
 
-import com.ddjproj.revature.service.UserDetailService;
 import com.ddjproj.revature.service.accounts.UserAccountService;
 import com.ddjproj.revature.domain.entity.UserAccount;
 
@@ -41,11 +42,13 @@ import com.ddjproj.revature.repository.UserAccountRepository;
 @Service
 public class AuthenticationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
+
     private final UserAccountRepository userAccountRepository;
     private final UserAccountService userAccountService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailService userDetailService;
+    private final PasswordHashExecutor passwordHashExecutor;
+    private final RefreshTokenService refreshTokenService;
     
     
     private final PasswordEncoder pwEncoder;
@@ -56,12 +59,12 @@ public class AuthenticationService {
 
 
 
-    public AuthenticationService(PasswordEncoder pwEncoder, UserAccountRepository userAccountRepository, UserAccountService userAccountService, JwtService jwtService, AuthenticationManager authenticationManager, UserDetailService userDetailService){
+    public AuthenticationService(PasswordEncoder pwEncoder, UserAccountRepository userAccountRepository, UserAccountService userAccountService, JwtService jwtService, PasswordHashExecutor passwordHashExecutor, RefreshTokenService refreshTokenService){
         this.userAccountRepository = userAccountRepository;
         this.userAccountService = userAccountService;
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
-        this.userDetailService = userDetailService;
+        this.passwordHashExecutor = passwordHashExecutor;
+        this.refreshTokenService = refreshTokenService;
         
         this.pwEncoder = pwEncoder;
     }
@@ -113,17 +116,15 @@ public class AuthenticationService {
 
         UserAccountDTO newUser = userAccountService.createUserAcount(userAccountDTO);
 
-        UserDetails userDetails = userDetailService.loadUserByUsername(newUser.getEmail());
-
-        String jwtToken = jwtService.generateToken(userDetails);
+        // new account, its permission version was never incremented
+        String jwtToken = jwtService.generateToken(newUser.getUserAccountId(), newUser.getEmail(), newUser.getRole(), 0L);
 
         // the set of string permissions for this account based on assigned role
-        Set<String> permissionStrings = newUser.getRole().getPermissions().stream()
-                .map(permission -> permission.name()) // or reference with (Permissions::name)
-                .collect(Collectors.toSet());
+        Set<String> permissionStrings = newUser.getRole().getPermissionNames();
 
         return LoginAuthResponseDTO.builder()
                 .token(jwtToken)
+                .refreshToken(refreshTokenService.issue(newUser.getUserAccountId()))
                 .role(newUser.getRole().name()) // including the role in auth response
                 .userId(newUser.getUserAccountId())
                 .email(newUser.getEmail())
@@ -134,40 +135,55 @@ public class AuthenticationService {
     }
 
     /**
+     * single pass login: one UserAccount read, one password hash verification (on the bounded
+     * hash pool), token built straight from the loaded account.
+     * a stored hash below the calibrated cost is replaced after the successful verification
      *
      * @param request
      * @return
-          * @throws InvalidPasswordException 
-          */
-        public LoginAuthResponseDTO authenticate(LoginAuthRequestDTO request) throws InvalidPasswordException{
+     * @throws InvalidPasswordException 
+     * @throws TooManyRequestsException if the password hash pool is saturated
+     */
+    public LoginAuthResponseDTO authenticate(LoginAuthRequestDTO request) throws InvalidPasswordException, TooManyRequestsException{
         
         try{
             // troubleshooting output
             System.out.println("Attempting to authenticate the User login: "+ request.getEmail());
             System.out.println("Password's length in characters is : "+ request.getPassword().length());
 
-            UserAccount userAccount = userAccountRepository.findByEmail(request.getEmail())
+            UserAccount userAccount = userAccountRepository.findByEmailWithCredentials(request.getEmail())
                     .orElseThrow(() -> new UsernameNotFoundException("A matching UserAccount was not found."));
 
-            boolean passwordsAreMatching = pwEncoder.matches(request.getPassword(), userAccount.getPasswordHash());
+            boolean passwordsAreMatching = passwordHashExecutor.matches(request.getPassword(), userAccount.getPasswordHash());
             System.out.println("The passwords are matching: " + passwordsAreMatching);
 
             if (!passwordsAreMatching) {
                 throw new InvalidPasswordException("Invalid password entered.");
             }
 
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            // raw password is only available here, upgrade legacy / under-cost hashes transparently
+            if (passwordHashExecutor.needsRehash(userAccount.getPasswordHash())) {
+                try {
+                    // only the hash column: the account was read before the slow verify, saving the
+                    // whole entity would write back a role / permission version changed meanwhile
+                    String upgraded = passwordHashExecutor.encode(request.getPassword());
+                    if (!userAccountRepository.updatePasswordHash(userAccount.getUserAccountId(), userAccount.getPasswordHash(), upgraded)) {
+                        logger.debug("Password of user {} changed during login, rehash skipped", userAccount.getUserAccountId());
+                    }
+                } catch (TooManyRequestsException e) {
+                    // not worth failing a valid login over, retried on the next one
+                    logger.warn("Skipping password rehash for user {}, hash pool is saturated", userAccount.getUserAccountId());
+                }
+            }
 
-            UserDetails userDetails = userDetailService.loadUserByUsername(request.getEmail());
-            String jwtToken = jwtService.generateToken(userDetails);
+            String jwtToken = jwtService.generateToken(userAccount);
 
             // updated to retrieve permissions directly from enum
-            Set<String> permissionStrings = userAccount.getRole().getPermissions().stream()
-                    .map(permission -> permission.name()) // or reference with (Permissions::name)
-                    .collect(Collectors.toSet());
+            Set<String> permissionStrings = userAccount.getRole().getPermissionNames();
 
             return LoginAuthResponseDTO.builder()
                     .token(jwtToken)
+                    .refreshToken(refreshTokenService.issue(userAccount.getUserAccountId()))
                     .role(userAccount.getRole().name()) // including the role in auth response
                     .userId(userAccount.getUserAccountId())
                     .email(userAccount.getEmail())
@@ -177,10 +193,50 @@ public class AuthenticationService {
         }catch(InvalidPasswordException e){
             System.out.println("The authentication process failed: "+ e.getMessage());
             throw e;
+        } catch (TooManyRequestsException e){
+            throw e;
         } catch (Exception e){
             System.out.println("An unexpected error occurred during the authentication process: "+ e.getMessage());
             e.printStackTrace();
             throw e;
         }
     }
+
+    /**
+     * exchange a refresh token for a new access token and a rotated refresh token.
+     * no password verification involved, the account is re-read so the new token carries
+     * the current role and permission version
+     *
+     * @param request
+     * @return
+     * @throws AuthenticationException if the refresh token or its account is no longer valid
+     */
+    public LoginAuthResponseDTO refresh(RefreshTokenRequestDTO request) throws AuthenticationException {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        // uncached read, the role and permission version must be the committed ones
+        UserAccount userAccount = userAccountRepository.findByIdWithCredentials(rotation.getUserId())
+                .orElseThrow(() -> new AuthenticationException("The UserAccount for this refresh token no longer exists."));
+
+        Set<String> permissionStrings = userAccount.getRole().getPermissionNames();
+
+        return LoginAuthResponseDTO.builder()
+                .token(jwtService.generateToken(userAccount))
+                .refreshToken(rotation.getRefreshToken())
+                .role(userAccount.getRole().name())
+                .userId(userAccount.getUserAccountId())
+                .email(userAccount.getEmail())
+                .permissions(permissionStrings)
+                .build();
+    }
+
+    /**
+     * 
+     * @param refreshToken raw refresh token, its whole family is revoked
+     */
+    public void revokeRefreshToken(String refreshToken){
+        if (refreshToken != null && !refreshToken.isBlank()){
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
 }
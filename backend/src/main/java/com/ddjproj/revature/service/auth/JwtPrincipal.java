@@ -0,0 +1,117 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.ddjproj.revature.domain.enums.Permissions;
+import com.ddjproj.revature.domain.enums.Roles;
+
+
+/**
+ * Lightweight, immutable principal built straight from verified token claims.
+ * getName() returns the email so Authentication.getName() keeps working for existing callers.
+ */
+public final class JwtPrincipal implements AuthenticatedPrincipal {
+
+    // authorities only depend on the role, build them once per role
+    private static final Map<Roles, List<GrantedAuthority>> ROLE_AUTHORITIES = new EnumMap<>(Roles.class);
+
+    static {
+        for (Roles role : Roles.values()){
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Permissions permission : role.getPermissions()){
+                authorities.add(new SimpleGrantedAuthority(permission.name()));
+            }
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+            ROLE_AUTHORITIES.put(role, Collections.unmodifiableList(authorities));
+        }
+    }
+
+    private final Long userId;
+    private final String email;
+    private final Roles role;
+    // token the principal was built from, unknown (null / 0) when resolved by email
+    private final Long permissionVersion;
+    private final long expiresAt;
+    private final String tokenDigest;
+
+
+    public JwtPrincipal(Long userId, String email, Roles role){
+        this(userId, email, role, null, 0L, null);
+    }
+
+    public JwtPrincipal(Long userId, String email, Roles role, Long permissionVersion, long expiresAt, String tokenDigest){
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.permissionVersion = permissionVersion;
+        this.expiresAt = expiresAt;
+        this.tokenDigest = tokenDigest;
+    }
+
+    /**
+     * 
+     * @param role
+     * @return shared, unmodifiable authorities (permissions + ROLE_ entry) for the role
+     */
+    public static List<GrantedAuthority> authoritiesFor(Roles role){
+        return ROLE_AUTHORITIES.get(role);
+    }
+
+    public List<GrantedAuthority> getAuthorities(){
+        return authoritiesFor(role);
+    }
+
+    public Long getUserId(){
+        return userId;
+    }
+
+    public String getEmail(){
+        return email;
+    }
+
+    public Roles getRole(){
+        return role;
+    }
+
+    /**
+     *
+     * @return permission version claim of the token, null if unknown
+     */
+    public Long getPermissionVersion(){
+        return permissionVersion;
+    }
+
+    /**
+     *
+     * @return token expiration, epoch millis, 0 if unknown
+     */
+    public long getExpiresAt(){
+        return expiresAt;
+    }
+
+    /**
+     *
+     * @return digest of the token from {@link TokenDigest#of(String)}, null if unknown
+     */
+    public String getTokenDigest(){
+        return tokenDigest;
+    }
+
+    @Override
+    public String getName(){
+        return email;
+    }
+
+    @Override
+    public String toString(){
+        return email;
+    }
+}
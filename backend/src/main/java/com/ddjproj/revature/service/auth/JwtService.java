@@ -7,8 +7,12 @@ import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
 
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
@@ -20,6 +24,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+
+import jakarta.annotation.PostConstruct;
+
 
 /*
  * References for setup : 
@@ -35,13 +44,46 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
-    @Value("${security.jwt.secret}")
+    // custom claims carried by every token issued for a UserAccount
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PERMISSION_VERSION = "pv";
+
+    // legacy HS256 secret, only used to verify tokens issued before ES256 signing (no kid header)
+    @Value("${security.jwt.secret:}")
     private String secretKey;
 
 
     @Value("${security.jwt.expiration}")
     private long jwtExpiration;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PermissionVersionTable permissionVersionTable;
+    private final SigningKeyService signingKeyService;
+
+    // derived once at startup, the decoded key and parser are immutable / thread safe
+    private Key legacyKey;
+    private JwtParser jwtParser;
+
+
+    public JwtService(VerifiedTokenCache verifiedTokenCache, PermissionVersionTable permissionVersionTable,
+                      SigningKeyService signingKeyService){
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.permissionVersionTable = permissionVersionTable;
+        this.signingKeyService = signingKeyService;
+    }
+
+    @PostConstruct
+    void initSigningKey(){
+        this.legacyKey = secretKey == null || secretKey.isBlank() ? null : getSignInKey();
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims){
+                return resolveVerificationKey(header);
+            }
+        }).build();
+    }
+
     /**
      * 
      * @param token
@@ -64,6 +106,32 @@ public class JwtService {
 
     }
 
+    /**
+     * parse and verify a token once, later calls for the same token are served from the cache
+     * until the token's expiration
+     *
+     * @param token
+     * @return verified claims, read only
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseVerifiedClaims(String token){
+        return parseVerifiedClaims(token, TokenDigest.of(token));
+    }
+
+    /**
+     * 
+     * @param token
+     * @param digest precomputed {@link TokenDigest#of(String)} of the token
+     * @return verified claims
+     */
+    public Claims parseVerifiedClaims(String token, String digest){
+        Claims claims = verifiedTokenCache.get(digest);
+        if (claims == null){
+            claims = verifiedTokenCache.put(digest, jwtParser.parseClaimsJws(token).getBody());
+        }
+        return claims;
+    }
+
     /**
      * 
      * @param userDetails
@@ -80,7 +148,75 @@ public class JwtService {
      * @return
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails){
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(extraClaims, userDetails.getUsername(), jwtExpiration);
+    }
+
+    /**
+     * token carrying user id, role and permission version so requests can be authenticated
+     * without loading the UserAccount
+     *
+     * @param userAccount
+     * @return
+     */
+    public String generateToken(UserAccount userAccount){
+        return generateToken(userAccount.getUserAccountId(), userAccount.getEmail(), userAccount.getRole(),
+                userAccount.getPermissionVersion());
+    }
+
+    /**
+     * 
+     * @param userId
+     * @param email token subject
+     * @param role
+     * @param permissionVersion version read from the account row together with the role
+     * @return
+     */
+    public String generateToken(Long userId, String email, Roles role, long permissionVersion){
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role.name());
+        claims.put(CLAIM_PERMISSION_VERSION, permissionVersion);
+        return buildToken(claims, email, jwtExpiration);
+    }
+
+    /**
+     * build the request principal from verified claims
+     *
+     * @param claims from {@link #parseVerifiedClaims(String)}
+     * @return principal, or null for tokens issued without the user claims
+     */
+    public JwtPrincipal toPrincipal(Claims claims){
+        return toPrincipal(claims, null);
+    }
+
+    /**
+     * build the request principal from verified claims, keeping what long lived responses
+     * (event streams) need to check the token again later
+     *
+     * @param claims from {@link #parseVerifiedClaims(String, String)}
+     * @param digest token digest from {@link TokenDigest#of(String)}
+     * @return principal, or null for tokens issued without the user claims
+     */
+    public JwtPrincipal toPrincipal(Claims claims, String digest){
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.getSubject() == null){
+            return null;
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : 0L;
+        return new JwtPrincipal(userId, claims.getSubject(), Roles.valueOf(role),
+                claims.get(CLAIM_PERMISSION_VERSION, Long.class), expiresAt, digest);
+    }
+
+    /**
+     * 
+     * @param claims
+     * @param principal
+     * @return true if no role change / delete happened for the user since the token was issued
+     */
+    public boolean isPermissionVersionCurrent(Claims claims, JwtPrincipal principal){
+        Long tokenVersion = claims.get(CLAIM_PERMISSION_VERSION, Long.class);
+        return tokenVersion != null && permissionVersionTable.isCurrent(principal.getUserId(), tokenVersion);
     }
 
     /**
@@ -94,20 +230,43 @@ public class JwtService {
     /**
      * 
      * @param extraClaims
-     * @param userDetails
+     * @param subject user email
      * @param expiration
      * @return
      */
     private String buildToken(
-        Map<String, Object> extraClaims, UserDetails userDetails, long expiration
+        Map<String, Object> extraClaims, String subject, long expiration
     ){
-        return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
+        SigningKeyService.ActiveKey activeKey = signingKeyService.getActiveKey();
+        return Jwts.builder().setClaims(extraClaims).setSubject(subject)
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+        .setHeaderParam(JwsHeader.KEY_ID, activeKey.getKid())
+        .signWith(activeKey.getPrivateKey(), SignatureAlgorithm.ES256)
         .compact();
     }
 
+    /**
+     * kid header selects the ES256 key, tokens without one were signed with the legacy secret
+     *
+     * @param header
+     * @return
+     */
+    private Key resolveVerificationKey(JwsHeader<?> header){
+        String kid = header.getKeyId();
+        if (kid == null){
+            if (legacyKey == null){
+                throw new UnsupportedJwtException("Token has no kid header");
+            }
+            return legacyKey;
+        }
+        Key key = signingKeyService.getVerificationKey(kid);
+        if (key == null){
+            throw new UnsupportedJwtException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
     /**
      * 
      * @param token
@@ -115,8 +274,19 @@ public class JwtService {
      * @return
      */
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    /**
+     * validity check against already verified claims, no parsing involved
+     *
+     * @param claims from {@link #parseVerifiedClaims(String)}
+     * @param userDetails
+     * @return
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails){
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(claims);
     }
 
     /**
@@ -124,8 +294,8 @@ public class JwtService {
      * @param token
      * @return
      */
-    private boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims){
+        return claims.getExpiration().before(new Date());
     }
 
     /**
@@ -133,7 +303,7 @@ public class JwtService {
      * @param token
      * @return
      */
-    private Date extractExpiration(String token){
+    public Date extractExpiration(String token){
         return extractClaim(token, Claims::getExpiration);
     }
 
@@ -144,9 +314,7 @@ public class JwtService {
      * @return
      */
     private Claims extractAllClaims(String token){
-        return Jwts
-        .parserBuilder().setSigningKey(getSignInKey())
-        .build().parseClaimsJws(token).getBody();
+        return parseVerifiedClaims(token);
     }
 
     /**
@@ -0,0 +1,144 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Token bucket per key, implemented as GCRA so each bucket is a single AtomicLong
+ * (the theoretical arrival time of the next request) updated with CAS.
+ *
+ * A bucket whose arrival time is in the past is full, which is exactly the same as having no bucket,
+ * so full buckets can be dropped at any time without changing behavior. Idle keys are swept on a schedule.
+ * The number of tracked keys is capped: keys are spread over a few shards, each a small LRU map
+ * locked only for the lookup. At the cap a new key replaces the least recently used bucket of its
+ * shard, but only once that bucket is full; dropping a bucket that is still limiting would hand its
+ * key a fresh burst, so until then the new key has to wait instead. A flood of distinct keys can
+ * therefore delay keys that are not tracked yet, but never reset one that is.
+ *
+ * Trade-off: only the bucket update is lock free. Finding the bucket takes its shard's monitor,
+ * because a lookup in an access-ordered LinkedHashMap moves the entry and so mutates the map.
+ * The critical section is one hash lookup (plus one eviction at the cap) and is spread over up to
+ * 16 shards; in exchange the LRU order is exact and the key cap is hard, which a concurrent map
+ * with sampled eviction only approximates.
+ */
+public class KeyedRateLimiter {
+
+    private static final int MAX_SHARDS = 16;
+
+    private final Shard[] shards;
+    private final int shardCapacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoTime;
+
+
+    /**
+     *
+     * @param permits requests allowed per period (also the burst size)
+     * @param period
+     * @param maxKeys maximum number of tracked keys
+     */
+    public KeyedRateLimiter(int permits, long period, TimeUnit unit, int maxKeys){
+        this(permits, period, unit, maxKeys, Integer.highestOneBit(Math.max(1, Math.min(MAX_SHARDS, maxKeys))), System::nanoTime);
+    }
+
+    KeyedRateLimiter(int permits, long period, TimeUnit unit, int maxKeys, int shardCount, LongSupplier nanoTime){
+        this.emissionIntervalNanos = unit.toNanos(period) / Math.max(1, permits);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, permits) - 1);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++){
+            shards[i] = new Shard();
+        }
+        this.shardCapacity = Math.max(1, maxKeys / shardCount);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * take one token for the key
+     *
+     * @param key
+     * @return 0 if allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key){
+        long now = nanoTime.getAsLong();
+        Shard shard = shards[(key.hashCode() & 0x7fffffff) % shards.length];
+        AtomicLong bucket;
+        synchronized (shard){
+            // also marks the bucket most recently used
+            bucket = shard.get(key);
+            if (bucket == null){
+                if (shard.size() >= shardCapacity){
+                    long untilEvictable = evictLeastRecentlyUsed(shard, now);
+                    if (untilEvictable > 0){
+                        return untilEvictable;
+                    }
+                }
+                bucket = new AtomicLong(now);
+                shard.put(key, bucket);
+            }
+        }
+
+        while (true){
+            long arrival = bucket.get();
+            long theoreticalArrival = Math.max(arrival, now);
+            long wait = theoreticalArrival - now - burstToleranceNanos;
+            if (wait > 0){
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, theoreticalArrival + emissionIntervalNanos)){
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * drop buckets that have fully refilled
+     */
+    public void evictIdle(){
+        long now = nanoTime.getAsLong();
+        for (Shard shard : shards){
+            synchronized (shard){
+                shard.values().removeIf(bucket -> bucket.get() - now <= 0);
+            }
+        }
+    }
+
+    /**
+     * drop the least recently used bucket of the shard if it is full. caller holds the shard lock
+     *
+     * @return 0 if a bucket was dropped, otherwise nanoseconds until the bucket is full
+     */
+    private static long evictLeastRecentlyUsed(Shard shard, long now){
+        Iterator<AtomicLong> buckets = shard.values().iterator();
+        long untilFull = buckets.next().get() - now;
+        if (untilFull > 0){
+            return untilFull;
+        }
+        buckets.remove();
+        return 0L;
+    }
+
+    public int size(){
+        int size = 0;
+        for (Shard shard : shards){
+            synchronized (shard){
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * buckets of one shard, least recently used first
+     */
+    private static final class Shard extends LinkedHashMap<String, AtomicLong> {
+        private Shard(){
+            super(16, 0.75f, true);
+        }
+    }
+}
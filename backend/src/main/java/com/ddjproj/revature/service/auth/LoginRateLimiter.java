@@ -0,0 +1,94 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+/**
+ * Throttles the open /api/auth endpoints before any password hashing happens.
+ * Every attempt must pass both the per-account (email) and the per-client (IP) bucket.
+ * Rejections are counted, not logged one by one: a credential stuffing burst is exactly when they
+ * pile up, so the log only gets one summary line per eviction interval.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final KeyedRateLimiter emailLimiter;
+    private final KeyedRateLimiter ipLimiter;
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByIp;
+    // rejections since the last summary line
+    private final LongAdder rejectedSinceReport = new LongAdder();
+
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${security.auth.rate-limit.email-per-minute:5}") int emailPerMinute,
+                            @Value("${security.auth.rate-limit.ip-per-minute:20}") int ipPerMinute,
+                            @Value("${security.auth.rate-limit.max-keys:100000}") int maxKeys){
+        this.emailLimiter = new KeyedRateLimiter(emailPerMinute, 1, TimeUnit.MINUTES, maxKeys);
+        this.ipLimiter = new KeyedRateLimiter(ipPerMinute, 1, TimeUnit.MINUTES, maxKeys);
+
+        this.rejectedByEmail = Counter.builder("auth.rate_limit.rejected")
+                .tag("key", "email")
+                .description("Auth attempts rejected by the per-account limit")
+                .register(meterRegistry);
+        this.rejectedByIp = Counter.builder("auth.rate_limit.rejected")
+                .tag("key", "ip")
+                .description("Auth attempts rejected by the per-client limit")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.tracked_keys", () -> emailLimiter.size() + ipLimiter.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 
+     * @param email account the attempt is for, may be null
+     * @param clientIp request remote address, already resolved from X-Forwarded-For when the peer is a trusted proxy
+     * @throws TooManyRequestsException if either limit is exhausted
+     */
+    public void checkAttempt(String email, String clientIp) throws TooManyRequestsException {
+        long ipWait = ipLimiter.tryAcquire(clientIp);
+        if (ipWait > 0){
+            rejectedByIp.increment();
+            rejectedSinceReport.increment();
+            throw new TooManyRequestsException("Too many attempts, retry later.", toRetryAfterSeconds(ipWait));
+        }
+        if (email != null){
+            long emailWait = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (emailWait > 0){
+                rejectedByEmail.increment();
+                rejectedSinceReport.increment();
+                throw new TooManyRequestsException("Too many attempts, retry later.", toRetryAfterSeconds(emailWait));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.auth.rate-limit.eviction-ms:60000}")
+    public void evictIdleKeys(){
+        emailLimiter.evictIdle();
+        ipLimiter.evictIdle();
+        long rejected = rejectedSinceReport.sumThenReset();
+        if (rejected > 0){
+            logger.warn("{} auth attempts rejected by rate limits since the last report", rejected);
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos){
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
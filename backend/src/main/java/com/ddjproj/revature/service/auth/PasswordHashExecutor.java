@@ -0,0 +1,115 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
+
+import jakarta.annotation.PreDestroy;
+
+
+/**
+ * Runs password hash verification on a dedicated, size bounded pool.
+ * BCrypt is deliberately CPU heavy; capping the threads keeps a login storm from taking every core,
+ * and a bounded queue lets callers fail fast with 429 instead of piling up request threads.
+ */
+@Component
+public class PasswordHashExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashExecutor.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+
+    public PasswordHashExecutor(PasswordEncoder passwordEncoder,
+                                @Value("${security.password.executor.threads:0}") int threads,
+                                @Value("${security.password.executor.queue-capacity:64}") int queueCapacity,
+                                @Value("${security.password.executor.retry-after-seconds:1}") long retryAfterSeconds){
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // default: leave one core for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * verify a raw password against the stored hash on the bounded pool
+     *
+     * @param rawPassword
+     * @param encodedPassword
+     * @return true if matching
+     * @throws TooManyRequestsException if the pool and its queue are full
+     */
+    public boolean matches(String rawPassword, String encodedPassword) throws TooManyRequestsException {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * hash a raw password on the bounded pool
+     *
+     * @param rawPassword
+     * @return encoded password
+     * @throws TooManyRequestsException if the pool and its queue are full
+     */
+    public String encode(String rawPassword) throws TooManyRequestsException {
+        return await(submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * 
+     * @param encodedPassword
+     * @return true if the stored hash uses a legacy algorithm or a cost below the current one
+     */
+    public boolean needsRehash(String encodedPassword){
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> Future<T> submit(Callable<T> task) throws TooManyRequestsException {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hash queue saturated, shedding login request");
+            throw new TooManyRequestsException("Too many concurrent login attempts, retry later.", retryAfterSeconds);
+        }
+    }
+
+    private static <T> T await(Future<T> result){
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown(){
+        executor.shutdownNow();
+    }
+}
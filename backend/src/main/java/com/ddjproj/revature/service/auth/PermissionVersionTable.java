@@ -0,0 +1,156 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ddjproj.revature.domain.entity.PermissionChange;
+import com.ddjproj.revature.repository.PermissionChangeRepository;
+import com.ddjproj.revature.service.TransactionCallbacks;
+
+import jakarta.annotation.PostConstruct;
+
+
+/**
+ * Permission version per UserAccount id, shared by every backend node.
+ * The version is a column of the user_account row, incremented in the same transaction as a role change
+ * or account removal, so a token always carries the version read together with the role it was issued for.
+ * Each increment is also recorded in the permission_change table; every node pulls new rows incrementally
+ * (change id as cursor, like the revocation list) into an in-memory map, and a token is only accepted if
+ * its version is not below the latest change known for the user. No database access in the filter.
+ *
+ * A change only has to be remembered while tokens issued before it can still be valid, older changes are
+ * dropped from the map and the table. The map is reloaded from the table at startup, so tokens issued
+ * before a change stay rejected across restarts.
+ */
+@Component
+public class PermissionVersionTable {
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final PermissionChangeRepository permissionChangeRepository;
+
+    // user id -> latest known change
+    private final Map<Long, KnownVersion> versions = new ConcurrentHashMap<>();
+
+    private final long retentionMillis;
+    private final long refreshGraceMillis;
+
+    // rows up to this id were committed long enough ago that no earlier id can still appear
+    private volatile long refreshCursor = 0L;
+
+
+    public PermissionVersionTable(PermissionChangeRepository permissionChangeRepository,
+                                  @Value("${security.jwt.expiration}") long tokenLifetimeMillis,
+                                  @Value("${security.jwt.permission-version.refresh-grace-ms:30000}") long refreshGraceMillis){
+        this.permissionChangeRepository = permissionChangeRepository;
+        // a login that read the old version can still be minting its token just after the change
+        this.retentionMillis = tokenLifetimeMillis + refreshGraceMillis;
+        this.refreshGraceMillis = refreshGraceMillis;
+    }
+
+    @PostConstruct
+    void loadChanges(){
+        refreshChanges();
+    }
+
+    /**
+     *
+     * @param userId
+     * @return latest permission version known for the user, 0 if there was no recent change
+     */
+    public long currentVersion(Long userId){
+        KnownVersion known = versions.get(userId);
+        return known != null ? known.version : 0L;
+    }
+
+    /**
+     * record a version already incremented on the user_account row in the current transaction.
+     * the row is written in the same transaction, this node applies it once the transaction commits
+     *
+     * @param userId
+     * @param permissionVersion the new version
+     */
+    public void record(Long userId, long permissionVersion){
+        PermissionChange change = permissionChangeRepository.save(
+                new PermissionChange(userId, permissionVersion, System.currentTimeMillis()));
+        TransactionCallbacks.afterCommit(() -> remember(change));
+    }
+
+    /**
+     *
+     * @param userId
+     * @param tokenVersion version claim carried by the token
+     * @return true if no role change / removal happened since the token was issued
+     */
+    public boolean isCurrent(Long userId, long tokenVersion){
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    /**
+     * pull changes recorded by other nodes since the last refresh.
+     * rows newer than the grace period are read again on the next refresh, an insert with a lower id
+     * that committed late is therefore still picked up.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.permission-version.refresh-ms:5000}")
+    public void refreshChanges(){
+        long now = System.currentTimeMillis();
+        long cursor = refreshCursor;
+        long safeCursor = cursor;
+        boolean settled = true;
+        List<PermissionChange> batch;
+        do {
+            batch = permissionChangeRepository.findByChangeIdGreaterThan(cursor, REFRESH_BATCH_SIZE);
+            for (PermissionChange row : batch){
+                if (row.getChangedAt() > now - retentionMillis){
+                    remember(row);
+                }
+                cursor = row.getChangeId();
+                settled = settled && row.getChangedAt() <= now - refreshGraceMillis;
+                if (settled){
+                    safeCursor = cursor;
+                }
+            }
+        } while (batch.size() == REFRESH_BATCH_SIZE);
+        refreshCursor = safeCursor;
+    }
+
+    /**
+     * forget changes older than any token that could have been issued before them,
+     * and purge them from the shared table
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.permission-version.cleanup-ms:60000}")
+    public void evictExpired(){
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        versions.values().removeIf(known -> known.changedAt < cutoff);
+        permissionChangeRepository.deleteByChangedAtBefore(cutoff);
+    }
+
+    /**
+     *
+     * @return number of users with a change recent enough to matter
+     */
+    public int size(){
+        return versions.size();
+    }
+
+    private void remember(PermissionChange change){
+        KnownVersion update = new KnownVersion(change.getPermissionVersion(), change.getChangedAt());
+        versions.merge(change.getUserId(), update, (known, candidate) -> candidate.version > known.version ? candidate : known);
+    }
+
+
+    private static final class KnownVersion {
+        private final long version;
+        private final long changedAt;
+
+        private KnownVersion(long version, long changedAt){
+            this.version = version;
+            this.changedAt = changedAt;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+
+/**
+ * Claims that can be shared between request threads: a private copy of the verified claims that
+ * is only ever read, so lookups keep the parser's type conversions, and every mutator throws.
+ */
+final class ReadOnlyClaims implements Claims {
+
+    // never handed out, so nothing writes to it after construction
+    private final Claims claims;
+
+    private ReadOnlyClaims(Claims claims){
+        this.claims = claims;
+    }
+
+    /**
+     *
+     * @param claims verified claims, copied
+     * @return read only snapshot
+     */
+    static Claims of(Claims claims){
+        if (claims instanceof ReadOnlyClaims){
+            return claims;
+        }
+        return new ReadOnlyClaims(Jwts.claims(claims));
+    }
+
+    @Override
+    public String getIssuer(){
+        return claims.getIssuer();
+    }
+
+    @Override
+    public String getSubject(){
+        return claims.getSubject();
+    }
+
+    @Override
+    public String getAudience(){
+        return claims.getAudience();
+    }
+
+    @Override
+    public Date getExpiration(){
+        return claims.getExpiration();
+    }
+
+    @Override
+    public Date getNotBefore(){
+        return claims.getNotBefore();
+    }
+
+    @Override
+    public Date getIssuedAt(){
+        return claims.getIssuedAt();
+    }
+
+    @Override
+    public String getId(){
+        return claims.getId();
+    }
+
+    @Override
+    public <T> T get(String claimName, Class<T> requiredType){
+        return claims.get(claimName, requiredType);
+    }
+
+    @Override
+    public int size(){
+        return claims.size();
+    }
+
+    @Override
+    public boolean isEmpty(){
+        return claims.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key){
+        return claims.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value){
+        return claims.containsValue(value);
+    }
+
+    @Override
+    public Object get(Object key){
+        return claims.get(key);
+    }
+
+    @Override
+    public Set<String> keySet(){
+        return Collections.unmodifiableSet(claims.keySet());
+    }
+
+    @Override
+    public Collection<Object> values(){
+        return Collections.unmodifiableCollection(claims.values());
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet(){
+        return Collections.unmodifiableMap(claims).entrySet();
+    }
+
+    @Override
+    public Claims setIssuer(String iss){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setSubject(String sub){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setAudience(String aud){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setExpiration(Date exp){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setNotBefore(Date nbf){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setIssuedAt(Date iat){
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setId(String jti){
+        throw readOnly();
+    }
+
+    @Override
+    public Object put(String key, Object value){
+        throw readOnly();
+    }
+
+    @Override
+    public Object remove(Object key){
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m){
+        throw readOnly();
+    }
+
+    @Override
+    public void clear(){
+        throw readOnly();
+    }
+
+    @Override
+    public boolean equals(Object o){
+        return o == this || claims.equals(o);
+    }
+
+    @Override
+    public int hashCode(){
+        return claims.hashCode();
+    }
+
+    @Override
+    public String toString(){
+        return claims.toString();
+    }
+
+    private static UnsupportedOperationException readOnly(){
+        return new UnsupportedOperationException("Verified claims are shared and read only");
+    }
+}
@@ -0,0 +1,139 @@
+package com.ddjproj.revature.service.auth;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ddjproj.revature.domain.entity.RefreshToken;
+import com.ddjproj.revature.exception.security.AuthenticationException;
+import com.ddjproj.revature.repository.RefreshTokenRepository;
+
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * The token value is random and only its digest is stored; each use consumes the token and returns
+ * a successor in the same family. A consumed token presented again means it was copied, the
+ * whole family is revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${security.jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository){
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * start a new token family (login / registration)
+     * 
+     * @param userId
+     * @return raw refresh token for the client
+     */
+    public String issue(Long userId){
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * consume the refresh token and issue its successor, in one transaction: a token is never
+     * consumed without its successor being stored. AuthenticationException is checked and does
+     * not roll back, so the family revocation on reuse is kept
+     * 
+     * @param rawToken
+     * @return user id and the successor token
+     * @throws AuthenticationException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional
+    public Rotation rotate(String rawToken) throws AuthenticationException {
+        if (rawToken == null || rawToken.isBlank()){
+            throw new AuthenticationException("Refresh token is required.");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenDigest(TokenDigest.of(rawToken))
+                .orElseThrow(() -> new AuthenticationException("Refresh token is not valid."));
+
+        if (current.isRevoked() || current.getExpiresAt() <= System.currentTimeMillis()){
+            throw new AuthenticationException("Refresh token is not valid.");
+        }
+        if (current.isUsed() || !refreshTokenRepository.markUsed(current.getId())){
+            logger.warn("Refresh token reuse detected for user {}, revoking token family", current.getUserId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new AuthenticationException("Refresh token is not valid.");
+        }
+
+        String successor = issue(current.getUserId(), current.getFamilyId());
+        return new Rotation(current.getUserId(), successor);
+    }
+
+    /**
+     * revoke the family of the given token (logout)
+     * 
+     * @param rawToken
+     */
+    public void revoke(String rawToken){
+        refreshTokenRepository.findByTokenDigest(TokenDigest.of(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * 
+     * @param userId
+     */
+    public void revokeAllForUser(Long userId){
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-cleanup-ms:3600000}")
+    public void deleteExpired(){
+        int deleted = refreshTokenRepository.deleteByExpiresAtBefore(System.currentTimeMillis());
+        if (deleted > 0){
+            logger.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long userId, String familyId){
+        byte[] value = new byte[32];
+        secureRandom.nextBytes(value);
+        String rawToken = ENCODER.encodeToString(value);
+
+        refreshTokenRepository.save(new RefreshToken(TokenDigest.of(rawToken), familyId, userId,
+                System.currentTimeMillis() + refreshExpiration));
+        return rawToken;
+    }
+
+
+    /**
+     * result of a successful rotation
+     */
+    public static final class Rotation {
+        private final Long userId;
+        private final String refreshToken;
+
+        private Rotation(Long userId, String refreshToken){
+            this.userId = userId;
+            this.refreshToken = refreshToken;
+        }
+
+        public Long getUserId(){
+            return userId;
+        }
+
+        public String getRefreshToken(){
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ddjproj.revature.service.auth;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AES-GCM wrapping of stored signing private keys under a key-encryption key (KEK) that never
+ * reaches the database. The kid is authenticated with the ciphertext, so a wrapped key copied
+ * onto another row does not decrypt.
+ * Format: "v1:" + base64(12 byte IV + ciphertext + 16 byte tag).
+ */
+final class SigningKeyCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec keyEncryptionKey;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param keyEncryptionKey raw AES key, 16, 24 or 32 bytes
+     */
+    SigningKeyCipher(byte[] keyEncryptionKey){
+        int length = keyEncryptionKey.length;
+        if (length != 16 && length != 24 && length != 32){
+            throw new IllegalStateException("Signing key encryption key must be 16, 24 or 32 bytes, got " + length);
+        }
+        this.keyEncryptionKey = new SecretKeySpec(keyEncryptionKey, "AES");
+    }
+
+    /**
+     *
+     * @param stored private_key column value
+     * @return whether the value is a wrapped key, and not a plaintext one stored before encryption
+     */
+    static boolean isWrapped(String stored){
+        return stored.startsWith(PREFIX);
+    }
+
+    String wrap(String kid, byte[] privateKey){
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = cipher.doFinal(privateKey);
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encrypt signing key " + kid, e);
+        }
+    }
+
+    /**
+     *
+     * @return the private key, or null if it was wrapped under another KEK (or altered)
+     */
+    byte[] unwrap(String kid, String stored){
+        if (!isWrapped(stored)){
+            return null;
+        }
+        try {
+            byte[] wrapped = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+            if (wrapped.length <= IV_LENGTH){
+                return null;
+            }
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, wrapped, 0, IV_LENGTH));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(wrapped, IV_LENGTH, wrapped.length - IV_LENGTH);
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.ddjproj.revature.service.auth;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ddjproj.revature.domain.entity.SigningKey;
+import com.ddjproj.revature.repository.SigningKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+
+
+/**
+ * ES256 signing keys with scheduled rotation.
+ * The newest activated key signs new tokens, every key whose tokens may still be unexpired is kept
+ * for verification (selected by the kid header) and published through the JWKS endpoint, so other
+ * services can verify tokens offline. A new key is published ahead of its activation time by more
+ * than the JWKS cache lifetime plus one check interval: by the time it signs, every node has loaded
+ * it and every external verifier has fetched it. Keys live in the signing_key table so all nodes
+ * share them; private keys are stored only encrypted under the key-encryption key every node is
+ * configured with (JWT_KEY_ENCRYPTION_KEY), plaintext keys from before are encrypted in place.
+ * A node without a KEK refuses to start, one with another KEK than the active key's never signs
+ * and never writes a key of its own.
+ * Verification only reads the in-memory keys, all database access happens on the schedule.
+ */
+@Service
+public class SigningKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyService.class);
+    private static final String ALGORITHM = "ES256";
+    private static final String CURVE = "secp256r1";
+    // how long verifiers may cache the JWK set
+    public static final long JWKS_MAX_AGE_SECONDS = 300;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final long rotationIntervalMillis;
+    private final long tokenLifetimeMillis;
+    private final long publishAheadMillis;
+    private final SigningKeyCipher cipher;
+
+    // parsed verification keys by kid
+    private final Map<String, PublicKey> verificationKeys = new ConcurrentHashMap<>();
+    private volatile List<Map<String, Object>> jwks = Collections.emptyList();
+    private volatile ActiveKey activeKey;
+
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+                             @Value("${security.jwt.signing.rotation-ms:86400000}") long rotationIntervalMillis,
+                             @Value("${security.jwt.expiration}") long tokenLifetimeMillis,
+                             @Value("${security.jwt.signing.check-ms:60000}") long checkIntervalMillis,
+                             @Value("${security.jwt.signing.publish-ahead-ms:600000}") long publishAheadMillis,
+                             @Value("${security.jwt.signing.key-encryption-key:}") String keyEncryptionKey){
+        if (publishAheadMillis < TimeUnit.SECONDS.toMillis(JWKS_MAX_AGE_SECONDS) + checkIntervalMillis){
+            throw new IllegalStateException("security.jwt.signing.publish-ahead-ms must cover the JWKS cache lifetime ("
+                    + JWKS_MAX_AGE_SECONDS + " s) plus security.jwt.signing.check-ms");
+        }
+        this.signingKeyRepository = signingKeyRepository;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.publishAheadMillis = publishAheadMillis;
+        this.cipher = new SigningKeyCipher(decodeKeyEncryptionKey(keyEncryptionKey));
+    }
+
+    @PostConstruct
+    void init(){
+        rotateIfDue();
+        if (activeKey == null){
+            throw new IllegalStateException("The active JWT signing key is encrypted under another key-encryption key, "
+                    + "check JWT_KEY_ENCRYPTION_KEY");
+        }
+    }
+
+    /**
+     * 
+     * @return kid and private key new tokens are signed with
+     */
+    public ActiveKey getActiveKey(){
+        return activeKey;
+    }
+
+    /**
+     * 
+     * @param kid
+     * @return verification key, or null if the kid is unknown / retired
+     */
+    public PublicKey getVerificationKey(String kid){
+        return verificationKeys.get(kid);
+    }
+
+    /**
+     * 
+     * @return public keys as JWK objects, including the next key before it signs
+     */
+    public List<Map<String, Object>> getJwks(){
+        return jwks;
+    }
+
+    /**
+     * publish the next signing key once the active one is due for rotation, drop retired keys,
+     * then load the keys (and switch to a key whose activation time has come)
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.signing.check-ms:60000}")
+    public synchronized void rotateIfDue(){
+        List<SigningKey> keys = findAllByActivation();
+        long now = System.currentTimeMillis();
+
+        SigningKey active = null;
+        boolean pending = false;
+        for (int i = 0; i < keys.size(); i++){
+            SigningKey key = keys.get(i);
+            if (isRetired(keys, i, now)){
+                signingKeyRepository.deleteById(key.getKid());
+                continue;
+            }
+            if (!SigningKeyCipher.isWrapped(key.getPrivateKey())){
+                encryptStoredKey(key);
+            }
+            if (activatesAt(key) <= now){
+                active = key;
+            } else {
+                pending = true;
+            }
+        }
+
+        if (active == null){
+            // nothing has signed yet, so no verifier can be holding a key set without this one
+            SigningKey created = generateKey(now, now);
+            signingKeyRepository.save(created);
+            logger.info("Created JWT signing key {}", created.getKid());
+        } else if (!pending && activatesAt(active) + rotationIntervalMillis - publishAheadMillis <= now){
+            SigningKey created = generateKey(now, Math.max(now + publishAheadMillis, activatesAt(active) + rotationIntervalMillis));
+            signingKeyRepository.save(created);
+            logger.info("Published next JWT signing key {}, signing from {}", created.getKid(), created.getActivatesAt());
+        }
+        reloadKeys();
+    }
+
+    /**
+     * read only: verification keys, JWK set and the key to sign with
+     */
+    private synchronized void reloadKeys(){
+        List<SigningKey> keys = findAllByActivation();
+        long now = System.currentTimeMillis();
+
+        SigningKey signing = null;
+        Map<String, PublicKey> loaded = new LinkedHashMap<>();
+        List<Map<String, Object>> published = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++){
+            SigningKey key = keys.get(i);
+            if (isRetired(keys, i, now)){
+                continue;
+            }
+            PublicKey publicKey = verificationKeys.get(key.getKid());
+            if (publicKey == null){
+                publicKey = decodePublicKey(key.getPublicKey());
+            }
+            loaded.put(key.getKid(), publicKey);
+            published.add(toJwk(key.getKid(), (ECPublicKey) publicKey));
+            if (activatesAt(key) <= now){
+                signing = key;
+            }
+        }
+        verificationKeys.keySet().retainAll(loaded.keySet());
+        verificationKeys.putAll(loaded);
+        jwks = Collections.unmodifiableList(published);
+
+        ActiveKey current = activeKey;
+        if (signing != null && (current == null || !current.getKid().equals(signing.getKid()))){
+            byte[] privateKey = cipher.unwrap(signing.getKid(), signing.getPrivateKey());
+            if (privateKey == null){
+                logger.error("JWT signing key {} is encrypted under another key-encryption key, {}", signing.getKid(),
+                        current == null ? "this node cannot sign" : "still signing with " + current.getKid());
+            } else {
+                activeKey = new ActiveKey(signing.getKid(), decodePrivateKey(privateKey));
+                logger.info("Signing JWTs with key {}", signing.getKid());
+            }
+        }
+    }
+
+    private List<SigningKey> findAllByActivation(){
+        List<SigningKey> keys = new ArrayList<>(signingKeyRepository.findAllOrderByCreatedAt());
+        keys.sort(Comparator.comparingLong(SigningKeyService::activatesAt));
+        return keys;
+    }
+
+    // a superseded key stopped signing when its successor activated, its tokens expire one lifetime later
+    private boolean isRetired(List<SigningKey> keys, int index, long now){
+        return index < keys.size() - 1 && activatesAt(keys.get(index + 1)) + tokenLifetimeMillis < now;
+    }
+
+    // keys stored before activation times were recorded signed from their creation
+    private static long activatesAt(SigningKey key){
+        return key.getActivatesAt() != null ? key.getActivatesAt() : key.getCreatedAt();
+    }
+
+    // stored before private keys were encrypted
+    private void encryptStoredKey(SigningKey key){
+        key.setPrivateKey(cipher.wrap(key.getKid(), Base64.getDecoder().decode(key.getPrivateKey())));
+        signingKeyRepository.save(key);
+        logger.info("Encrypted stored JWT signing key {}", key.getKid());
+    }
+
+    private static byte[] decodeKeyEncryptionKey(String encoded){
+        if (!StringUtils.hasText(encoded)){
+            // a random per-process key would strand every key this node stores
+            throw new IllegalStateException("No JWT key-encryption key configured (JWT_KEY_ENCRYPTION_KEY)");
+        }
+        try {
+            return Base64.getDecoder().decode(encoded.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("JWT key-encryption key is not valid base64", e);
+        }
+    }
+
+    private SigningKey generateKey(long now, long activatesAt){
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            KeyPair pair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            return new SigningKey(kid, ALGORITHM,
+                    Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+                    cipher.wrap(kid, pair.getPrivate().getEncoded()),
+                    now, activatesAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate EC signing key", e);
+        }
+    }
+
+    private static PublicKey decodePublicKey(String encoded){
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored public key is not a valid EC key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(byte[] encoded){
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored private key is not a valid EC key", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey){
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("kid", kid);
+        jwk.put("x", encoder.encodeToString(toUnsigned(publicKey.getW().getAffineX(), 32)));
+        jwk.put("y", encoder.encodeToString(toUnsigned(publicKey.getW().getAffineY(), 32)));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    // fixed length big endian, without the sign byte BigInteger may add
+    private static byte[] toUnsigned(BigInteger value, int length){
+        byte[] bytes = value.toByteArray();
+        byte[] result = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, result, length - copy, copy);
+        return result;
+    }
+
+
+    /**
+     * key currently used for signing
+     */
+    public static final class ActiveKey {
+        private final String kid;
+        private final PrivateKey privateKey;
+
+        private ActiveKey(String kid, PrivateKey privateKey){
+            this.kid = kid;
+            this.privateKey = privateKey;
+        }
+
+        public String getKid(){
+            return kid;
+        }
+
+        public PrivateKey getPrivateKey(){
+            return privateKey;
+        }
+    }
+}
@@ -1,27 +1,124 @@
 package com.ddjproj.revature.service.auth;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.ddjproj.revature.domain.entity.RevokedToken;
+import com.ddjproj.revature.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
 
 /**
  * For handling system log out, etc. 
- * TODO: finish documentation + tests
+ * Revocations are persisted in the revoked_token table so every node (and every restart) sees them.
+ * Each node pulls new rows incrementally (revocation id as cursor) into an in-memory map, and every
+ * check is answered from that map alone, the request path never reaches the database. A revocation
+ * made through another node is therefore honored here after at most one refresh interval.
+ *
+ * Locally known revocations are grouped into expiry buckets and a bucket is dropped as a whole once
+ * every token in it has expired, a revoked token never needs to be remembered longer than it could
+ * have been used. Reads and writes are lock free.
  */
 @Service
 public class TokenBlacklistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final JwtService jwtService;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // token digest -> expiration (epoch millis), revocations confirmed on this node
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // bucket index (expiration / bucketWidth) -> digests expiring in that bucket
+    private final ConcurrentSkipListMap<Long, Queue<String>> expiryBuckets = new ConcurrentSkipListMap<>();
+
+    private final long bucketWidthMillis;
+    private final long refreshGraceMillis;
+
+    // rows up to this id were committed long enough ago that no earlier id can still appear
+    private volatile long refreshCursor = 0L;
 
-    private final Set<String> blackListedTokens = new HashSet<>();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+
+    public TokenBlacklistService(JwtService jwtService, RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry,
+                                 @Value("${security.jwt.revocation.bucket-width-ms:60000}") long bucketWidthMillis,
+                                 @Value("${security.jwt.revocation.refresh-grace-ms:30000}") long refreshGraceMillis){
+        this.jwtService = jwtService;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bucketWidthMillis = bucketWidthMillis;
+        this.refreshGraceMillis = refreshGraceMillis;
+
+        Gauge.builder("auth.revoked.tokens.size", revokedTokens, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.revoked.tokens.evicted", evictedCount, AtomicLong::get)
+                .description("Revoked tokens dropped after their expiration")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadRevocations(){
+        refreshRevocations();
+    }
 
     /**
+     * revoke a token until its own expiration
      * 
      * @param token
      */
     public void blacklistToken(String token){
-        blackListedTokens.add(token);
+        Date expiration;
+        try {
+            expiration = jwtService.extractExpiration(token);
+        } catch (JwtException e) {
+            // expired or invalid tokens are already rejected by the filter
+            logger.debug("Skipping revocation of unusable token: {}", e.getMessage());
+            return;
+        }
+        revoke(TokenDigest.of(token), expiration.getTime());
+    }
+
+    /**
+     * record the revocation locally and in the shared table
+     * 
+     * @param digest token digest from {@link TokenDigest#of(String)}
+     * @param expiresAt token expiration, epoch millis
+     */
+    public void revoke(String digest, long expiresAt){
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now){
+            return;
+        }
+        if (!remember(digest, expiresAt)){
+            return;
+        }
+        try {
+            revokedTokenRepository.save(new RevokedToken(digest, expiresAt, now));
+        } catch (DataIntegrityViolationException e) {
+            // already revoked through another node
+            logger.debug("Token digest already present in revocation table");
+        }
     }
 
     /**
@@ -30,6 +127,97 @@ public class TokenBlacklistService {
      * @return
      */
     public boolean isTokenBlackListed(String token){
-        return blackListedTokens.contains(token);
+        return isDigestBlackListed(TokenDigest.of(token));
+    }
+
+    /**
+     * 
+     * @param digest token digest from {@link TokenDigest#of(String)}
+     * @return true while the revoked token has not expired
+     */
+    public boolean isDigestBlackListed(String digest){
+        Long expiresAt = revokedTokens.get(digest);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * pull revocations recorded by other nodes since the last refresh.
+     * rows newer than the grace period are read again on the next refresh, an insert with a lower id
+     * that committed late is therefore still picked up.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-ms:5000}")
+    public void refreshRevocations(){
+        long now = System.currentTimeMillis();
+        long cursor = refreshCursor;
+        long safeCursor = cursor;
+        boolean settled = true;
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findByRevocationIdGreaterThan(cursor, REFRESH_BATCH_SIZE);
+            for (RevokedToken row : batch){
+                if (row.getExpiresAt() > now){
+                    remember(row.getTokenDigest(), row.getExpiresAt());
+                }
+                cursor = row.getRevocationId();
+                settled = settled && row.getRevokedAt() <= now - refreshGraceMillis;
+                if (settled){
+                    safeCursor = cursor;
+                }
+            }
+        } while (batch.size() == REFRESH_BATCH_SIZE);
+        refreshCursor = safeCursor;
+    }
+
+    /**
+     * drop every bucket whose tokens have all expired and purge expired rows from the shared table
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.bucket-width-ms:60000}")
+    public void evictExpired(){
+        long currentBucket = System.currentTimeMillis() / bucketWidthMillis;
+        Iterator<Map.Entry<Long, Queue<String>>> buckets = expiryBuckets.headMap(currentBucket).entrySet().iterator();
+        long evicted = 0;
+        while (buckets.hasNext()){
+            Queue<String> digests = buckets.next().getValue();
+            buckets.remove();
+            for (String digest : digests){
+                if (revokedTokens.remove(digest) != null){
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0){
+            evictedCount.addAndGet(evicted);
+            logger.debug("Evicted {} expired revoked tokens, {} remaining", evicted, revokedTokens.size());
+        }
+        revokedTokenRepository.deleteByExpiresAtBefore(System.currentTimeMillis());
+    }
+
+    /**
+     * 
+     * @return number of revoked tokens currently held
+     */
+    public int size(){
+        return revokedTokens.size();
+    }
+
+    /**
+     * 
+     * @return total number of revoked tokens evicted after expiring
+     */
+    public long getEvictedCount(){
+        return evictedCount.get();
+    }
+
+    /**
+     * 
+     * @return false if the digest was already known
+     */
+    private boolean remember(String digest, long expiresAt){
+        if (revokedTokens.putIfAbsent(digest, expiresAt) != null){
+            return false;
+        }
+        expiryBuckets.computeIfAbsent(expiresAt / bucketWidthMillis, bucket -> new ConcurrentLinkedQueue<>())
+                .add(digest);
+        return true;
     }
 }
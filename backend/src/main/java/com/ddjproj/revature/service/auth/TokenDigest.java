@@ -0,0 +1,34 @@
+package com.ddjproj.revature.service.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+
+/**
+ * Fixed size fingerprint of a raw JWT string.
+ * Used as the key for token caches so the full token never has to be stored or compared.
+ */
+public final class TokenDigest {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenDigest(){
+    }
+
+    /**
+     * 
+     * @param token raw compact JWT
+     * @return base64url encoded SHA-256 digest of the token (43 chars)
+     */
+    public static String of(String token){
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to ship SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ddjproj.revature.service.auth;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+
+
+/**
+ * Bounded cache of claims for tokens that already passed signature verification.
+ * Keyed by the token digest, every entry is dropped no later than the token's own exp claim
+ * so an expired token always falls through to a full parse (which rejects it).
+ * The same entry is read by every request carrying the token, so claims are cached as a read only
+ * copy. When full, expired entries go first, then the ones expiring soonest.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-entries:10000}") int maxEntries){
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 
+     * @param digest token digest from {@link TokenDigest#of(String)}
+     * @return read only verified claims, or null if not cached / past expiry
+     */
+    public Claims get(String digest){
+        Entry entry = entries.get(digest);
+        if (entry == null){
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()){
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    /**
+     * store claims of a verified token until its expiration
+     * 
+     * @param digest token digest
+     * @param claims verified claims, must carry an exp claim to be cached
+     * @return read only copy of the claims, the one that is cached
+     */
+    public Claims put(String digest, Claims claims){
+        Claims snapshot = ReadOnlyClaims.of(claims);
+        if (maxEntries <= 0 || snapshot.getExpiration() == null){
+            return snapshot;
+        }
+        long expiresAt = snapshot.getExpiration().getTime();
+        if (entries.size() >= maxEntries){
+            makeRoom();
+        }
+        entries.put(digest, new Entry(snapshot, expiresAt));
+        return snapshot;
+    }
+
+    public int size(){
+        return entries.size();
+    }
+
+    /**
+     * drop expired entries first, then the ones expiring soonest (they would be dropped next
+     * anyway), down to 90% so that a full cache does not scan on every put
+     */
+    private synchronized void makeRoom(){
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        if (entries.size() > target){
+            List<Map.Entry<String, Entry>> cached = new ArrayList<>(entries.entrySet());
+            cached.sort(Comparator.comparingLong(candidate -> candidate.getValue().expiresAt));
+            for (int i = 0; i < cached.size() && entries.size() > target; i++){
+                entries.remove(cached.get(i).getKey(), cached.get(i).getValue());
+            }
+        }
+    }
+
+
+    private static final class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private Entry(Claims claims, long expiresAt){
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
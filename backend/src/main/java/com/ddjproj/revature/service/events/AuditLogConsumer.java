@@ -0,0 +1,35 @@
+package com.ddjproj.revature.service.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes every lifecycle event to the audit logger, off the request thread.
+ * Spills to its overflow queue rather than losing entries when it falls a full ring behind,
+ * entries are only lost once that queue is full too (domain-events.overflow-capacity).
+ */
+@Component
+public class AuditLogConsumer implements DomainEventConsumer {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    @Override
+    public String getName() {
+        return "audit-log";
+    }
+
+    @Override
+    public Backpressure getBackpressure() {
+        return Backpressure.SPILL;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            audit.info("{} at {}", event, event.getOccurredAt());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ddjproj.revature.service.events;
+
+/**
+ * Base of the reimbursement / account lifecycle events published on the {@link DomainEventBus}.
+ * Events are immutable and only published once the transaction that caused them has committed.
+ */
+public abstract class DomainEvent {
+
+    private final long occurredAt = System.currentTimeMillis();
+
+    /**
+     * @return epoch millis at which the event was created
+     */
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,284 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.service.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process asynchronous bus for {@link DomainEvent}s.
+ * Events are appended after commit to one bounded ring buffer; every consumer runs on its own
+ * thread with its own read position, takes whatever has been published since in batches, and
+ * never slows the request that published: appending never waits. A consumer a full ring behind
+ * either keeps the events about to be overwritten in its own bounded overflow queue (SPILL, the
+ * overflow is exported and logged) or loses them (DROP, counted). A SPILL consumer whose overflow
+ * queue is full loses further overwritten events like a DROP consumer, so a stuck consumer costs
+ * at most one overflow queue of memory.
+ */
+@Component
+public class DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final DomainEvent[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final int overflowCapacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    // sequence of the next event to publish, guarded by lock
+    private long next;
+    private volatile boolean running = true;
+
+    private final List<ConsumerWorker> workers;
+
+    public DomainEventBus(ObjectProvider<DomainEventConsumer> consumers,
+                          MeterRegistry meterRegistry,
+                          @Value("${domain-events.capacity:4096}") int capacity,
+                          @Value("${domain-events.batch-size:256}") int batchSize,
+                          @Value("${domain-events.overflow-capacity:65536}") int overflowCapacity) {
+        // power of two, so a sequence maps to its slot with a mask
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new DomainEvent[size];
+        this.mask = size - 1;
+        this.batchSize = Math.max(1, batchSize);
+        this.overflowCapacity = Math.max(0, overflowCapacity);
+
+        this.workers = consumers.orderedStream()
+                .map(consumer -> new ConsumerWorker(consumer, meterRegistry))
+                .collect(Collectors.toList());
+    }
+
+    @PostConstruct
+    void start() {
+        for (ConsumerWorker worker : workers) {
+            worker.thread.start();
+        }
+        logger.info("Domain event bus started with {} consumers, ring size {}", workers.size(), ring.length);
+    }
+
+    /**
+     * let every consumer finish what was published, then stop
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (ConsumerWorker worker : workers) {
+            worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            if (worker.thread.isAlive()) {
+                worker.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * publish once the current transaction commits, nothing is published on rollback
+     *
+     * @param event
+     */
+    public void publish(DomainEvent event) {
+        TransactionCallbacks.afterCommit(() -> append(event));
+    }
+
+    private void append(DomainEvent event) {
+        if (workers.isEmpty() || !running) {
+            return;
+        }
+        lock.lock();
+        try {
+            int slot = (int) (next & mask);
+            // the slot still holds the event published a full ring ago
+            for (ConsumerWorker worker : workers) {
+                if (worker.spills && next - worker.position >= ring.length) {
+                    spill(worker, ring[slot]);
+                }
+            }
+            ring[slot] = event;
+            next++;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds the lock. the overwritten event is the oldest one the worker has not read
+    private void spill(ConsumerWorker worker, DomainEvent event) {
+        worker.position++;
+        if (worker.overflow.size() >= overflowCapacity) {
+            // the queued events stay, the newer overwritten ones are lost
+            if (!worker.overflowFull) {
+                worker.overflowFull = true;
+                logger.error("Domain event consumer {} has a full overflow queue ({} events), dropping events until it catches up",
+                        worker.consumer.getName(), worker.overflow.size());
+            }
+            worker.dropped.increment();
+            return;
+        }
+        if (worker.overflow.isEmpty()) {
+            logger.warn("Domain event consumer {} is a full ring behind, queueing its overflow",
+                    worker.consumer.getName());
+        } else if (Integer.bitCount(worker.overflow.size()) == 1 && worker.overflow.size() >= ring.length) {
+            // every doubling past a ring
+            logger.warn("Domain event consumer {} has {} events in its overflow queue",
+                    worker.consumer.getName(), worker.overflow.size());
+        }
+        worker.overflow.addLast(event);
+        worker.spilled.increment();
+    }
+
+    /**
+     * wait for events after the worker's position and copy up to one batch of them,
+     * spilled events first since they are older than anything left in the ring
+     *
+     * @return empty once the bus has stopped and the worker has caught up
+     */
+    private List<DomainEvent> take(ConsumerWorker worker) throws InterruptedException {
+        lock.lock();
+        try {
+            while (worker.overflow.isEmpty() && worker.position == next) {
+                if (!running) {
+                    return List.of();
+                }
+                published.await();
+            }
+            if (!worker.overflow.isEmpty()) {
+                int count = Math.min(batchSize, worker.overflow.size());
+                List<DomainEvent> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    batch.add(worker.overflow.pollFirst());
+                }
+                if (worker.overflow.isEmpty()) {
+                    worker.overflowFull = false;
+                }
+                return batch;
+            }
+            // overwritten while this consumer was behind
+            long oldest = next - ring.length;
+            if (worker.position < oldest) {
+                worker.dropped.increment(oldest - worker.position);
+                worker.position = oldest;
+            }
+
+            int count = (int) Math.min(batchSize, next - worker.position);
+            List<DomainEvent> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(ring[(int) ((worker.position + i) & mask)]);
+            }
+            worker.position += count;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long lag(ConsumerWorker worker) {
+        lock.lock();
+        try {
+            return worker.overflow.size() + next - worker.position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int overflowSize(ConsumerWorker worker) {
+        lock.lock();
+        try {
+            return worker.overflow.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * one consumer, its thread, read position and metrics
+     */
+    private final class ConsumerWorker {
+        private final DomainEventConsumer consumer;
+        private final boolean spills;
+        private final Thread thread;
+        private final Counter delivered;
+        private final Counter dropped;
+        private final Counter spilled;
+        private final Counter failed;
+        // guarded by lock
+        private long position;
+        private final ArrayDeque<DomainEvent> overflow = new ArrayDeque<>();
+        // dropping since the overflow queue filled up, reported once until it drains
+        private boolean overflowFull;
+
+        private ConsumerWorker(DomainEventConsumer consumer, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.spills = consumer.getBackpressure() == DomainEventConsumer.Backpressure.SPILL;
+            this.thread = new Thread(this::run, "domain-events-" + consumer.getName());
+            this.thread.setDaemon(true);
+
+            this.delivered = Counter.builder("domain_events.delivered")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+            this.dropped = Counter.builder("domain_events.dropped")
+                    .tag("consumer", consumer.getName())
+                    .description("Events overwritten before the consumer read them, for SPILL consumers once the overflow queue is full")
+                    .register(meterRegistry);
+            this.spilled = Counter.builder("domain_events.spilled")
+                    .tag("consumer", consumer.getName())
+                    .description("Events moved to the consumer's overflow queue before being overwritten")
+                    .register(meterRegistry);
+            this.failed = Counter.builder("domain_events.failed_batches")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+            Gauge.builder("domain_events.lag", this, worker -> lag(worker))
+                    .tag("consumer", consumer.getName())
+                    .description("Events published but not yet taken by the consumer")
+                    .register(meterRegistry);
+            Gauge.builder("domain_events.overflow", this, worker -> overflowSize(worker))
+                    .tag("consumer", consumer.getName())
+                    .description("Events waiting in the consumer's overflow queue")
+                    .register(meterRegistry);
+        }
+
+        private void run() {
+            while (true) {
+                List<DomainEvent> batch;
+                try {
+                    batch = take(this);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    consumer.onEvents(batch);
+                    delivered.increment(batch.size());
+                } catch (Exception e) {
+                    failed.increment();
+                    logger.error("Domain event consumer {} failed on a batch of {} events",
+                            consumer.getName(), batch.size(), e);
+                }
+            }
+        }
+    }
+}
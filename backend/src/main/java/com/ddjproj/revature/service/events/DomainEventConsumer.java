@@ -0,0 +1,38 @@
+package com.ddjproj.revature.service.events;
+
+import java.util.List;
+
+/**
+ * Side effect of domain events, run on its own thread by the {@link DomainEventBus}.
+ * Register as a Spring bean to be picked up.
+ */
+public interface DomainEventConsumer {
+
+    /**
+     * what the bus does when this consumer is a full ring behind. publishers never wait either way
+     */
+    enum Backpressure {
+        // events about to be overwritten are moved to an overflow queue of the consumer, nothing is
+        // lost until that queue is full, after that overwritten events are dropped and counted.
+        // the overflow size is exported and logged while it grows
+        SPILL,
+        // the consumer skips the events that were overwritten
+        DROP
+    }
+
+    /**
+     * @return name used for the thread and the metrics tags
+     */
+    String getName();
+
+    default Backpressure getBackpressure() {
+        return Backpressure.DROP;
+    }
+
+    /**
+     * handle events in publish order. exceptions are logged and counted, the batch is not retried
+     *
+     * @param events one or more events, at most the bus batch size
+     */
+    void onEvents(List<DomainEvent> events) throws Exception;
+}
@@ -0,0 +1,48 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.service.ReimbursementEventStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Closes the open reimbursement event streams of users whose role changed or whose account was
+ * removed, so a stream never outlives the permissions it was opened with. Changes made through
+ * other nodes are caught by the stream's own heartbeat check.
+ */
+@Component
+public class EventStreamAccessConsumer implements DomainEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamAccessConsumer.class);
+
+    private final ReimbursementEventStream reimbursementEventStream;
+
+    public EventStreamAccessConsumer(ReimbursementEventStream reimbursementEventStream) {
+        this.reimbursementEventStream = reimbursementEventStream;
+    }
+
+    @Override
+    public String getName() {
+        return "event-stream-access";
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            Long userId = null;
+            if (event instanceof UserRoleChanged) {
+                userId = ((UserRoleChanged) event).getUserId();
+            } else if (event instanceof UserDeleted) {
+                userId = ((UserDeleted) event).getUserId();
+            }
+            if (userId != null) {
+                int closed = reimbursementEventStream.closeForUser(userId);
+                if (closed > 0) {
+                    logger.info("Closed {} event streams of user {} after {}", closed, userId, event);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+
+public final class ReimbursementCreated extends ReimbursementEvent {
+
+    private final ReimbursementType type;
+    private final Long amount;
+
+    public ReimbursementCreated(Long reimbursementId, Long userId, ReimbursementType type, Long amount) {
+        super(reimbursementId, userId);
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public ReimbursementType getType() {
+        return type;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "ReimbursementCreated{id=" + getReimbursementId() + ", userId=" + getUserId()
+                + ", type=" + type + ", amount=" + amount + "}";
+    }
+}
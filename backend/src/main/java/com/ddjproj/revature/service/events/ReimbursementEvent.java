@@ -0,0 +1,26 @@
+package com.ddjproj.revature.service.events;
+
+/**
+ * common fields of the reimbursement events
+ */
+public abstract class ReimbursementEvent extends DomainEvent {
+
+    private final Long reimbursementId;
+    private final Long userId;
+
+    protected ReimbursementEvent(Long reimbursementId, Long userId) {
+        this.reimbursementId = reimbursementId;
+        this.userId = userId;
+    }
+
+    public Long getReimbursementId() {
+        return reimbursementId;
+    }
+
+    /**
+     * @return owner of the reimbursement
+     */
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+
+public final class ReimbursementResolved extends ReimbursementEvent {
+
+    private final Long resolverId;
+    private final ReimbursementStatus status;
+
+    public ReimbursementResolved(Long reimbursementId, Long userId, Long resolverId, ReimbursementStatus status) {
+        super(reimbursementId, userId);
+        this.resolverId = resolverId;
+        this.status = status;
+    }
+
+    public Long getResolverId() {
+        return resolverId;
+    }
+
+    public ReimbursementStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "ReimbursementResolved{id=" + getReimbursementId() + ", userId=" + getUserId()
+                + ", resolverId=" + resolverId + ", status=" + status + "}";
+    }
+}
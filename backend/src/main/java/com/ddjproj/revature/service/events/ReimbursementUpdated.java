@@ -0,0 +1,35 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+
+public final class ReimbursementUpdated extends ReimbursementEvent {
+
+    private final Long editorId;
+    private final ReimbursementType type;
+    private final Long amount;
+
+    public ReimbursementUpdated(Long reimbursementId, Long userId, Long editorId, ReimbursementType type, Long amount) {
+        super(reimbursementId, userId);
+        this.editorId = editorId;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public Long getEditorId() {
+        return editorId;
+    }
+
+    public ReimbursementType getType() {
+        return type;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "ReimbursementUpdated{id=" + getReimbursementId() + ", userId=" + getUserId()
+                + ", editorId=" + editorId + ", type=" + type + ", amount=" + amount + "}";
+    }
+}
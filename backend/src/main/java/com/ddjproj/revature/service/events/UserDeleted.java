@@ -0,0 +1,19 @@
+package com.ddjproj.revature.service.events;
+
+public final class UserDeleted extends DomainEvent {
+
+    private final Long userId;
+
+    public UserDeleted(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDeleted{userId=" + userId + "}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.ddjproj.revature.service.events;
+
+import com.ddjproj.revature.domain.enums.Roles;
+
+public final class UserRoleChanged extends DomainEvent {
+
+    private final Long userId;
+    private final Roles previousRole;
+    private final Roles newRole;
+
+    public UserRoleChanged(Long userId, Roles previousRole, Roles newRole) {
+        this.userId = userId;
+        this.previousRole = previousRole;
+        this.newRole = newRole;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Roles getPreviousRole() {
+        return previousRole;
+    }
+
+    public Roles getNewRole() {
+        return newRole;
+    }
+
+    @Override
+    public String toString() {
+        return "UserRoleChanged{userId=" + userId + ", previousRole=" + previousRole + ", newRole=" + newRole + "}";
+    }
+}
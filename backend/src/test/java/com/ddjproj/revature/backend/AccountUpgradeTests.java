@@ -0,0 +1,73 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.account.AccountUpgradeRequestDTO;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.accounts.UserAccountService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+
+/**
+ * RESTRICTED users upgrading themselves, and only themselves
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account-upgrade;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class AccountUpgradeTests {
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void upgradesTheCaller() throws Exception {
+        UserAccount caller = restrictedUser("upgrading-self@example.com");
+        signIn(caller);
+
+        userAccountService.processUpgradeRequest(new AccountUpgradeRequestDTO(caller.getUserAccountId()));
+
+        assertEquals(Roles.EMPLOYEE, userAccountRepository.findByIdWithCredentials(caller.getUserAccountId()).orElseThrow().getRole());
+    }
+
+    @Test
+    void rejectsAnotherUsersId() {
+        UserAccount caller = restrictedUser("upgrading-other@example.com");
+        UserAccount target = restrictedUser("upgrade-target@example.com");
+        signIn(caller);
+
+        assertThrows(UnauthorizedException.class, () ->
+                userAccountService.processUpgradeRequest(new AccountUpgradeRequestDTO(target.getUserAccountId())));
+        UserAccount stored = userAccountRepository.findByIdWithCredentials(target.getUserAccountId()).orElseThrow();
+        assertEquals(Roles.RESTRICTED, stored.getRole());
+        assertEquals(0L, stored.getPermissionVersion());
+    }
+
+    private UserAccount restrictedUser(String email) {
+        return userAccountRepository.save(new UserAccount(email, "hash"));
+    }
+
+    private static void signIn(UserAccount account) {
+        JwtPrincipal principal = new JwtPrincipal(account.getUserAccountId(), account.getEmail(), account.getRole());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
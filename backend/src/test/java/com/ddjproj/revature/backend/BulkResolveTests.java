@@ -0,0 +1,158 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveOutcome;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.BulkResolveResultDTO;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.exception.validation.ValidationException;
+import com.ddjproj.revature.repository.JpaReimbursementRepository;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+
+/**
+ * bulk resolve reports one outcome per requested id, in request order
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-resolve;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class BulkResolveTests {
+
+    @Autowired
+    private ReimbursementService reimbursementService;
+
+    @Autowired
+    private JpaReimbursementRepository reimbursementRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reportsEachIdInRequestOrder() throws Exception {
+        Long pending = reimbursement(ReimbursementStatus.PENDING);
+        Long approved = reimbursement(ReimbursementStatus.APPROVED);
+        Long otherPending = reimbursement(ReimbursementStatus.PENDING);
+        Long missing = -1L;
+        signIn(Roles.MANAGER);
+
+        BulkResolveResultDTO result = reimbursementService.bulkResolveReimbursements(
+                bulk(ReimbursementStatus.DENIED, otherPending, missing, approved, pending, otherPending));
+
+        assertEquals(2, result.getResolved());
+        // duplicates reported once, at their first position
+        assertEquals(List.of(otherPending, missing, approved, pending), new ArrayList<>(result.getOutcomes().keySet()));
+        assertEquals(Map.of(
+                otherPending, BulkResolveOutcome.RESOLVED,
+                missing, BulkResolveOutcome.NOT_FOUND,
+                approved, BulkResolveOutcome.ALREADY_RESOLVED,
+                pending, BulkResolveOutcome.RESOLVED), result.getOutcomes());
+
+        assertStored(pending, ReimbursementStatus.DENIED, 1L);
+        assertStored(otherPending, ReimbursementStatus.DENIED, 1L);
+        // untouched
+        assertStored(approved, ReimbursementStatus.APPROVED, 0L);
+    }
+
+    @Test
+    void secondBatchSeesTheFirstOnesAsAlreadyResolved() throws Exception {
+        Long id = reimbursement(ReimbursementStatus.PENDING);
+        signIn(Roles.MANAGER);
+        reimbursementService.bulkResolveReimbursements(bulk(ReimbursementStatus.APPROVED, id));
+
+        BulkResolveResultDTO again = reimbursementService.bulkResolveReimbursements(bulk(ReimbursementStatus.DENIED, id));
+
+        assertEquals(0, again.getResolved());
+        assertEquals(Map.of(id, BulkResolveOutcome.ALREADY_RESOLVED), again.getOutcomes());
+        assertStored(id, ReimbursementStatus.APPROVED, 1L);
+    }
+
+    @Test
+    void outcomesSpanEveryChunk() throws Exception {
+        // ids are locked and updated 1000 at a time
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 1500; i++) {
+            ids.add(-i);
+        }
+        Long first = reimbursement(ReimbursementStatus.PENDING);
+        Long last = reimbursement(ReimbursementStatus.PENDING);
+        ids.add(0, first);
+        ids.add(last);
+        signIn(Roles.MANAGER);
+
+        BulkResolveResultDTO result = reimbursementService.bulkResolveReimbursements(
+                BulkResolveReimbursementDTO.builder().ids(ids).status(ReimbursementStatus.APPROVED).build());
+
+        assertEquals(2, result.getResolved());
+        assertEquals(ids, new ArrayList<>(result.getOutcomes().keySet()));
+        assertEquals(BulkResolveOutcome.RESOLVED, result.getOutcomes().get(first));
+        assertEquals(BulkResolveOutcome.RESOLVED, result.getOutcomes().get(last));
+        assertEquals(BulkResolveOutcome.NOT_FOUND, result.getOutcomes().get(-1000L));
+        assertStored(last, ReimbursementStatus.APPROVED, 1L);
+    }
+
+    @Test
+    void onlyFinalStatusesAreAccepted() {
+        Long id = reimbursement(ReimbursementStatus.PENDING);
+        signIn(Roles.MANAGER);
+
+        assertThrows(ValidationException.class, () ->
+                reimbursementService.bulkResolveReimbursements(bulk(ReimbursementStatus.PENDING, id)));
+        assertStored(id, ReimbursementStatus.PENDING, 0L);
+    }
+
+    @Test
+    void onlyManagersMayResolve() {
+        Long id = reimbursement(ReimbursementStatus.PENDING);
+        signIn(Roles.EMPLOYEE);
+
+        assertThrows(UnauthorizedException.class, () ->
+                reimbursementService.bulkResolveReimbursements(bulk(ReimbursementStatus.APPROVED, id)));
+        assertStored(id, ReimbursementStatus.PENDING, 0L);
+    }
+
+    private Long reimbursement(ReimbursementStatus status) {
+        Reimbursement reimbursement = new Reimbursement();
+        reimbursement.setUserId(1L);
+        reimbursement.setAmount(4200L);
+        reimbursement.setDescription("team offsite supplies");
+        reimbursement.setType(ReimbursementType.SUPPLIES);
+        reimbursement.setStatus(status);
+        return reimbursementRepository.save(reimbursement).getId();
+    }
+
+    private void assertStored(Long id, ReimbursementStatus status, long version) {
+        Reimbursement stored = reimbursementRepository.findById(id).orElseThrow();
+        assertEquals(status, stored.getStatus());
+        assertEquals(version, stored.getVersion());
+    }
+
+    private static BulkResolveReimbursementDTO bulk(ReimbursementStatus status, Long... ids) {
+        return BulkResolveReimbursementDTO.builder().ids(List.of(ids)).status(status).build();
+    }
+
+    private static void signIn(Roles role) {
+        JwtPrincipal principal = new JwtPrincipal(300L, "bulk-" + role.name().toLowerCase() + "@example.com", role);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, JwtPrincipal.authoritiesFor(role)));
+    }
+}
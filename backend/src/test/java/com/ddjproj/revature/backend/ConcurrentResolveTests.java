@@ -0,0 +1,211 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ResolveReimbursementDTO;
+import com.ddjproj.revature.exception.validation.ValidationException;
+import com.ddjproj.revature.repository.JpaReimbursementRepository;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+
+/**
+ * many managers resolving / editing the same reimbursement at once: exactly one resolve wins,
+ * edits are never lost and never applied to a resolved row
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent-resolve;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ConcurrentResolveTests {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ReimbursementService reimbursementService;
+
+    @Autowired
+    private JpaReimbursementRepository reimbursementRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exactlyOneConcurrentResolveWins() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = pendingReimbursement().getId();
+
+            List<Object> results = race(THREADS, thread -> {
+                ResolveReimbursementDTO dto = ResolveReimbursementDTO.builder()
+                        .status(thread % 2 == 0 ? ReimbursementStatus.APPROVED : ReimbursementStatus.DENIED)
+                        .build();
+                return reimbursementService.resolveReimbursement(id, dto).getStatus();
+            });
+
+            List<Object> winners = successes(results);
+            assertEquals(1, winners.size(), "round " + round + ": " + results);
+            assertLosersThrew(ValidationException.class, results);
+
+            Reimbursement stored = reimbursementRepository.findById(id).orElseThrow();
+            assertEquals(winners.get(0), stored.getStatus());
+            assertEquals(1L, stored.getVersion());
+        }
+    }
+
+    @Test
+    void concurrentEditsApplyOneAfterTheOther() throws Exception {
+        Long id = pendingReimbursement().getId();
+
+        List<Object> results = race(THREADS, thread -> {
+            CreateReimbursementDTO dto = CreateReimbursementDTO.builder()
+                    .description("edited by thread " + thread)
+                    .type(ReimbursementType.HOTEL)
+                    .amount(1000L + thread)
+                    .build();
+            return reimbursementService.updateReimbursement(id, dto).getDescription();
+        });
+
+        // every edit is one UPDATE of the pending row, none is lost and none is applied half
+        assertEquals(THREADS, successes(results).size(), results.toString());
+        Reimbursement stored = reimbursementRepository.findById(id).orElseThrow();
+        assertEquals(THREADS, stored.getVersion().intValue());
+        assertEquals("edited by thread " + (stored.getAmount() - 1000L), stored.getDescription());
+    }
+
+    @Test
+    void editLosesToAConcurrentResolve() throws Exception {
+        Long id = pendingReimbursement().getId();
+
+        List<Object> results = race(THREADS, thread -> {
+            if (thread % 2 == 0) {
+                ResolveReimbursementDTO dto = ResolveReimbursementDTO.builder().status(ReimbursementStatus.APPROVED).build();
+                return reimbursementService.resolveReimbursement(id, dto).getStatus();
+            }
+            CreateReimbursementDTO dto = CreateReimbursementDTO.builder()
+                    .description("edited by thread " + thread)
+                    .type(ReimbursementType.HOTEL)
+                    .amount(1000L + thread)
+                    .build();
+            return reimbursementService.updateReimbursement(id, dto).getDescription();
+        });
+
+        // edits only match the pending row, whatever ran after the resolve was rejected
+        assertLosersThrew(ValidationException.class, results);
+        Reimbursement stored = reimbursementRepository.findById(id).orElseThrow();
+        assertEquals(ReimbursementStatus.APPROVED, stored.getStatus());
+        assertEquals(successes(results).size(), stored.getVersion().intValue());
+    }
+
+    @Test
+    void resolvingBackToPendingIsRejectedBeforeTheUpdate() {
+        Long id = pendingReimbursement().getId();
+        signInAsManager(100L);
+        try {
+            ResolveReimbursementDTO dto = ResolveReimbursementDTO.builder().status(ReimbursementStatus.PENDING).build();
+            assertThrows(ValidationException.class, () -> reimbursementService.resolveReimbursement(id, dto));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        Reimbursement stored = reimbursementRepository.findById(id).orElseThrow();
+        assertEquals(ReimbursementStatus.PENDING, stored.getStatus());
+        assertEquals(0L, stored.getVersion());
+    }
+
+    private Reimbursement pendingReimbursement() {
+        Reimbursement reimbursement = new Reimbursement();
+        reimbursement.setUserId(1L);
+        reimbursement.setAmount(2500L);
+        reimbursement.setDescription("conference travel expenses");
+        reimbursement.setType(ReimbursementType.HOTEL);
+        return reimbursementRepository.save(reimbursement);
+    }
+
+    /**
+     * run the task on every thread at once, each as a signed in manager
+     *
+     * @return per thread result or thrown exception
+     */
+    private List<Object> race(int threads, ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                signInAsManager(100L + thread);
+                try {
+                    start.await();
+                    return task.run(thread);
+                } catch (Exception e) {
+                    return e;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static void signInAsManager(long id) {
+        JwtPrincipal manager = new JwtPrincipal(id, "manager" + id + "@example.com", Roles.MANAGER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(manager, null, JwtPrincipal.authoritiesFor(Roles.MANAGER)));
+    }
+
+    // a lost race is reported as a conflict, never as some other failure
+    private static void assertLosersThrew(Class<? extends Throwable> expected, List<Object> results) {
+        for (Object result : results) {
+            if (result instanceof Throwable) {
+                assertInstanceOf(expected, result, results.toString());
+            }
+        }
+    }
+
+    private static List<Object> successes(List<Object> results) {
+        List<Object> successes = new ArrayList<>();
+        for (Object result : results) {
+            if (!(result instanceof Throwable)) {
+                successes.add(result);
+            }
+        }
+        return successes;
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        Object run(int thread) throws Exception;
+    }
+}
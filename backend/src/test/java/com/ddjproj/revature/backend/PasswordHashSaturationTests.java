@@ -0,0 +1,171 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.ddjproj.revature.controller.auth.AuthenticationController;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.dto.auth.LoginAuthRequestDTO;
+import com.ddjproj.revature.dto.auth.LoginAuthResponseDTO;
+import com.ddjproj.revature.exception.security.TooManyRequestsException;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.auth.PasswordHashExecutor;
+
+/**
+ * a saturated password hash pool sheds logins with 429 + Retry-After, and recovers once drained
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-hash-saturation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "security.password.executor.threads=1",
+        "security.password.executor.queue-capacity=1",
+        "security.password.executor.retry-after-seconds=3"
+})
+class PasswordHashSaturationTests {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    // verifying this password blocks until the gate opens
+    private static final String HELD = "held until released";
+
+    private static volatile CountDownLatch entered;
+    private static volatile CountDownLatch gate;
+
+    @Autowired
+    private AuthenticationController authenticationController;
+
+    @Autowired
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void closeGate() {
+        entered = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void openGate() {
+        gate.countDown();
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws Exception {
+        String hash = passwordEncoder.encode(PASSWORD);
+        Thread running = hold(hash);
+        Thread queued = hold(hash);
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> passwordHashExecutor.matches(PASSWORD, hash));
+        assertEquals(3, e.getRetryAfterSeconds());
+
+        gate.countDown();
+        running.join(5000);
+        queued.join(5000);
+        assertTrue(passwordHashExecutor.matches(PASSWORD, hash));
+    }
+
+    @Test
+    void loginAnswers429WithRetryAfterWhileSaturated() throws Exception {
+        UserAccount account = userAccountRepository.save(new UserAccount("shed-login@example.com", passwordEncoder.encode(PASSWORD)));
+        Thread running = hold(account.getPasswordHash());
+        Thread queued = hold(account.getPasswordHash());
+
+        ResponseEntity<LoginAuthResponseDTO> shed = login(account.getEmail());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, shed.getStatusCode());
+        assertEquals("3", shed.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        gate.countDown();
+        running.join(5000);
+        queued.join(5000);
+        ResponseEntity<LoginAuthResponseDTO> accepted = login(account.getEmail());
+        assertEquals(HttpStatus.OK, accepted.getStatusCode());
+        assertEquals(account.getUserAccountId(), accepted.getBody().getUserId());
+    }
+
+    private ResponseEntity<LoginAuthResponseDTO> login(String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.5");
+        return authenticationController.login(new LoginAuthRequestDTO(email, PASSWORD), request);
+    }
+
+    /**
+     * verify the held password on a new thread, returning once its task is running (the first call)
+     * or queued (the second), so the pool is saturated after two calls
+     */
+    private Thread hold(String hash) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            try {
+                passwordHashExecutor.matches(HELD, hash);
+            } catch (TooManyRequestsException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        boolean first = entered.getCount() > 0;
+        thread.start();
+        if (first) {
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+        }
+        // parked on the result once submitted
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+        return thread;
+    }
+
+
+    @TestConfiguration
+    static class GatedEncoderConfig {
+
+        @Bean
+        @Primary
+        PasswordEncoder gatedPasswordEncoder() {
+            PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    return bcrypt.encode(rawPassword);
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    if (HELD.contentEquals(rawPassword)) {
+                        entered.countDown();
+                        try {
+                            gate.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return false;
+                    }
+                    return bcrypt.matches(rawPassword, encodedPassword);
+                }
+            };
+        }
+    }
+}
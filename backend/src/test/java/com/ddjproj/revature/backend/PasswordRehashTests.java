@@ -0,0 +1,103 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.auth.LoginAuthRequestDTO;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.ChangeCounters;
+import com.ddjproj.revature.service.accounts.UserAccountService;
+import com.ddjproj.revature.service.auth.AuthenticationService;
+
+/**
+ * legacy / under-cost hashes replaced on login, without touching any other column
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-rehash;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "security.password.min-strength=4",
+        "security.password.max-strength=4"
+})
+class PasswordRehashTests {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    @Test
+    void legacyHashIsReplacedOnLogin() throws Exception {
+        UserAccount account = legacyUser("legacy-hash@example.com");
+
+        authenticationService.authenticate(new LoginAuthRequestDTO(account.getEmail(), PASSWORD));
+
+        String stored = userAccountRepository.findByIdWithCredentials(account.getUserAccountId()).orElseThrow().getPasswordHash();
+        assertTrue(stored.startsWith("{bcrypt}"), stored);
+        assertTrue(passwordEncoder.matches(PASSWORD, stored));
+        assertFalse(passwordEncoder.upgradeEncoding(stored));
+    }
+
+    @Test
+    void rehashKeepsRoleChangedAfterTheAccountWasRead() throws Exception {
+        UserAccount account = legacyUser("demoted-during-login@example.com");
+        account.setRole(Roles.MANAGER);
+        account = userAccountRepository.save(account);
+        // what login holds while the hash is verified
+        UserAccount readForLogin = userAccountRepository.findByIdWithCredentials(account.getUserAccountId()).orElseThrow();
+
+        userAccountService.updateUserRole(account.getUserAccountId(), Roles.EMPLOYEE);
+        assertTrue(userAccountRepository.updatePasswordHash(readForLogin.getUserAccountId(),
+                readForLogin.getPasswordHash(), passwordEncoder.encode(PASSWORD)));
+
+        UserAccount stored = userAccountRepository.findByIdWithCredentials(account.getUserAccountId()).orElseThrow();
+        assertEquals(Roles.EMPLOYEE, stored.getRole());
+        assertEquals(1L, stored.getPermissionVersion());
+    }
+
+    @Test
+    void rehashSkipsHashChangedMeanwhile() {
+        UserAccount account = legacyUser("password-changed@example.com");
+        String changed = passwordEncoder.encode("another password");
+        assertTrue(userAccountRepository.updatePasswordHash(account.getUserAccountId(), account.getPasswordHash(), changed));
+
+        assertFalse(userAccountRepository.updatePasswordHash(account.getUserAccountId(), account.getPasswordHash(),
+                passwordEncoder.encode(PASSWORD)));
+        assertEquals(changed, userAccountRepository.findByIdWithCredentials(account.getUserAccountId()).orElseThrow().getPasswordHash());
+    }
+
+    @Test
+    void rehashLeavesUserETagAlone() throws Exception {
+        UserAccount account = legacyUser("quiet-rehash@example.com");
+        String before = changeCounters.userETag();
+
+        authenticationService.authenticate(new LoginAuthRequestDTO(account.getEmail(), PASSWORD));
+
+        assertEquals(before, changeCounters.userETag());
+    }
+
+    // stored before the delegating encoder: no {bcrypt} prefix
+    private UserAccount legacyUser(String email) {
+        return userAccountRepository.save(new UserAccount(email, new BCryptPasswordEncoder(4).encode(PASSWORD)));
+    }
+}
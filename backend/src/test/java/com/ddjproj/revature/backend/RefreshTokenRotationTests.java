@@ -0,0 +1,216 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.ddjproj.revature.domain.entity.RefreshToken;
+import com.ddjproj.revature.exception.security.AuthenticationException;
+import com.ddjproj.revature.repository.RefreshTokenRepoImpl;
+import com.ddjproj.revature.repository.RefreshTokenRepository;
+import com.ddjproj.revature.service.auth.RefreshTokenService;
+import com.ddjproj.revature.service.auth.RefreshTokenService.Rotation;
+
+/**
+ * refresh tokens are single use; presenting a consumed one revokes its whole family
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-token-rotation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class RefreshTokenRotationTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private FailingRefreshTokenRepository refreshTokens;
+
+    @Test
+    void rotationReturnsASuccessorForTheSameUser() throws Exception {
+        String issued = refreshTokenService.issue(101L);
+
+        Rotation first = refreshTokenService.rotate(issued);
+        Rotation second = refreshTokenService.rotate(first.getRefreshToken());
+
+        assertEquals(101L, first.getUserId());
+        assertEquals(101L, second.getUserId());
+        assertNotEquals(issued, first.getRefreshToken());
+        assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() throws Exception {
+        String issued = refreshTokenService.issue(102L);
+        Rotation rotation = refreshTokenService.rotate(issued);
+
+        // a copy of the consumed token is presented
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(issued));
+
+        // so the legitimate successor is gone too
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(rotation.getRefreshToken()));
+    }
+
+    @Test
+    void reuseLeavesOtherFamiliesOfTheUserAlone() throws Exception {
+        String stolen = refreshTokenService.issue(103L);
+        String otherDevice = refreshTokenService.issue(103L);
+        refreshTokenService.rotate(stolen);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(stolen));
+
+        assertEquals(103L, refreshTokenService.rotate(otherDevice).getUserId());
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenHaveOneWinner() throws Exception {
+        String issued = refreshTokenService.issue(104L);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            attempts.add(CompletableFuture.supplyAsync(() -> {
+                await(start);
+                try {
+                    refreshTokenService.rotate(issued);
+                    return true;
+                } catch (AuthenticationException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int rotated = 0;
+        for (CompletableFuture<Boolean> attempt : attempts) {
+            if (attempt.get(10, TimeUnit.SECONDS)) {
+                rotated++;
+            }
+        }
+        assertEquals(1, rotated);
+    }
+
+    @Test
+    void failedSuccessorInsertLeavesTheTokenUsable() throws Exception {
+        String issued = refreshTokenService.issue(108L);
+
+        refreshTokens.failNextSave();
+        assertThrows(DataIntegrityViolationException.class, () -> refreshTokenService.rotate(issued));
+
+        // the token was not consumed, the user stays logged in
+        assertEquals(108L, refreshTokenService.rotate(issued).getUserId());
+    }
+
+    @Test
+    void logoutRevokesTheFamily() throws Exception {
+        String issued = refreshTokenService.issue(105L);
+        Rotation rotation = refreshTokenService.rotate(issued);
+
+        refreshTokenService.revoke(rotation.getRefreshToken());
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(rotation.getRefreshToken()));
+    }
+
+    @Test
+    void unknownOrBlankTokensAreRejected() {
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate("never-issued"));
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(" "));
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(null));
+    }
+
+    @Test
+    void revokingAllForAUserEndsEveryFamily() throws Exception {
+        String phone = refreshTokenService.issue(106L);
+        String laptop = refreshTokenService.issue(106L);
+        String otherUser = refreshTokenService.issue(107L);
+
+        refreshTokenService.revokeAllForUser(106L);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(phone));
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(laptop));
+        assertEquals(107L, refreshTokenService.rotate(otherUser).getUserId());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "timed out waiting for the start signal");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    @TestConfiguration
+    static class FailingSaveConfig {
+        @Bean
+        @Primary
+        FailingRefreshTokenRepository failingRefreshTokenRepository(RefreshTokenRepoImpl delegate) {
+            return new FailingRefreshTokenRepository(delegate);
+        }
+    }
+
+    /**
+     * the real repository, except that the next save can be made to fail
+     */
+    static class FailingRefreshTokenRepository implements RefreshTokenRepository {
+        private final RefreshTokenRepository delegate;
+        private volatile boolean failNextSave;
+
+        FailingRefreshTokenRepository(RefreshTokenRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        void failNextSave() {
+            failNextSave = true;
+        }
+
+        @Override
+        public RefreshToken save(RefreshToken refreshToken) {
+            if (failNextSave) {
+                failNextSave = false;
+                throw new DataIntegrityViolationException("simulated insert failure");
+            }
+            return delegate.save(refreshToken);
+        }
+
+        @Override
+        public Optional<RefreshToken> findByTokenDigest(String tokenDigest) {
+            return delegate.findByTokenDigest(tokenDigest);
+        }
+
+        @Override
+        public boolean markUsed(Long id) {
+            return delegate.markUsed(id);
+        }
+
+        @Override
+        public void revokeFamily(String familyId) {
+            delegate.revokeFamily(familyId);
+        }
+
+        @Override
+        public void revokeAllForUser(Long userId) {
+            delegate.revokeAllForUser(userId);
+        }
+
+        @Override
+        public int deleteByExpiresAtBefore(Long now) {
+            return delegate.deleteByExpiresAtBefore(now);
+        }
+    }
+}
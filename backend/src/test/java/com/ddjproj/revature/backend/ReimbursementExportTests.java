@@ -0,0 +1,122 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.dto.reimbursement.ExportFormat;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * streamed exports: every row once, in id order, across the service's write batches
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reimbursement-export;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ReimbursementExportTests {
+
+    // more than two of the service's 500 row batches
+    private static final int ROWS = 1203;
+
+    @Autowired
+    private ReimbursementService reimbursementService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvHasEveryRowOnceInIdOrder() throws Exception {
+        UserAccount owner = owner("csv-export@example.com");
+        seed(100_000, ROWS, owner);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = reimbursementService.writeExport(ReimbursementScope.all(), null, 100_000L, 100_000L + ROWS - 1,
+                ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals("id,userId,userEmail,description,amount,type,status", lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            assertEquals(String.valueOf(100_000 + i - 1), fields[0]);
+            assertEquals("csv-export@example.com", fields[2]);
+        }
+    }
+
+    @Test
+    void scopeAndIdRangeLimitTheRows() throws Exception {
+        UserAccount owner = owner("scoped-export@example.com");
+        UserAccount other = owner("unscoped-export@example.com");
+        seed(200_000, 600, owner, other);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = reimbursementService.writeExport(
+                ReimbursementScope.all().withOwner(owner.getUserAccountId()).withStatus(ReimbursementStatus.PENDING),
+                null, 200_100L, 200_499L, ExportFormat.NDJSON, out);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals(owner.getUserAccountId().longValue(), row.get("userId").asLong());
+            assertEquals("PENDING", row.get("status").asText());
+            ids.add(row.get("id").asLong());
+        }
+        // owners alternate and every fourth row is pending: ids 200_100 + 4k in [200_100, 200_499]
+        assertEquals(100, written);
+        assertEquals(100, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(200_100L + 4L * i, ids.get(i));
+        }
+    }
+
+    @Test
+    void emptyRangeWritesOnlyTheHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = reimbursementService.writeExport(ReimbursementScope.all(), null, 900_000L, 900_100L,
+                ExportFormat.CSV, out);
+
+        assertEquals(0, written);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("id,userId"));
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    }
+
+    private UserAccount owner(String email) {
+        return userAccountRepository.save(new UserAccount(email, "hash"));
+    }
+
+    // owners take turns, every fourth row is still pending
+    private void seed(long firstId, int count, UserAccount... owners) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            String status = i % 4 == 0 ? "PENDING" : "APPROVED";
+            rows.add(new Object[]{id, owners[i % owners.length].getUserAccountId(), 100L + i, "expense " + id,
+                    "FOOD", status, 0L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reimbursement (reimbursement_id, user_id, amount, description, type, status, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,185 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementPageDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.ddjproj.revature.exception.validation.ValidationException;
+import com.ddjproj.revature.repository.JpaReimbursementRepository;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+
+/**
+ * keyset pages on id DESC: opaque versioned cursors, no gaps or repeats across page boundaries
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reimbursement-paging;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "reimbursement.page.default-size=4",
+        "reimbursement.page.max-size=10"
+})
+class ReimbursementPagingTests {
+
+    @Autowired
+    private ReimbursementService reimbursementService;
+
+    @Autowired
+    private JpaReimbursementRepository reimbursementRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursorIsTheVersionedLastIdOfThePage() throws Exception {
+        List<Long> ids = submit(201L, 3);
+        signInAsEmployee(201L);
+
+        ReimbursementPageDTO page = reimbursementService.getMyReimbursements(null, null, 2);
+
+        assertEquals(List.of(ids.get(2), ids.get(1)), idsOf(page));
+        String decoded = new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8);
+        assertEquals("r1:" + ids.get(1), decoded);
+    }
+
+    @Test
+    void walkingThePagesVisitsEveryRowOnceNewestFirst() throws Exception {
+        List<Long> ids = submit(202L, 11);
+        signInAsEmployee(202L);
+
+        List<Long> visited = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReimbursementPageDTO page = reimbursementService.getMyReimbursements(null, cursor, null);
+            visited.addAll(idsOf(page));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(newestFirst(ids), visited);
+        // default size 4: 4, 4, 3
+        assertEquals(List.of(4, 4, 3), pageSizes);
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() throws Exception {
+        submit(203L, 8);
+        signInAsEmployee(203L);
+
+        ReimbursementPageDTO first = reimbursementService.getMyReimbursements(null, null, 4);
+        assertNotNull(first.getNextCursor());
+        ReimbursementPageDTO second = reimbursementService.getMyReimbursements(null, first.getNextCursor(), 4);
+
+        assertEquals(4, second.getItems().size());
+        // no empty trailing page
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void rowsAddedWhileScrollingDoNotShiftLaterPages() throws Exception {
+        List<Long> ids = submit(204L, 6);
+        signInAsEmployee(204L);
+
+        ReimbursementPageDTO first = reimbursementService.getMyReimbursements(null, null, 3);
+        submit(204L, 2);
+        ReimbursementPageDTO second = reimbursementService.getMyReimbursements(null, first.getNextCursor(), 3);
+
+        assertEquals(newestFirst(ids).subList(3, 6), idsOf(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void pageSizeIsClampedToTheConfiguredRange() throws Exception {
+        submit(205L, 12);
+        signInAsEmployee(205L);
+
+        assertEquals(10, reimbursementService.getMyReimbursements(null, null, 1000).getItems().size());
+        assertEquals(1, reimbursementService.getMyReimbursements(null, null, 0).getItems().size());
+    }
+
+    @Test
+    void statusFilterAppliesAcrossPages() throws Exception {
+        List<Long> ids = submit(206L, 6);
+        for (int i = 0; i < ids.size(); i += 2) {
+            Reimbursement reimbursement = reimbursementRepository.findById(ids.get(i)).orElseThrow();
+            reimbursement.setStatus(ReimbursementStatus.APPROVED);
+            reimbursementRepository.save(reimbursement);
+        }
+        signInAsEmployee(206L);
+
+        ReimbursementPageDTO first = reimbursementService.getMyReimbursements(ReimbursementStatus.APPROVED, null, 2);
+        ReimbursementPageDTO second = reimbursementService.getMyReimbursements(ReimbursementStatus.APPROVED, first.getNextCursor(), 2);
+
+        assertEquals(List.of(ids.get(4), ids.get(2)), idsOf(first));
+        assertEquals(List.of(ids.get(0)), idsOf(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        signInAsEmployee(207L);
+
+        for (String cursor : List.of("not base64!", encode("r0:12"), encode("r1:"), encode("r1:twelve"), encode("12"))) {
+            assertThrows(ValidationException.class,
+                    () -> reimbursementService.getMyReimbursements(null, cursor, null), cursor);
+        }
+    }
+
+    private List<Long> submit(long userId, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Reimbursement reimbursement = new Reimbursement();
+            reimbursement.setUserId(userId);
+            reimbursement.setAmount(1000L + i);
+            reimbursement.setDescription("expense " + i);
+            reimbursement.setType(ReimbursementType.AIRLINE);
+            ids.add(reimbursementRepository.save(reimbursement).getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> newestFirst(List<Long> ids) {
+        List<Long> sorted = new ArrayList<>(ids);
+        sorted.sort((a, b) -> Long.compare(b, a));
+        return sorted;
+    }
+
+    private static List<Long> idsOf(ReimbursementPageDTO page) {
+        List<Long> ids = new ArrayList<>();
+        for (ReimbursementResponseDTO item : page.getItems()) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void signInAsEmployee(long id) {
+        JwtPrincipal employee = new JwtPrincipal(id, "employee" + id + "@example.com", Roles.EMPLOYEE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(employee, null, JwtPrincipal.authoritiesFor(Roles.EMPLOYEE)));
+    }
+}
@@ -0,0 +1,208 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.repository.JpaReimbursementChangeRepository;
+import com.ddjproj.revature.repository.JpaReimbursementRepository;
+import com.ddjproj.revature.repository.JpaUserAccountRepository;
+
+/**
+ * runs EXPLAIN for the SQL Hibernate generates for each filtered repository query, against a
+ * seeded H2 database in MySQL mode, and fails when a query falls back to a full table scan
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ddjproj.revature.backend.ReimbursementQueryPlanTests$RecordingStatementInspector"
+})
+@Transactional
+class ReimbursementQueryPlanTests {
+
+    private static final int USERS = 200;
+    private static final int REIMBURSEMENTS = 5000;
+    private static final int PAGE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JpaReimbursementRepository reimbursementRepository;
+
+    @Autowired
+    private JpaUserAccountRepository userAccountRepository;
+
+    @Autowired
+    private JpaReimbursementChangeRepository reimbursementChangeRepository;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user" + id + "@example.com", "hash", id % 10 == 0 ? "MANAGER" : "EMPLOYEE", 0L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_account (user_id, email, password_hash, role, permission_version) VALUES (?, ?, ?, ?, ?)", users);
+
+        List<Object[]> reimbursements = new ArrayList<>();
+        List<Object[]> changes = new ArrayList<>();
+        String[] statuses = {"APPROVED", "DENIED", "APPROVED", "APPROVED", "PENDING"};
+        for (long id = 1; id <= REIMBURSEMENTS; id++) {
+            long userId = 1 + id % USERS;
+            String status = statuses[(int) (id % statuses.length)];
+            reimbursements.add(new Object[]{id, userId, 100 + id, "expense " + id, "FOOD", status, 0L});
+            changes.add(new Object[]{id, (int) (userId % 16), id, "node", id, userId, status, "FOOD", 100 + id, 0L, id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reimbursement (reimbursement_id, user_id, amount, description, type, status, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", reimbursements);
+        jdbcTemplate.batchUpdate("INSERT INTO reimbursement_change (change_id, change_stripe, change_seq, node_id, reimbursement_id, "
+                + "user_id, new_status, new_type, new_amount, version, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", changes);
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByUserIdUsesIndex() {
+        reimbursementRepository.findByUserIdOrderByIdDesc(7L);
+        assertUsesIndex(lastSelect(), 7L);
+    }
+
+    @Test
+    void findByStatusUsesIndex() {
+        reimbursementRepository.findByStatus(ReimbursementStatus.PENDING);
+        assertUsesIndex(lastSelect(), "PENDING");
+    }
+
+    @Test
+    void findByUserIdAndStatusUsesIndex() {
+        reimbursementRepository.findByUserIdAndStatus(7L, ReimbursementStatus.PENDING);
+        assertUsesIndex(lastSelect(), 7L, "PENDING");
+    }
+
+    @Test
+    void keysetPagesUseIndexes() {
+        reimbursementRepository.findByIdLessThanOrderByIdDesc(2500L, PageRequest.of(0, PAGE));
+        assertUsesIndex(lastSelect(), 2500L, PAGE);
+
+        reimbursementRepository.findByUserIdAndIdLessThanOrderByIdDesc(7L, 2500L, PageRequest.of(0, PAGE));
+        assertUsesIndex(lastSelect(), 7L, 2500L, PAGE);
+
+        reimbursementRepository.findByStatusAndIdLessThanOrderByIdDesc(ReimbursementStatus.PENDING, 2500L, PageRequest.of(0, PAGE));
+        assertUsesIndex(lastSelect(), "PENDING", 2500L, PAGE);
+
+        reimbursementRepository.findByUserIdAndStatusAndIdLessThanOrderByIdDesc(7L, ReimbursementStatus.PENDING, 2500L, PageRequest.of(0, PAGE));
+        assertUsesIndex(lastSelect(), 7L, "PENDING", 2500L, PAGE);
+    }
+
+    @Test
+    void scopedSingleRowLookupsUseIndexes() {
+        reimbursementRepository.findByIdAndUserId(42L, 43L);
+        assertUsesIndex(lastSelect(), 42L, 43L);
+
+        reimbursementRepository.findByIdAndUserIdAndStatus(42L, 43L, ReimbursementStatus.PENDING);
+        assertUsesIndex(lastSelect(), 42L, 43L, "PENDING");
+    }
+
+    @Test
+    void exportRangeUsesIndex() {
+        try (Stream<Reimbursement> rows = reimbursementRepository.streamForExport(null, 1000L, 2000L)) {
+            rows.limit(1).forEach(row -> { });
+        }
+        assertUsesIndex(lastSelect(), 1000L, 2000L, null, null);
+    }
+
+    @Test
+    void scopedExportsUseIndexes() {
+        try (Stream<Reimbursement> rows = reimbursementRepository.streamForExportByUserId(7L, null, 1000L, 2000L)) {
+            rows.limit(1).forEach(row -> { });
+        }
+        assertUsesIndex(lastSelect(), 7L, 1000L, 2000L, null, null);
+
+        try (Stream<Reimbursement> rows = reimbursementRepository.streamForExportByStatus(ReimbursementStatus.PENDING, null, 1000L, 2000L)) {
+            rows.limit(1).forEach(row -> { });
+        }
+        assertUsesIndex(lastSelect(), "PENDING", 1000L, 2000L, null, null);
+
+        try (Stream<Reimbursement> rows = reimbursementRepository.streamForExportByUserIdAndStatus(7L, ReimbursementStatus.PENDING, null, 1000L, 2000L)) {
+            rows.limit(1).forEach(row -> { });
+        }
+        assertUsesIndex(lastSelect(), 7L, "PENDING", 1000L, 2000L, null, null);
+    }
+
+    @Test
+    void changesAfterCursorUseIndex() {
+        reimbursementChangeRepository.findAfter(7, 2500L, 2500L, 4000L, PageRequest.of(0, PAGE));
+        assertUsesIndex(lastSelect(), 7, 4000L, 2500L, 2500L, 2500L, PAGE);
+    }
+
+    @Test
+    void userAccountLookupsUseIndexes() {
+        userAccountRepository.findUserAccountByEmail("user7@example.com");
+        assertUsesIndex(lastSelect(), "user7@example.com");
+
+        userAccountRepository.findUserAccountByRole(Roles.MANAGER);
+        assertUsesIndex(lastSelect(), "MANAGER");
+
+        userAccountRepository.findEmailsByIdIn(List.of(1L, 2L, 3L));
+        assertUsesIndex(lastSelect(), 1L, 2L, 3L);
+    }
+
+    private static String lastSelect() {
+        String sql = null;
+        for (String statement : RecordingStatementInspector.STATEMENTS) {
+            if (statement.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                sql = statement;
+            }
+        }
+        assertNotNull(sql, "no SELECT statement was recorded");
+        RecordingStatementInspector.STATEMENTS.clear();
+        return sql;
+    }
+
+    /**
+     * @param args bind values in SQL parameter order. trailing extras are ignored, in case the
+     *             dialect renders the page limit as a literal
+     */
+    private void assertUsesIndex(String sql, Object... args) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        assertTrue(parameters <= args.length, "not enough bind values for: " + sql);
+
+        Object[] bound = new Object[parameters];
+        System.arraycopy(args, 0, bound, 0, parameters);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, bound));
+
+        assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"), "full table scan:\n" + plan);
+    }
+
+    /**
+     * records every SQL statement Hibernate prepares
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final ConcurrentLinkedDeque<String> STATEMENTS = new ConcurrentLinkedDeque<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.ddjproj.revature.exception.ResourceNotFoundException;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.service.ChangeCounters;
+import com.ddjproj.revature.service.ReimbursementService;
+
+class SharedChangeCounterTests extends TwoNodeTestSupport {
+
+    @Override
+    protected String databaseName() {
+        return "shared-change-counters";
+    }
+
+    @Test
+    void writeOnOneNodeChangesTagsOnTheOtherRightAway() {
+        UserAccount owner = createUser("tagged-owner@example.com", Roles.EMPLOYEE);
+        UserAccount manager = createUser("tagged-manager@example.com", Roles.MANAGER);
+        ChangeCounters countersB = nodeB.getBean(ChangeCounters.class);
+        String allBefore = countersB.reimbursementETag(null, manager);
+        String ownBefore = countersB.reimbursementETag(owner.getUserAccountId(), owner);
+
+        createReimbursement(nodeA, owner, "taxi", 100L);
+
+        assertNotEquals(allBefore, countersB.reimbursementETag(null, manager));
+        assertNotEquals(ownBefore, countersB.reimbursementETag(owner.getUserAccountId(), owner));
+    }
+
+    @Test
+    void writeForOneOwnerKeepsOtherOwnersTags() {
+        UserAccount owner = createUser("busy-owner@example.com", Roles.EMPLOYEE);
+        UserAccount other = createUser("idle-owner@example.com", Roles.EMPLOYEE);
+        assertNotEquals(ChangeCounters.stripe(owner.getUserAccountId()), ChangeCounters.stripe(other.getUserAccountId()));
+        ChangeCounters countersB = nodeB.getBean(ChangeCounters.class);
+        String otherBefore = countersB.reimbursementETag(other.getUserAccountId(), other);
+
+        createReimbursement(nodeA, owner, "taxi", 100L);
+
+        assertEquals(otherBefore, countersB.reimbursementETag(other.getUserAccountId(), other));
+    }
+
+    @Test
+    void editChangesTheTagOfTheRow() {
+        UserAccount owner = createUser("edited-owner@example.com", Roles.EMPLOYEE);
+        ReimbursementService serviceB = nodeB.getBean(ReimbursementService.class);
+        Long id = createReimbursement(nodeA, owner, "taxi", 100L).getId();
+        String before = signedInAs(owner, () -> serviceB.getReimbursementETag(id));
+
+        CreateReimbursementDTO edit = CreateReimbursementDTO.builder()
+                .description("taxi and train").type(ReimbursementType.AIRLINE).amount(150L).build();
+        signedInAs(owner, () -> nodeA.getBean(ReimbursementService.class).updateReimbursement(id, edit));
+
+        assertNotEquals(before, signedInAs(owner, () -> serviceB.getReimbursementETag(id)));
+    }
+
+    @Test
+    void rowTagChecksTheScope() {
+        UserAccount owner = createUser("tag-owner@example.com", Roles.EMPLOYEE);
+        UserAccount stranger = createUser("tag-stranger@example.com", Roles.EMPLOYEE);
+        ReimbursementService serviceB = nodeB.getBean(ReimbursementService.class);
+        Long id = createReimbursement(nodeA, owner, "taxi", 100L).getId();
+
+        // checked exceptions come out of signedInAs wrapped
+        assertInstanceOf(UnauthorizedException.class, assertThrows(IllegalStateException.class,
+                () -> signedInAs(stranger, () -> serviceB.getReimbursementETag(id))).getCause());
+        assertInstanceOf(ResourceNotFoundException.class, assertThrows(IllegalStateException.class,
+                () -> signedInAs(owner, () -> serviceB.getReimbursementETag(-1L))).getCause());
+    }
+
+    @Test
+    void userWriteOnOneNodeChangesUserTagOnTheOtherRightAway() {
+        ChangeCounters countersB = nodeB.getBean(ChangeCounters.class);
+        String before = countersB.userETag();
+
+        createUser("listed@example.com", Roles.EMPLOYEE);
+
+        assertNotEquals(before, countersB.userETag());
+    }
+
+    @Test
+    void reimbursementWritesTakeNoSharedLock() throws Exception {
+        UserAccount owner = createUser("first-writer@example.com", Roles.EMPLOYEE);
+        UserAccount other = createUser("second-writer@example.com", Roles.EMPLOYEE);
+        assertNotEquals(ChangeCounters.stripe(owner.getUserAccountId()), ChangeCounters.stripe(other.getUserAccountId()));
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // node A writes and holds its transaction open
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                nodeA.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    createReimbursement(nodeA, owner, "hotel", 100L);
+                    written.countDown();
+                    await(commit);
+                }));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+
+        // node B's write, for an owner in another stripe, completes while A's is still open
+        CompletableFuture<ReimbursementResponseDTO> second = CompletableFuture.supplyAsync(() ->
+                createReimbursement(nodeB, other, "taxi", 100L));
+        try {
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+        }
+        first.get(5, TimeUnit.SECONDS);
+    }
+}
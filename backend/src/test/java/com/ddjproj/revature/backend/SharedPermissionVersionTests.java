@@ -0,0 +1,82 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ddjproj.revature.EmployeeReimbursementApplication;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.accounts.UserAccountService;
+import com.ddjproj.revature.service.auth.PermissionVersionTable;
+
+/**
+ * two application contexts ("nodes") sharing one H2 database
+ */
+class SharedPermissionVersionTests {
+
+    private static final String[] SHARED_PROPERTIES = {
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:shared-permission-versions;DB_CLOSE_DELAY=-1",
+            "spring.jpa.hibernate.ddl-auto=update",
+            "spring.jpa.show-sql=false",
+            "security.jwt.secret=c2hhcmVkLXJldm9jYXRpb24tdGVzdC1zZWNyZXQta2V5LTI1Ni1iaXRzIQ==",
+            "security.jwt.permission-version.refresh-grace-ms=0"
+    };
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void roleChangeOnOneNodeRejectsOldTokensOnTheOther() throws Exception {
+        Long userId = createManager("demoted@example.com");
+
+        nodeA.getBean(UserAccountService.class).updateUserRole(userId, Roles.EMPLOYEE);
+
+        PermissionVersionTable versionsB = nodeB.getBean(PermissionVersionTable.class);
+        versionsB.refreshChanges();
+        assertFalse(versionsB.isCurrent(userId, 0L));
+        assertTrue(versionsB.isCurrent(userId, 1L));
+    }
+
+    @Test
+    void roleChangeSurvivesRestart() throws Exception {
+        Long userId = createManager("demoted-before-restart@example.com");
+        nodeA.getBean(UserAccountService.class).updateUserRole(userId, Roles.EMPLOYEE);
+
+        nodeA.close();
+        nodeA = startNode();
+
+        assertFalse(nodeA.getBean(PermissionVersionTable.class).isCurrent(userId, 0L));
+    }
+
+    private Long createManager(String email) {
+        UserAccount account = new UserAccount(email, "hash");
+        account.setRole(Roles.MANAGER);
+        return nodeA.getBean(UserAccountRepository.class).save(account).getUserAccountId();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(EmployeeReimbursementApplication.class)
+                .properties(SHARED_PROPERTIES)
+                .run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementStatsDTO;
+import com.ddjproj.revature.dto.reimbursement.ResolveReimbursementDTO;
+import com.ddjproj.revature.service.ChangeCounters;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.ddjproj.revature.service.ReimbursementStatsService;
+
+class SharedReimbursementStatsTests extends TwoNodeTestSupport {
+
+    @Override
+    protected String databaseName() {
+        return "shared-reimbursement-stats";
+    }
+
+    @Override
+    protected String[] nodeProperties() {
+        // catch-ups and reconciliations only run when the tests call them
+        return new String[]{
+                "reimbursement.stats.catch-up-ms=3600000",
+                "reimbursement.stats.reconcile-ms=3600000"
+        };
+    }
+
+    @Test
+    void localWriteIsCountedOnceCommitted() {
+        UserAccount owner = createUser("local-stats@example.com", Roles.EMPLOYEE);
+        ReimbursementStatsService statsA = nodeA.getBean(ReimbursementStatsService.class);
+
+        createReimbursement(nodeA, owner, "hotel", 250L);
+
+        assertEquals(1, count(statsA, owner));
+        assertEquals(250, statsA.getStats(owner.getUserAccountId()).getByUser().get(owner.getUserAccountId()).getSum());
+        // reading its own write back changes nothing
+        assertTrue(statsA.catchUp() > 0);
+        assertEquals(1, count(statsA, owner));
+    }
+
+    @Test
+    void writeOnOneNodeIsCountedOnTheOtherAfterCatchUp() {
+        UserAccount owner = createUser("remote-stats@example.com", Roles.EMPLOYEE);
+        ReimbursementStatsService statsB = nodeB.getBean(ReimbursementStatsService.class);
+        statsB.catchUp();
+
+        createReimbursement(nodeA, owner, "hotel", 100L);
+        assertEquals(0, count(statsB, owner));
+
+        assertEquals(1, statsB.catchUp());
+        assertEquals(1, count(statsB, owner));
+        assertEquals(0, statsB.catchUp());
+    }
+
+    @Test
+    void remoteChangesMoveRowsBetweenGroups() {
+        UserAccount owner = createUser("moved-stats@example.com", Roles.EMPLOYEE);
+        UserAccount manager = createUser("moving-manager@example.com", Roles.MANAGER);
+        ReimbursementStatsService statsB = nodeB.getBean(ReimbursementStatsService.class);
+        ReimbursementService serviceA = nodeA.getBean(ReimbursementService.class);
+        Long id = createReimbursement(nodeA, owner, "hotel", 100L).getId();
+        statsB.catchUp();
+        ReimbursementStatsDTO before = statsB.getStats(owner.getUserAccountId());
+
+        CreateReimbursementDTO edit = CreateReimbursementDTO.builder()
+                .description("hotel, two nights").type(ReimbursementType.AIRLINE).amount(300L).build();
+        signedInAs(owner, () -> serviceA.updateReimbursement(id, edit));
+        ResolveReimbursementDTO approve = ResolveReimbursementDTO.builder().status(ReimbursementStatus.APPROVED).build();
+        signedInAs(manager, () -> serviceA.resolveReimbursement(id, approve));
+        statsB.catchUp();
+
+        ReimbursementStatsDTO after = statsB.getStats(owner.getUserAccountId());
+        assertEquals(1, count(statsB, owner));
+        assertEquals(300, after.getByUser().get(owner.getUserAccountId()).getSum());
+        assertEquals(before.getByStatus().get(ReimbursementStatus.PENDING).getCount() - 1,
+                after.getByStatus().get(ReimbursementStatus.PENDING).getCount());
+        assertEquals(before.getByStatus().get(ReimbursementStatus.APPROVED).getCount() + 1,
+                after.getByStatus().get(ReimbursementStatus.APPROVED).getCount());
+    }
+
+    @Test
+    void remoteWriteThatCommitsLateIsStillCounted() throws Exception {
+        UserAccount late = createUser("late-commit@example.com", Roles.EMPLOYEE);
+        UserAccount early = createUser("early-commit@example.com", Roles.EMPLOYEE);
+        assertNotEquals(ChangeCounters.stripe(late.getUserAccountId()), ChangeCounters.stripe(early.getUserAccountId()));
+        ReimbursementStatsService statsB = nodeB.getBean(ReimbursementStatsService.class);
+        statsB.catchUp();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // numbered before the second write, but only committed after B has read that one
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() ->
+                nodeA.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    createReimbursement(nodeA, late, "hotel", 100L);
+                    written.countDown();
+                    await(commit);
+                }));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        createReimbursement(nodeA, early, "taxi", 40L);
+
+        assertEquals(1, statsB.catchUp());
+        assertEquals(1, count(statsB, early));
+        commit.countDown();
+        write.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, statsB.catchUp());
+        assertEquals(1, count(statsB, late));
+    }
+
+    @Test
+    void writeCommittedAfterTheReloadReadIsCounted() throws Exception {
+        UserAccount owner = createUser("counted-after-reload@example.com", Roles.EMPLOYEE);
+        ReimbursementStatsService statsA = nodeA.getBean(ReimbursementStatsService.class);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // the service joins this transaction, which stays open until the reload has run
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() ->
+                nodeA.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    createReimbursement(nodeA, owner, "hotel", 100L);
+                    written.countDown();
+                    await(commit);
+                }));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+
+        statsA.reconcile();
+        commit.countDown();
+        write.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, count(statsA, owner));
+        statsA.reconcile();
+        assertEquals(1, count(statsA, owner));
+    }
+
+    private static long count(ReimbursementStatsService stats, UserAccount owner) {
+        return stats.getStats(owner.getUserAccountId()).getByUser().get(owner.getUserAccountId()).getCount();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ddjproj.revature.EmployeeReimbursementApplication;
+import com.ddjproj.revature.service.auth.TokenBlacklistService;
+import com.ddjproj.revature.service.auth.TokenDigest;
+
+/**
+ * two application contexts ("nodes") sharing one H2 database
+ */
+class SharedRevocationListTests {
+
+    private static final String[] SHARED_PROPERTIES = {
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:shared-revocations;DB_CLOSE_DELAY=-1",
+            "spring.jpa.hibernate.ddl-auto=update",
+            "spring.jpa.show-sql=false",
+            "security.jwt.secret=c2hhcmVkLXJldm9jYXRpb24tdGVzdC1zZWNyZXQta2V5LTI1Ni1iaXRzIQ==",
+            "security.jwt.revocation.refresh-grace-ms=0"
+    };
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void revocationOnOneNodeIsVisibleOnTheOtherAfterRefresh() {
+        String digest = TokenDigest.of("logged-out-token");
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        nodeA.getBean(TokenBlacklistService.class).revoke(digest, expiresAt);
+
+        TokenBlacklistService blacklistB = nodeB.getBean(TokenBlacklistService.class);
+        blacklistB.refreshRevocations();
+        assertTrue(blacklistB.isDigestBlackListed(digest));
+        assertFalse(blacklistB.isDigestBlackListed(TokenDigest.of("still-valid-token")));
+    }
+
+    @Test
+    void revocationSurvivesRestart() {
+        String digest = TokenDigest.of("revoked-before-restart");
+        nodeA.getBean(TokenBlacklistService.class).revoke(digest, System.currentTimeMillis() + 60_000);
+
+        nodeA.close();
+        nodeA = startNode();
+
+        assertTrue(nodeA.getBean(TokenBlacklistService.class).isDigestBlackListed(digest));
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(EmployeeReimbursementApplication.class)
+                .properties(SHARED_PROPERTIES)
+                .run();
+    }
+}
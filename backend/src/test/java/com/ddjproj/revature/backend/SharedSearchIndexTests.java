@@ -0,0 +1,52 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import com.ddjproj.revature.service.ReimbursementSearchIndex;
+
+class SharedSearchIndexTests extends TwoNodeTestSupport {
+
+    @Override
+    protected String databaseName() {
+        return "shared-search-index";
+    }
+
+    @Override
+    protected String[] nodeProperties() {
+        // catch-ups only run when the tests call them
+        return new String[]{"reimbursement.search.catch-up-ms=3600000"};
+    }
+
+    @Test
+    void writeOnOneNodeIsSearchableOnTheOtherAfterCatchUp() {
+        UserAccount owner = createUser("searching-owner@example.com", Roles.EMPLOYEE);
+        ReimbursementSearchIndex indexB = nodeB.getBean(ReimbursementSearchIndex.class);
+
+        Long id = createReimbursement(nodeA, owner, "conference hotel lisbon", 100L).getId();
+        assertTrue(indexB.search("lisbon", ReimbursementScope.all(), null, 10).isEmpty());
+
+        indexB.catchUp();
+        assertEquals(List.of(id), indexB.search("lisbon", ReimbursementScope.all(), null, 10));
+    }
+
+    @Test
+    void catchUpOnlyReadsRowsWrittenSinceTheLastOne() {
+        UserAccount owner = createUser("repeat-owner@example.com", Roles.EMPLOYEE);
+        ReimbursementSearchIndex indexB = nodeB.getBean(ReimbursementSearchIndex.class);
+        indexB.catchUp();
+
+        createReimbursement(nodeA, owner, "taxi porto", 100L);
+        createReimbursement(nodeA, owner, "train porto", 100L);
+        assertEquals(2, indexB.catchUp());
+        assertEquals(0, indexB.catchUp());
+        assertEquals(2, indexB.search("porto", ReimbursementScope.all(), null, 10).size());
+    }
+}
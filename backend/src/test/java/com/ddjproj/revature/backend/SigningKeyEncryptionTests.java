@@ -0,0 +1,187 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ddjproj.revature.domain.entity.SigningKey;
+import com.ddjproj.revature.repository.SigningKeyRepository;
+import com.ddjproj.revature.service.auth.SigningKeyService;
+
+/**
+ * private signing keys at rest: encrypted, migrated from plaintext, never replaced by a node with
+ * another KEK. next keys are published before they sign
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:signing-key-encryption;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "security.jwt.signing.key-encryption-key=" + SigningKeyEncryptionTests.KEK
+})
+class SigningKeyEncryptionTests {
+
+    static final String KEK = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+    private static final String OTHER_KEK = "ZmVkY2JhOTg3NjU0MzIxMGZlZGNiYTk4NzY1NDMyMTA=";
+
+    @Autowired
+    private SigningKeyService signingKeyService;
+
+    @Autowired
+    private SigningKeyRepository signingKeyRepository;
+
+    @Test
+    void storedPrivateKeyIsEncrypted() {
+        // signs with the newest key again, whatever the other tests stored
+        signingKeyService.rotateIfDue();
+        SigningKey stored = active();
+        byte[] privateKey = signingKeyService.getActiveKey().getPrivateKey().getEncoded();
+
+        assertEquals(stored.getKid(), signingKeyService.getActiveKey().getKid());
+        assertTrue(stored.getPrivateKey().startsWith("v1:"));
+        assertFalse(stored.getPrivateKey().contains(Base64.getEncoder().encodeToString(privateKey)));
+    }
+
+    @Test
+    void plaintextKeyIsEncryptedInPlaceAndKeepsSigning() throws Exception {
+        KeyPair pair = generatePair();
+        String kid = UUID.randomUUID().toString();
+        signingKeyRepository.save(new SigningKey(kid, "ES256",
+                Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+                Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()),
+                System.currentTimeMillis()));
+
+        signingKeyService.rotateIfDue();
+
+        assertEquals(kid, active().getKid());
+        assertTrue(active().getPrivateKey().startsWith("v1:"));
+        assertEquals(kid, signingKeyService.getActiveKey().getKid());
+        assertArrayEquals(pair.getPrivate().getEncoded(), signingKeyService.getActiveKey().getPrivateKey().getEncoded());
+    }
+
+    @Test
+    void nodeWithAnotherKekNeitherSignsNorWritesKeys() {
+        signingKeyService.rotateIfDue();
+        String kid = signingKeyService.getActiveKey().getKid();
+        List<String> stored = kids(signingKeyRepository.findAllOrderByCreatedAt());
+
+        SigningKeyService otherNode = new SigningKeyService(signingKeyRepository, 86_400_000L, 900_000L, 60_000L, 600_000L, OTHER_KEK);
+        otherNode.rotateIfDue();
+
+        assertNull(otherNode.getActiveKey());
+        assertEquals(stored, kids(signingKeyRepository.findAllOrderByCreatedAt()));
+        assertEquals(kid, signingKeyService.getActiveKey().getKid());
+        // verification only needs the public keys
+        assertNotNull(otherNode.getVerificationKey(kid));
+    }
+
+    @Test
+    void missingKekFailsFast() {
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeyService(signingKeyRepository, 86_400_000L, 900_000L, 60_000L, 600_000L, ""));
+    }
+
+    @Test
+    void nextKeyIsPublishedBeforeItSigns() {
+        InMemorySigningKeys keys = new InMemorySigningKeys();
+        // a rotation interval no longer than the publish lead makes the next key due right away
+        SigningKeyService node = new SigningKeyService(keys, 600_000L, 900_000L, 60_000L, 600_000L, KEK);
+        node.rotateIfDue();
+        String signingKid = node.getActiveKey().getKid();
+
+        node.rotateIfDue();
+
+        List<String> published = node.getJwks().stream()
+                .map(jwk -> (String) jwk.get("kid"))
+                .collect(Collectors.toList());
+        assertEquals(2, published.size());
+        assertEquals(signingKid, node.getActiveKey().getKid());
+        assertTrue(published.contains(signingKid));
+        SigningKey next = published.stream()
+                .filter(kid -> !kid.equals(signingKid))
+                .map(keys::get)
+                .findFirst()
+                .orElseThrow();
+        assertTrue(next.getActivatesAt() - next.getCreatedAt()
+                >= TimeUnit.SECONDS.toMillis(SigningKeyService.JWKS_MAX_AGE_SECONDS) + 60_000L);
+
+        // once its activation time has come it signs, the previous key still verifies
+        next.setActivatesAt(System.currentTimeMillis() - 1);
+        node.rotateIfDue();
+
+        assertEquals(next.getKid(), node.getActiveKey().getKid());
+        assertNotNull(node.getVerificationKey(signingKid));
+    }
+
+    // newest key whose activation time has passed
+    private SigningKey active() {
+        long now = System.currentTimeMillis();
+        return signingKeyRepository.findAllOrderByCreatedAt().stream()
+                .filter(key -> activatesAt(key) <= now)
+                .max(Comparator.comparingLong(SigningKeyEncryptionTests::activatesAt))
+                .orElseThrow();
+    }
+
+    private static long activatesAt(SigningKey key) {
+        return key.getActivatesAt() != null ? key.getActivatesAt() : key.getCreatedAt();
+    }
+
+    private static List<String> kids(List<SigningKey> keys) {
+        return keys.stream().map(SigningKey::getKid).collect(Collectors.toList());
+    }
+
+    private static KeyPair generatePair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * signing_key table stand in, for a node of its own
+     */
+    private static final class InMemorySigningKeys implements SigningKeyRepository {
+        private final Map<String, SigningKey> keys = new LinkedHashMap<>();
+
+        SigningKey get(String kid) {
+            return keys.get(kid);
+        }
+
+        @Override
+        public SigningKey save(SigningKey signingKey) {
+            keys.put(signingKey.getKid(), signingKey);
+            return signingKey;
+        }
+
+        @Override
+        public List<SigningKey> findAllOrderByCreatedAt() {
+            List<SigningKey> result = new ArrayList<>(keys.values());
+            result.sort(Comparator.comparing(SigningKey::getCreatedAt));
+            return result;
+        }
+
+        @Override
+        public void deleteById(String kid) {
+            keys.remove(kid);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ddjproj.revature.EmployeeReimbursementApplication;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.ReimbursementService;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+
+/**
+ * two application contexts ("nodes") sharing one H2 database, started fresh for every test.
+ * writes go through the real services, signed in as the user they are made for
+ */
+abstract class TwoNodeTestSupport {
+
+    private static final String[] SHARED_PROPERTIES = {
+            "server.port=0",
+            "spring.jpa.hibernate.ddl-auto=update",
+            "spring.jpa.show-sql=false",
+            "security.jwt.secret=c2hhcmVkLXJldm9jYXRpb24tdGVzdC1zZWNyZXQta2V5LTI1Ni1iaXRzIQ=="
+    };
+
+    protected ConfigurableApplicationContext nodeA;
+    protected ConfigurableApplicationContext nodeB;
+
+    /**
+     * @return in-memory database both nodes use, one per test class. rows outlive a test
+     */
+    protected abstract String databaseName();
+
+    /**
+     * @return properties on top of the shared ones, e.g. to keep scheduled catch-ups out of the way
+     */
+    protected String[] nodeProperties() {
+        return new String[0];
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    protected ConfigurableApplicationContext startNode() {
+        List<String> properties = new ArrayList<>(Arrays.asList(SHARED_PROPERTIES));
+        properties.add("spring.datasource.url=jdbc:h2:mem:" + databaseName() + ";DB_CLOSE_DELAY=-1");
+        properties.addAll(Arrays.asList(nodeProperties()));
+        return new SpringApplicationBuilder(EmployeeReimbursementApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+
+    protected UserAccount createUser(String email, Roles role) {
+        UserAccount account = new UserAccount(email, "hash");
+        account.setRole(role);
+        return nodeA.getBean(UserAccountRepository.class).save(account);
+    }
+
+    /**
+     * ReimbursementService#createReimbursement on the node, as the owner
+     */
+    protected ReimbursementResponseDTO createReimbursement(ConfigurableApplicationContext node, UserAccount owner,
+                                                           String description, long amount) {
+        CreateReimbursementDTO dto = CreateReimbursementDTO.builder()
+                .description(description)
+                .type(ReimbursementType.AIRLINE)
+                .amount(amount)
+                .build();
+        return signedInAs(owner, () -> node.getBean(ReimbursementService.class).createReimbursement(dto));
+    }
+
+    /**
+     * run with the user as the authenticated principal of the current thread
+     */
+    protected static <T> T signedInAs(UserAccount user, Callable<T> action) {
+        JwtPrincipal principal = new JwtPrincipal(user.getUserAccountId(), user.getEmail(), user.getRole());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, JwtPrincipal.authoritiesFor(user.getRole())));
+        try {
+            return action.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    protected static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "latch was not released in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
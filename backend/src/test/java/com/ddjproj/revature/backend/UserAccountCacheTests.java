@@ -0,0 +1,137 @@
+package com.ddjproj.revature.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.repository.CachingUserAccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * cached user account lookups: no hashes, invalidated by writes, bounded oldest first
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-account-cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "user.cache.max-entries=20"
+})
+class UserAccountCacheTests {
+
+    @Autowired
+    private CachingUserAccountRepository userAccountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void lookupsNeverReturnThePasswordHash() {
+        UserAccount account = userAccountRepository.save(new UserAccount("no-hash@example.com", "secret-hash"));
+        Long id = account.getUserAccountId();
+
+        // misses, then hits
+        for (int i = 0; i < 2; i++) {
+            assertNull(userAccountRepository.findById(id).orElseThrow().getPasswordHash());
+            assertNull(userAccountRepository.findByEmail("no-hash@example.com").orElseThrow().getPasswordHash());
+        }
+        assertEquals("secret-hash", userAccountRepository.findByIdWithCredentials(id).orElseThrow().getPasswordHash());
+    }
+
+    @Test
+    void returnedCopiesDoNotChangeTheCache() {
+        Long id = userAccountRepository.save(new UserAccount("copied@example.com", "hash")).getUserAccountId();
+
+        userAccountRepository.findById(id).orElseThrow().setRole(Roles.MANAGER);
+
+        assertEquals(Roles.RESTRICTED, userAccountRepository.findById(id).orElseThrow().getRole());
+    }
+
+    @Test
+    void writeInvalidatesTheCachedAccount() {
+        Long id = userAccountRepository.save(new UserAccount("promoted@example.com", "hash")).getUserAccountId();
+        assertEquals(Roles.RESTRICTED, userAccountRepository.findById(id).orElseThrow().getRole());
+        assertEquals(Roles.RESTRICTED, userAccountRepository.findByEmail("promoted@example.com").orElseThrow().getRole());
+
+        UserAccount stored = userAccountRepository.findByIdWithCredentials(id).orElseThrow();
+        stored.setRole(Roles.MANAGER);
+        userAccountRepository.save(stored);
+
+        assertEquals(Roles.MANAGER, userAccountRepository.findById(id).orElseThrow().getRole());
+        assertEquals(Roles.MANAGER, userAccountRepository.findByEmail("promoted@example.com").orElseThrow().getRole());
+    }
+
+    @Test
+    void rowReadBeforeTheWriteCommitsIsDroppedOnCommit() throws Exception {
+        Long id = userAccountRepository.save(new UserAccount("read-during-write@example.com", "hash")).getUserAccountId();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            UserAccount stored = userAccountRepository.findByIdWithCredentials(id).orElseThrow();
+            stored.setRole(Roles.EMPLOYEE);
+            userAccountRepository.save(stored);
+            written.countDown();
+            await(commit);
+        }));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+
+        // the write is not committed yet, so this reads and caches the old row
+        assertEquals(Roles.RESTRICTED, userAccountRepository.findById(id).orElseThrow().getRole());
+        commit.countDown();
+        write.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Roles.EMPLOYEE, userAccountRepository.findById(id).orElseThrow().getRole());
+    }
+
+    @Test
+    void fullCacheDropsTheOldestEntries() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(userAccountRepository.save(new UserAccount("bounded" + i + "@example.com", "hash")).getUserAccountId());
+        }
+        for (Long id : ids) {
+            userAccountRepository.findById(id);
+            // distinct expiry times
+            Thread.sleep(2);
+        }
+        assertTrue(userAccountRepository.size() <= 20);
+
+        // the most recently cached accounts are still there
+        double misses = idMisses();
+        for (Long id : ids.subList(ids.size() - 10, ids.size())) {
+            userAccountRepository.findById(id);
+        }
+        assertEquals(misses, idMisses());
+        // the first ones are not
+        userAccountRepository.findById(ids.get(0));
+        assertEquals(misses + 1, idMisses());
+    }
+
+    private double idMisses() {
+        return meterRegistry.get("user.cache.misses").tag("key", "id").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.ddjproj.revature.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.ReimbursementMapper;
+import com.ddjproj.revature.dto.reimbursement.CreateReimbursementDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.ddjproj.revature.exception.validation.UnauthorizedException;
+import com.ddjproj.revature.repository.ReimbursementChangeRepository;
+import com.ddjproj.revature.repository.ReimbursementRepository;
+import com.ddjproj.revature.repository.ReimbursementScope;
+import com.ddjproj.revature.repository.UserAccountRepository;
+import com.ddjproj.revature.service.auth.JwtPrincipal;
+import com.ddjproj.revature.service.auth.PermissionVersionTable;
+import com.ddjproj.revature.service.auth.TokenBlacklistService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * change stream on recording emitters: scope filtering, slow and stalled subscribers dropped
+ * alone, streams ending with their token or permissions
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reimbursement-event-stream;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ReimbursementEventStreamTests {
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    @Autowired
+    private ReimbursementService reimbursementService;
+
+    @Autowired
+    private ReimbursementRepository reimbursementRepository;
+
+    @Autowired
+    private ReimbursementChangeRepository reimbursementChangeRepository;
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private ReimbursementMapper reimbursementMapper;
+
+    @Autowired
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Autowired
+    private PermissionVersionTable permissionVersionTable;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ReimbursementEventStream stream;
+
+    @AfterEach
+    void stop() {
+        SecurityContextHolder.clearContext();
+        for (RecordingEmitter emitter : emitters) {
+            emitter.gate.countDown();
+        }
+        if (stream != null) {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    void changesReachOnlyTheSubscribersWhoseScopeCoversThem() throws Exception {
+        stream = stream(64);
+        RecordingEmitter owner = subscribe(ReimbursementScope.ownedBy(401L), employee(401L));
+        RecordingEmitter otherOwner = subscribe(ReimbursementScope.ownedBy(402L), employee(402L));
+        RecordingEmitter manager = subscribe(ReimbursementScope.all(), manager(403L));
+        RecordingEmitter approvedOnly = subscribe(ReimbursementScope.all().withStatus(ReimbursementStatus.APPROVED), manager(404L));
+
+        Long first = submitAs(401L);
+        Long second = submitAs(402L);
+        stream.publishChanges();
+
+        manager.awaitSent(2);
+        owner.awaitSent(1);
+        otherOwner.awaitSent(1);
+        assertEquals(List.of(first, second), manager.sent);
+        assertEquals(List.of(first), owner.sent);
+        assertEquals(List.of(second), otherOwner.sent);
+        // new submissions are pending
+        assertEquals(List.of(), approvedOnly.sent);
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        int bufferSize = 4;
+        stream = stream(bufferSize);
+        RecordingEmitter slow = subscribe(ReimbursementScope.all(), manager(411L));
+        RecordingEmitter fast = subscribe(ReimbursementScope.all(), manager(412L));
+        slow.gate = new CountDownLatch(1);
+
+        // the slow client takes the first heartbeat and stalls on it, its buffer then fills up
+        stream.heartbeat();
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        fast.awaitSent(1);
+        for (int i = 0; i <= bufferSize; i++) {
+            stream.heartbeat();
+            fast.awaitSent(i + 2);
+        }
+
+        assertEquals(1.0, meterRegistry.get("reimbursement.events.dropped_subscribers").counter().count());
+        assertEquals(1.0, meterRegistry.get("reimbursement.events.subscribers").gauge().value());
+
+        slow.gate.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        // what was buffered is discarded with the connection
+        assertEquals(List.of(HEARTBEAT), slow.sent);
+        assertFalse(fast.isCompleted());
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+        // every sender thread ends up blocked on a client that stopped reading
+        stream = stream(64, 2, 100L);
+        RecordingEmitter stalled = subscribe(ReimbursementScope.all(), manager(441L));
+        RecordingEmitter alsoStalled = subscribe(ReimbursementScope.all(), manager(442L));
+        RecordingEmitter reading = subscribe(ReimbursementScope.all(), manager(443L));
+        stalled.gate = new CountDownLatch(1);
+        alsoStalled.gate = new CountDownLatch(1);
+
+        stream.heartbeat();
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+        assertTrue(alsoStalled.sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(List.of(), reading.sent);
+
+        stream.dropStalledSends();
+
+        reading.awaitSent(1);
+        assertEquals(List.of(HEARTBEAT), reading.sent);
+        assertEquals(2.0, meterRegistry.get("reimbursement.events.stalled_subscribers").counter().count());
+        assertEquals(1.0, meterRegistry.get("reimbursement.events.subscribers").gauge().value());
+        // the stuck emitters are only completed once their send returns
+        assertFalse(stalled.isCompleted());
+        stalled.gate.countDown();
+        alsoStalled.gate.countDown();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(alsoStalled.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(reading.isCompleted());
+    }
+
+    @Test
+    void streamIsClosedOnceItsTokenExpires() throws Exception {
+        stream = stream(64);
+        long now = System.currentTimeMillis();
+        RecordingEmitter expiring = subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(421L, "expiring@example.com", Roles.MANAGER, 0L, now + 100, null));
+        RecordingEmitter valid = subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(422L, "valid@example.com", Roles.MANAGER, 0L, now + 60_000, null));
+
+        Thread.sleep(200);
+        stream.heartbeat();
+
+        assertTrue(expiring.completed.await(5, TimeUnit.SECONDS));
+        valid.awaitSent(1);
+        assertEquals(List.of(HEARTBEAT), valid.sent);
+        assertFalse(valid.isCompleted());
+        assertEquals(1.0, meterRegistry.get("reimbursement.events.closed_subscribers").counter().count());
+    }
+
+    @Test
+    void streamsOfALoggedOutTokenAreClosedRightAway() throws Exception {
+        stream = stream(64);
+        RecordingEmitter loggedOut = subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(431L, "logged-out@example.com", Roles.MANAGER, 0L, 0L, "digest-logged-out"));
+        RecordingEmitter other = subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(431L, "logged-out@example.com", Roles.MANAGER, 0L, 0L, "digest-other-device"));
+
+        assertEquals(1, stream.closeForToken("digest-logged-out"));
+
+        assertTrue(loggedOut.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(other.isCompleted());
+    }
+
+    @Test
+    void tokenWithoutPermissionVersionIsRefusedOnceItsRoleChanged() {
+        stream = stream(64);
+        UserAccount account = account("legacy-demoted@example.com", Roles.EMPLOYEE);
+
+        assertThrows(UnauthorizedException.class, () -> subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(account.getUserAccountId(), account.getEmail(), Roles.MANAGER)));
+        assertThrows(UnauthorizedException.class, () -> subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(-1L, "legacy-removed@example.com", Roles.MANAGER)));
+        assertFalse(stream.hasSubscribers());
+    }
+
+    @Test
+    void tokenWithoutPermissionVersionIsClosedOnTheNextPermissionChange() throws Exception {
+        stream = stream(64);
+        UserAccount account = account("legacy-current@example.com", Roles.MANAGER);
+        RecordingEmitter legacy = subscribe(ReimbursementScope.all(),
+                new JwtPrincipal(account.getUserAccountId(), account.getEmail(), Roles.MANAGER));
+
+        stream.heartbeat();
+        legacy.awaitSent(1);
+        permissionVersionTable.record(account.getUserAccountId(), account.getPermissionVersion() + 1);
+        stream.heartbeat();
+
+        assertTrue(legacy.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(HEARTBEAT), legacy.sent);
+    }
+
+    private ReimbursementEventStream stream(int bufferSize) {
+        return stream(bufferSize, 2, 10_000L);
+    }
+
+    private ReimbursementEventStream stream(int bufferSize, int senderThreads, long sendTimeoutMs) {
+        ReimbursementEventStream stream = new ReimbursementEventStream(reimbursementRepository,
+                reimbursementChangeRepository, changeCounters, userAccountRepository,
+                reimbursementMapper, tokenBlacklistService, permissionVersionTable, meterRegistry,
+                bufferSize, 100, senderThreads, 1_800_000L, sendTimeoutMs, 1000L, 900_000L) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter(timeout);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        // no subscribers yet: moves the cursor past everything already committed
+        stream.publishChanges();
+        return stream;
+    }
+
+    private RecordingEmitter subscribe(ReimbursementScope scope, JwtPrincipal principal) throws Exception {
+        return (RecordingEmitter) stream.subscribe(scope, principal);
+    }
+
+    private Long submitAs(long userId) throws Exception {
+        JwtPrincipal principal = employee(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, JwtPrincipal.authoritiesFor(Roles.EMPLOYEE)));
+        try {
+            return reimbursementService.createReimbursement(CreateReimbursementDTO.builder()
+                    .description("client dinner")
+                    .type(ReimbursementType.FOOD)
+                    .amount(8500L)
+                    .build()).getId();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private UserAccount account(String email, Roles role) {
+        UserAccount account = new UserAccount(email, "hash");
+        account.setRole(role);
+        return userAccountRepository.save(account);
+    }
+
+    // tokens issued with a permission version, current as long as no change is recorded
+    private static JwtPrincipal employee(long id) {
+        return new JwtPrincipal(id, "employee" + id + "@example.com", Roles.EMPLOYEE, 0L, 0L, null);
+    }
+
+    private static JwtPrincipal manager(long id) {
+        return new JwtPrincipal(id, "manager" + id + "@example.com", Roles.MANAGER, 0L, 0L, null);
+    }
+
+
+    /**
+     * records reimbursement ids and heartbeats instead of writing them; sends wait for the gate
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        private RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            List<Object> ids = new ArrayList<>();
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof ReimbursementResponseDTO) {
+                    ids.add(((ReimbursementResponseDTO) data.getData()).getId());
+                }
+            }
+            sent.add(ids.isEmpty() ? HEARTBEAT : ids.get(0));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private boolean isCompleted() {
+            return completed.getCount() == 0;
+        }
+
+        private void awaitSent(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(sent.size() >= count, "sent " + sent);
+        }
+    }
+}
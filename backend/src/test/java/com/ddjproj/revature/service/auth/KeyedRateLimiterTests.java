@@ -0,0 +1,120 @@
+package com.ddjproj.revature.service.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * GCRA timing and bounded key tracking, on a manual clock
+ */
+class KeyedRateLimiterTests {
+
+    // 5 per minute: one token every 12 s, bursts of 5
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(12);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void allowsTheBurstThenOneRequestPerInterval() {
+        KeyedRateLimiter limiter = limiter(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire("alice"));
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("alice"));
+
+        advance(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(INTERVAL - TimeUnit.SECONDS.toNanos(5), limiter.tryAcquire("alice"));
+
+        advance(INTERVAL - TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0L, limiter.tryAcquire("alice"));
+        assertEquals(INTERVAL, limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void idleBucketRefillsToAFullBurst() {
+        KeyedRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("bob");
+        }
+
+        advance(5 * INTERVAL);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire("bob"));
+        }
+        assertTrue(limiter.tryAcquire("bob") > 0);
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        KeyedRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("carol");
+        }
+
+        assertTrue(limiter.tryAcquire("carol") > 0);
+        assertEquals(0L, limiter.tryAcquire("dave"));
+    }
+
+    @Test
+    void newKeyReplacesTheLeastRecentlyUsedFullBucket() {
+        KeyedRateLimiter limiter = limiter(2);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        // both full again, then a is used
+        advance(INTERVAL);
+        limiter.tryAcquire("a");
+
+        assertEquals(0L, limiter.tryAcquire("c"));
+        assertEquals(2, limiter.size());
+        // b was dropped, a is still tracked and not full: the next new key waits for it
+        assertEquals(INTERVAL, limiter.tryAcquire("d"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void floodOfNewKeysNeverResetsALimitedKey() {
+        KeyedRateLimiter limiter = limiter(2);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("target");
+        }
+        long wait = limiter.tryAcquire("target");
+        assertTrue(wait > 0);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("flood-" + i);
+        }
+
+        assertEquals(wait, limiter.tryAcquire("target"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullBuckets() {
+        KeyedRateLimiter limiter = limiter(100);
+        limiter.tryAcquire("idle");
+        advance(INTERVAL);
+        limiter.tryAcquire("busy");
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+        // dropping the full bucket changed nothing for its key
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire("idle"));
+        }
+    }
+
+    private KeyedRateLimiter limiter(int maxKeys) {
+        // one shard, so eviction order does not depend on key hashes
+        return new KeyedRateLimiter(5, 1, TimeUnit.MINUTES, maxKeys, 1, clock::get);
+    }
+
+    private void advance(long nanos) {
+        clock.addAndGet(nanos);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ddjproj.revature.service.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * shared, read only claims; expiry and bounded size
+ */
+class VerifiedTokenCacheTests {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void cachedClaimsAreReadOnly() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("digest", claims("alice@example.com", HOUR));
+
+        Claims cached = cache.get("digest");
+        assertThrows(UnsupportedOperationException.class, () -> cached.setSubject("mallory@example.com"));
+        assertThrows(UnsupportedOperationException.class, () -> cached.put("role", "MANAGER"));
+        assertThrows(UnsupportedOperationException.class, () -> cached.remove("sub"));
+        assertThrows(UnsupportedOperationException.class, () -> cached.entrySet().clear());
+        assertEquals("alice@example.com", cache.get("digest").getSubject());
+    }
+
+    @Test
+    void cacheKeepsItsOwnCopy() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims parsed = claims("bob@example.com", HOUR);
+        Claims returned = cache.put("digest", parsed);
+
+        parsed.setSubject("mallory@example.com");
+
+        assertEquals("bob@example.com", cache.get("digest").getSubject());
+        assertSame(returned, cache.get("digest"));
+    }
+
+    @Test
+    void typedLookupsConvertLikeParsedClaims() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims parsed = claims("carol@example.com", HOUR);
+        // numbers small enough to be read back from JSON as Integer
+        parsed.put("uid", 42);
+        cache.put("digest", parsed);
+
+        assertEquals(42L, cache.get("digest").get("uid", Long.class));
+        assertNotNull(cache.get("digest").getExpiration());
+    }
+
+    @Test
+    void expiredEntryIsNotReturned() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("digest", claims("dave@example.com", -1000L));
+
+        assertNull(cache.get("digest"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void claimsWithoutExpirationAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims returned = cache.put("digest", Jwts.claims(Map.of("sub", "erin@example.com")));
+
+        assertEquals("erin@example.com", returned.getSubject());
+        assertNull(cache.get("digest"));
+    }
+
+    @Test
+    void fullCacheDropsTheEntriesExpiringSoonest() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put("digest-" + i, claims("user" + i + "@example.com", HOUR + i * 1000L));
+        }
+
+        cache.put("digest-new", claims("new@example.com", HOUR));
+
+        assertTrue(cache.size() <= 10);
+        assertNull(cache.get("digest-0"));
+        assertNotNull(cache.get("digest-9"));
+        assertNotNull(cache.get("digest-new"));
+    }
+
+    private static Claims claims(String subject, long expiresInMs) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(subject);
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresInMs));
+        return claims;
+    }
+}
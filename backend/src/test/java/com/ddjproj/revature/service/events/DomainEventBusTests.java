@@ -0,0 +1,212 @@
+package com.ddjproj.revature.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ring buffer bus with a single, controllable consumer
+ */
+class DomainEventBusTests {
+
+    private static final int RING = 4;
+    private static final int BATCH = 2;
+    private static final int OVERFLOW = 64;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DomainEventBus bus;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (bus != null) {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void deliversInOrderAcrossRingWraps() throws Exception {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.DROP);
+        bus = start(consumer);
+
+        for (int i = 0; i < RING * 3; i++) {
+            bus.publish(new Numbered(i));
+            consumer.awaitReceived(i + 1);
+        }
+
+        assertEquals(range(0, RING * 3), consumer.received());
+        assertEquals(0.0, counter("domain_events.dropped"));
+    }
+
+    @Test
+    void dropConsumerSkipsOverwrittenEventsAndCountsThem() throws Exception {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.DROP);
+        bus = start(consumer);
+        fallBehind(consumer, 10);
+
+        consumer.awaitReceived(1 + RING);
+        // 1..6 were overwritten while the consumer held event 0
+        assertEquals(List.of(0, 7, 8, 9, 10), consumer.received());
+        assertEquals(6.0, counter("domain_events.dropped"));
+    }
+
+    @Test
+    void spillConsumerLosesNothing() throws Exception {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.SPILL);
+        bus = start(consumer);
+        fallBehind(consumer, 10);
+
+        consumer.awaitReceived(11);
+        assertEquals(range(0, 11), consumer.received());
+        assertEquals(6.0, counter("domain_events.spilled"));
+        assertEquals(0.0, counter("domain_events.dropped"));
+    }
+
+    @Test
+    void spillConsumerDropsOnceItsOverflowQueueIsFull() throws Exception {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.SPILL);
+        bus = start(consumer, 3);
+        fallBehind(consumer, 10);
+
+        consumer.awaitReceived(8);
+        // 1..3 fit the overflow queue, 4..6 were overwritten after it filled up
+        assertEquals(List.of(0, 1, 2, 3, 7, 8, 9, 10), consumer.received());
+        assertEquals(3.0, counter("domain_events.spilled"));
+        assertEquals(3.0, counter("domain_events.dropped"));
+    }
+
+    @Test
+    void publishingNeverWaitsForASpillConsumer() {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.SPILL);
+        consumer.gate = new CountDownLatch(1);
+        bus = start(consumer);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            bus.publish(new Numbered(i));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        consumer.gate.countDown();
+
+        assertTrue(elapsedMs < 2000, "publishing took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void shutdownDrainsEverythingPublished() throws Exception {
+        RecordingConsumer consumer = new RecordingConsumer(DomainEventConsumer.Backpressure.SPILL);
+        consumer.delayMs = 1;
+        bus = start(consumer);
+
+        for (int i = 0; i < 50; i++) {
+            bus.publish(new Numbered(i));
+        }
+        bus.shutdown();
+        bus = null;
+
+        assertEquals(range(0, 50), consumer.received());
+    }
+
+    /**
+     * the consumer takes event 0 and is held there while 1..last are published
+     */
+    private void fallBehind(RecordingConsumer consumer, int last) throws InterruptedException {
+        consumer.gate = new CountDownLatch(1);
+        bus.publish(new Numbered(0));
+        assertTrue(consumer.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= last; i++) {
+            bus.publish(new Numbered(i));
+        }
+        consumer.gate.countDown();
+    }
+
+    private DomainEventBus start(DomainEventConsumer consumer) {
+        return start(consumer, OVERFLOW);
+    }
+
+    private DomainEventBus start(DomainEventConsumer consumer, int overflowCapacity) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.<String, Object>of("consumer", consumer));
+        DomainEventBus started = new DomainEventBus(beans.getBeanProvider(DomainEventConsumer.class),
+                meterRegistry, RING, BATCH, overflowCapacity);
+        started.start();
+        return started;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("consumer", "recording").counter().count();
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+
+
+    private static final class Numbered extends DomainEvent {
+        private final int number;
+
+        private Numbered(int number) {
+            this.number = number;
+        }
+    }
+
+    private static final class RecordingConsumer implements DomainEventConsumer {
+        private final Backpressure backpressure;
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile long delayMs;
+
+        private RecordingConsumer(Backpressure backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public Backpressure getBackpressure() {
+            return backpressure;
+        }
+
+        @Override
+        public void onEvents(List<DomainEvent> events) throws Exception {
+            entered.countDown();
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.await(5, TimeUnit.SECONDS);
+            }
+            for (DomainEvent event : events) {
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+                received.add(((Numbered) event).number);
+            }
+        }
+
+        List<Integer> received() {
+            return new ArrayList<>(received);
+        }
+
+        void awaitReceived(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (received.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(received.size() >= count, "received " + received);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ddjproj.revature.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ddjproj.revature.domain.entity.PermissionChange;
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.SigningKey;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.repository.PermissionChangeRepository;
+import com.ddjproj.revature.repository.SigningKeyRepository;
+
+/**
+ * Builds the objects under measurement without a Spring context.
+ * Field injected / lifecycle members are set through reflection the same way the container would.
+ */
+final class BenchmarkFixtures {
+
+    // fixed base64 AES key, the signing key service requires one
+    static final String KEY_ENCRYPTION_KEY = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+    private BenchmarkFixtures(){
+    }
+
+    static UserAccount userAccount(long id, Roles role){
+        UserAccount account = new UserAccount("user" + id + "@example.com", "hash");
+        account.setUserAccountId(id);
+        account.setRole(role);
+        return account;
+    }
+
+    static Reimbursement reimbursement(long id, long userId){
+        Reimbursement reimbursement = new Reimbursement();
+        reimbursement.setId(id);
+        reimbursement.setUserId(userId);
+        reimbursement.setAmount(100L + id % 5000);
+        reimbursement.setDescription("Client visit expenses #" + id);
+        reimbursement.setType(ReimbursementType.values()[(int) (id % ReimbursementType.values().length)]);
+        return reimbursement;
+    }
+
+    static List<Reimbursement> reimbursements(int count){
+        List<Reimbursement> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++){
+            result.add(reimbursement(i, i % 100));
+        }
+        return result;
+    }
+
+    static void setField(Object target, String name, Object value){
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set " + name, e);
+        }
+    }
+
+    static void invoke(Object target, String name){
+        try {
+            Method method = target.getClass().getDeclaredMethod(name);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to invoke " + name, e);
+        }
+    }
+
+    /**
+     * signing_key table stand in
+     */
+    static final class InMemorySigningKeyRepository implements SigningKeyRepository {
+        private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+
+        @Override
+        public SigningKey save(SigningKey signingKey){
+            keys.put(signingKey.getKid(), signingKey);
+            return signingKey;
+        }
+
+        @Override
+        public List<SigningKey> findAllOrderByCreatedAt(){
+            List<SigningKey> result = new ArrayList<>(keys.values());
+            result.sort(Comparator.comparing(SigningKey::getCreatedAt));
+            return result;
+        }
+
+        @Override
+        public void deleteById(String kid){
+            keys.remove(kid);
+        }
+    }
+
+    /**
+     * permission_change table stand in, empty unless a benchmark records changes
+     */
+    static final class InMemoryPermissionChangeRepository implements PermissionChangeRepository {
+        private final List<PermissionChange> changes = new ArrayList<>();
+
+        @Override
+        public synchronized PermissionChange save(PermissionChange permissionChange){
+            permissionChange.setChangeId((long) changes.size() + 1);
+            changes.add(permissionChange);
+            return permissionChange;
+        }
+
+        @Override
+        public synchronized List<PermissionChange> findByChangeIdGreaterThan(Long changeId, int limit){
+            List<PermissionChange> result = new ArrayList<>();
+            for (PermissionChange change : changes){
+                if (change.getChangeId() > changeId && result.size() < limit){
+                    result.add(change);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized int deleteByChangedAtBefore(Long cutoff){
+            int before = changes.size();
+            changes.removeIf(change -> change.getChangedAt() < cutoff);
+            return before - changes.size();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ddjproj.revature.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.service.auth.JwtService;
+import com.ddjproj.revature.service.auth.PermissionVersionTable;
+import com.ddjproj.revature.service.auth.SigningKeyService;
+import com.ddjproj.revature.service.auth.VerifiedTokenCache;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * token generate / parse / validate.
+ * cacheEntries=0 measures a full signature verification on every parse, the default measures the
+ * verified claims cache hit path the filter takes for repeated requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final long EXPIRATION_MS = 900_000L;
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    private JwtService jwtService;
+    private UserAccount userAccount;
+    private UserDetails userDetails;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setup(){
+        SigningKeyService signingKeyService = new SigningKeyService(
+                new BenchmarkFixtures.InMemorySigningKeyRepository(), 86_400_000L, EXPIRATION_MS, 60_000L, 600_000L,
+                BenchmarkFixtures.KEY_ENCRYPTION_KEY);
+        BenchmarkFixtures.invoke(signingKeyService, "init");
+
+        jwtService = new JwtService(new VerifiedTokenCache(cacheEntries), new PermissionVersionTable(
+                new BenchmarkFixtures.InMemoryPermissionChangeRepository(), EXPIRATION_MS, 30_000L), signingKeyService);
+        BenchmarkFixtures.setField(jwtService, "secretKey", "");
+        BenchmarkFixtures.setField(jwtService, "jwtExpiration", EXPIRATION_MS);
+        BenchmarkFixtures.invoke(jwtService, "initSigningKey");
+
+        userAccount = BenchmarkFixtures.userAccount(42L, Roles.EMPLOYEE);
+        userDetails = User.withUsername(userAccount.getEmail()).password("hash").authorities("EMPLOYEE").build();
+        token = jwtService.generateToken(userAccount);
+        claims = jwtService.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public String generate(){
+        return jwtService.generateToken(userAccount);
+    }
+
+    @Benchmark
+    public Claims parse(){
+        return jwtService.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public boolean validate(){
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean parseAndValidate(){
+        return jwtService.isTokenValid(jwtService.parseVerifiedClaims(token), userDetails);
+    }
+}
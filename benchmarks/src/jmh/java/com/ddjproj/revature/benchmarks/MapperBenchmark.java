@@ -0,0 +1,51 @@
+package com.ddjproj.revature.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.dto.ReimbursementMapper;
+import com.ddjproj.revature.dto.UserAccountMapper;
+import com.ddjproj.revature.dto.account.UserAccountDTO;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+
+/**
+ * entity to DTO conversion done for every returned row
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private ReimbursementMapper reimbursementMapper;
+    private UserAccountMapper userAccountMapper;
+    private Reimbursement reimbursement;
+    private UserAccount userAccount;
+
+    @Setup
+    public void setup(){
+        reimbursementMapper = new ReimbursementMapper();
+        userAccountMapper = new UserAccountMapper();
+        reimbursement = BenchmarkFixtures.reimbursement(1L, 7L);
+        userAccount = BenchmarkFixtures.userAccount(7L, Roles.MANAGER);
+    }
+
+    @Benchmark
+    public ReimbursementResponseDTO reimbursementToResponseDto(){
+        return reimbursementMapper.toResponseDto(reimbursement);
+    }
+
+    @Benchmark
+    public UserAccountDTO userAccountToDto(){
+        return userAccountMapper.toDto(userAccount);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ddjproj.revature.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.entity.UserAccount;
+import com.ddjproj.revature.domain.enums.Permissions;
+import com.ddjproj.revature.domain.enums.Roles;
+import com.ddjproj.revature.service.PermissionEvaluatorImpl;
+
+/**
+ * role permission lookup and the per request / per resource permission check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PermissionBenchmark {
+
+    @Param({"EMPLOYEE", "MANAGER", "RESTRICTED"})
+    public Roles role;
+
+    private PermissionEvaluatorImpl permissionEvaluator;
+    private UserAccount userAccount;
+    private Reimbursement ownReimbursement;
+    private Reimbursement otherReimbursement;
+
+    @Setup
+    public void setup(){
+        permissionEvaluator = new PermissionEvaluatorImpl();
+        userAccount = BenchmarkFixtures.userAccount(7L, role);
+        ownReimbursement = BenchmarkFixtures.reimbursement(1L, 7L);
+        otherReimbursement = BenchmarkFixtures.reimbursement(2L, 8L);
+    }
+
+    @Benchmark
+    public Set<Permissions> rolePermissions(){
+        return role.getPermissions();
+    }
+
+    @Benchmark
+    public boolean hasPermissionNoResource(){
+        return permissionEvaluator.hasPermission(userAccount, Permissions.CREATE_REIMBURSEMENT_REQUEST, null);
+    }
+
+    @Benchmark
+    public boolean hasPermissionOwnResource(){
+        return permissionEvaluator.hasPermission(userAccount, Permissions.EDIT_PENDING_REIMBURSEMENT, ownReimbursement);
+    }
+
+    @Benchmark
+    public boolean hasPermissionOtherResource(){
+        return permissionEvaluator.hasPermission(userAccount, Permissions.VIEW_SINGLE_REIMBURSEMENT_REQUEST, otherReimbursement);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ddjproj.revature.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ddjproj.revature.dto.ReimbursementMapper;
+import com.ddjproj.revature.dto.reimbursement.ReimbursementResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * response body cost of the reimbursement list endpoints, by result size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ReimbursementMapper reimbursementMapper;
+    private List<ReimbursementResponseDTO> responses;
+
+    @Setup
+    public void setup(){
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        reimbursementMapper = new ReimbursementMapper();
+        responses = BenchmarkFixtures.reimbursements(size).stream()
+                .map(reimbursementMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ddjproj.revature.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Change number of one table, shared by every backend node.
+ * Incremented in the same transaction as each write to the table; the row stays locked until that
+ * transaction commits, so numbers become visible in the order they were taken.
+ */
+@Entity
+@Table(name = "change_counter")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChangeCounter {
+    @Id
+    @Column(name = "counter_name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long value;
+
+    public ChangeCounter(String name, Long value){
+        this.name = name;
+        this.value = value;
+    }
+}
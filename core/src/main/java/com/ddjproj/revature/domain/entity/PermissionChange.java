@@ -0,0 +1,40 @@
+package com.ddjproj.revature.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A role change or account removal, shared by every backend node.
+ * Tokens issued for the user with a lower permission version are no longer accepted.
+ * changeId is an identity column so it can be used as an increasing refresh cursor.
+ */
+@Entity
+@Table(name = "permission_change", indexes = {
+        @Index(name = "idx_permission_change_changed_at", columnList = "changed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PermissionChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id", nullable = false)
+    private Long changeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "permission_version", nullable = false)
+    private Long permissionVersion;  // user_account.permission_version after the change
+
+    @Column(name = "changed_at", nullable = false)
+    private Long changedAt;  // epoch millis
+
+    public PermissionChange(Long userId, Long permissionVersion, Long changedAt){
+        this.userId = userId;
+        this.permissionVersion = permissionVersion;
+        this.changedAt = changedAt;
+    }
+}
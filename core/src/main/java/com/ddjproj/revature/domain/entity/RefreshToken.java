@@ -0,0 +1,52 @@
+package com.ddjproj.revature.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Server tracked refresh token. Only the digest of the opaque token value is stored.
+ * Every refresh consumes the token and issues a new one in the same family; presenting a consumed
+ * token again revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "refresh_token_id", nullable = false)
+    private Long id;
+
+    @Column(name = "token_digest", unique = true, nullable = false, length = 64)
+    private String tokenDigest;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;  // epoch millis
+
+    @Column(nullable = false)
+    private boolean used = false;  // consumed by a rotation
+
+    @Column(nullable = false)
+    private boolean revoked = false;
+
+    public RefreshToken(String tokenDigest, String familyId, Long userId, Long expiresAt){
+        this.tokenDigest = tokenDigest;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+}
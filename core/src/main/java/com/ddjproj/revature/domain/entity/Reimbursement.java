@@ -10,7 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reimbursement")
+// composite indexes match the list access paths: owner (+ status) and status, each ordered by id
+@Table(name = "reimbursement", indexes = {
+        @Index(name = "idx_reimbursement_user_id", columnList = "user_id, reimbursement_id"),
+        @Index(name = "idx_reimbursement_user_status_id", columnList = "user_id, status, reimbursement_id"),
+        @Index(name = "idx_reimbursement_status_id", columnList = "status, reimbursement_id")
+})
 @Getter
 @Setter
 public class Reimbursement {
@@ -36,6 +41,11 @@ public class Reimbursement {
     @Column(nullable = false)
     private ReimbursementStatus status = ReimbursementStatus.PENDING;
 
+    // incremented by every write, conditional updates match on it to detect concurrent changes
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public Reimbursement() {
         this.status = ReimbursementStatus.PENDING;
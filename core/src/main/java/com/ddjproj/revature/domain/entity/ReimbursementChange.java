@@ -0,0 +1,93 @@
+package com.ddjproj.revature.domain.entity;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One write to a reimbursement, shared by every backend node: the grouping columns before and
+ * after it, so other nodes can apply it to their aggregates without reading the row.
+ * Inserted in the writing transaction together with the increment of the owner's counter stripe
+ * (change_counter), whose new value is the seq. The stripe row stays locked until commit, so per
+ * stripe the seqs become visible in order and without gaps; changeId only orders the rows of one
+ * write. Rows are pruned once older than reimbursement.changes.retention-ms.
+ */
+@Entity
+@Table(name = "reimbursement_change", indexes = {
+        @Index(name = "idx_reimbursement_change_stripe_seq", columnList = "change_stripe, change_seq, change_id"),
+        @Index(name = "idx_reimbursement_change_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReimbursementChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "change_id", nullable = false)
+    private Long changeId;
+
+    @Column(name = "change_stripe", nullable = false)
+    private Integer stripe;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long seq;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;  // node the write went through
+
+    @Column(name = "reimbursement_id", nullable = false)
+    private Long reimbursementId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // null for a created row
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status")
+    private ReimbursementStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_type")
+    private ReimbursementType oldType;
+
+    @Column(name = "old_amount")
+    private Long oldAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false)
+    private ReimbursementStatus newStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_type", nullable = false)
+    private ReimbursementType newType;
+
+    @Column(name = "new_amount", nullable = false)
+    private Long newAmount;
+
+    @Column(name = "version", nullable = false)
+    private Long version;  // reimbursement.version after the write
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;  // epoch millis, only for pruning
+
+    // a created row
+    public ReimbursementChange(Reimbursement created){
+        this(created, null, null, null);
+    }
+
+    // a changed row, with its grouping columns from before the write
+    public ReimbursementChange(Reimbursement written, ReimbursementStatus oldStatus, ReimbursementType oldType, Long oldAmount){
+        this.reimbursementId = written.getId();
+        this.userId = written.getUserId();
+        this.oldStatus = oldStatus;
+        this.oldType = oldType;
+        this.oldAmount = oldAmount;
+        this.newStatus = written.getStatus();
+        this.newType = written.getType();
+        this.newAmount = written.getAmount();
+        this.version = written.getVersion() != null ? written.getVersion() : 0L;
+    }
+}
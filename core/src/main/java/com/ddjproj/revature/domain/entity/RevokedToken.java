@@ -0,0 +1,40 @@
+package com.ddjproj.revature.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A logged out / revoked JWT, shared by every backend node.
+ * revocationId is an identity column so it can be used as an increasing refresh cursor.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "revocation_id", nullable = false)
+    private Long revocationId;
+
+    // base64url SHA-256 of the raw token, never the token itself
+    @Column(name = "token_digest", unique = true, nullable = false, length = 64)
+    private String tokenDigest;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;  // token expiration, epoch millis
+
+    @Column(name = "revoked_at", nullable = false)
+    private Long revokedAt;  // epoch millis
+
+    public RevokedToken(String tokenDigest, Long expiresAt, Long revokedAt){
+        this.tokenDigest = tokenDigest;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+}
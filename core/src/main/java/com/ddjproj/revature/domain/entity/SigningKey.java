@@ -0,0 +1,54 @@
+package com.ddjproj.revature.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Asymmetric JWT signing key, shared by every backend node.
+ * The public key is stored base64 (X.509), the private key (PKCS#8) only encrypted under a
+ * key-encryption key kept outside the database; the newest key whose activation time has passed
+ * signs, a key is published before it activates and older keys stay available for verification
+ * until every token they signed has expired.
+ */
+@Entity
+@Table(name = "signing_key")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SigningKey {
+    @Id
+    @Column(name = "kid", nullable = false, length = 36)
+    private String kid;
+
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+
+    // encrypted, see SigningKeyService
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;  // epoch millis
+
+    // epoch millis the key starts signing at, null for keys stored before (signing from createdAt)
+    @Column(name = "activates_at")
+    private Long activatesAt;
+
+    public SigningKey(String kid, String algorithm, String publicKey, String privateKey, Long createdAt){
+        this(kid, algorithm, publicKey, privateKey, createdAt, null);
+    }
+
+    public SigningKey(String kid, String algorithm, String publicKey, String privateKey, Long createdAt, Long activatesAt){
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = createdAt;
+        this.activatesAt = activatesAt;
+    }
+}
@@ -11,7 +11,7 @@ import lombok.Setter;
 import java.util.Set;
 
 @Entity
-@Table(name="user_account")
+@Table(name="user_account", indexes = @Index(name = "idx_user_account_role", columnList = "role"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,6 +32,10 @@ public class UserAccount {
     @Column(nullable = false)
     private Roles role = Roles.RESTRICTED;
 
+    // incremented with every role change / removal, tokens carry the version they were issued with
+    @Column(name = "permission_version", nullable = false)
+    private Long permissionVersion = 0L;
+
     /**
      * New account creation constructor for a UserAccount instance. Automatically sets user role to restricted
      *
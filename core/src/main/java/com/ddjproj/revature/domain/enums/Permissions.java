@@ -51,10 +51,25 @@ public enum Permissions {
 
     private final String description;
 
+    // every permission needs its own bit of the long masks
+    static {
+        if (values().length > Long.SIZE){
+            throw new IllegalStateException("Permission masks hold at most " + Long.SIZE
+                    + " permissions, found " + values().length);
+        }
+    }
+
     Permissions(String description){
         this.description = description;
     }
 
+    /**
+     * @return long bit for this permission, used by the Roles permission masks
+     */
+    public long mask(){
+        return 1L << ordinal();
+    }
+
     /**
      * @return String nameOfPermission
      */
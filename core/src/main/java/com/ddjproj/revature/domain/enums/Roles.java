@@ -1,6 +1,8 @@
 package com.ddjproj.revature.domain.enums;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import static com.ddjproj.revature.domain.enums.Permissions.*;
@@ -33,13 +35,52 @@ public enum Roles {
     )
 );
 private final Set<Permissions> permissions;
+// precomputed once per role, a permission check is a single AND against the mask
+private final long permissionMask;
+private final Set<String> permissionNames;
 
 Roles(Set<Permissions> permissions){
-    this.permissions = EnumSet.copyOf(permissions);
+    this.permissions = Collections.unmodifiableSet(EnumSet.copyOf(permissions));
+    long mask = 0L;
+    Set<String> names = new LinkedHashSet<>();
+    for (Permissions permission : permissions){
+        mask |= permission.mask();
+        names.add(permission.name());
+    }
+    this.permissionMask = mask;
+    this.permissionNames = Collections.unmodifiableSet(names);
 }
 
+/**
+ *
+ * @return shared, unmodifiable permission set of this role
+ */
 public Set<Permissions> getPermissions() {
-    return EnumSet.copyOf(permissions);
+    return permissions;
+}
+
+/**
+ *
+ * @return shared, unmodifiable permission names of this role
+ */
+public Set<String> getPermissionNames() {
+    return permissionNames;
 }
-    }
 
+/**
+ *
+ * @return bitmask over Permissions.ordinal() of the permissions held by this role
+ */
+public long getPermissionMask() {
+    return permissionMask;
+}
+
+/**
+ *
+ * @param permission
+ * @return true if the role holds the permission
+ */
+public boolean hasPermission(Permissions permission) {
+    return (permissionMask & permission.mask()) != 0L;
+}
+    }
@@ -0,0 +1,17 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ChangeCounter;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface ChangeCounterRepository {
+    ChangeCounter save(ChangeCounter changeCounter);
+    boolean existsByName(String name);
+    Map<String, Long> findAllValues();
+    Optional<Long> findValue(String name);
+
+    // increments the counter, locking its row until commit. empty if there is no such counter
+    Optional<Long> increment(String name);
+
+}
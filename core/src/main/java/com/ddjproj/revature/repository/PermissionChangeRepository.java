@@ -0,0 +1,12 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.PermissionChange;
+
+import java.util.List;
+
+public interface PermissionChangeRepository {
+    PermissionChange save(PermissionChange permissionChange);
+    List<PermissionChange> findByChangeIdGreaterThan(Long changeId, int limit);
+    int deleteByChangedAtBefore(Long cutoff);
+
+}
@@ -0,0 +1,15 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RefreshToken;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository {
+    RefreshToken save(RefreshToken refreshToken);
+    Optional<RefreshToken> findByTokenDigest(String tokenDigest);
+    boolean markUsed(Long id);
+    void revokeFamily(String familyId);
+    void revokeAllForUser(Long userId);
+    int deleteByExpiresAtBefore(Long now);
+
+}
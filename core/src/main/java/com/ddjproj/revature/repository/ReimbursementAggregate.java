@@ -0,0 +1,54 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
+
+/**
+ * one GROUP BY row over reimbursements: count and amount sum of a status / type or user group
+ */
+public class ReimbursementAggregate {
+
+    private final ReimbursementStatus status;
+    private final ReimbursementType type;
+    private final Long userId;
+    private final long count;
+    private final long sum;
+
+    // grouped by status and type
+    public ReimbursementAggregate(ReimbursementStatus status, ReimbursementType type, Long count, Long sum) {
+        this(status, type, null, count, sum);
+    }
+
+    // grouped by user
+    public ReimbursementAggregate(Long userId, Long count, Long sum) {
+        this(null, null, userId, count, sum);
+    }
+
+    private ReimbursementAggregate(ReimbursementStatus status, ReimbursementType type, Long userId, Long count, Long sum) {
+        this.status = status;
+        this.type = type;
+        this.userId = userId;
+        this.count = count != null ? count : 0L;
+        this.sum = sum != null ? sum : 0L;
+    }
+
+    public ReimbursementStatus getStatus() {
+        return status;
+    }
+
+    public ReimbursementType getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+}
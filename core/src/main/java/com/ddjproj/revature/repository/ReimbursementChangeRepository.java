@@ -0,0 +1,15 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.ReimbursementChange;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReimbursementChangeRepository {
+    List<ReimbursementChange> saveAll(Collection<ReimbursementChange> changes);
+
+    // keyset on (seq, changeId) within one stripe, up to and including upToSeq
+    List<ReimbursementChange> findAfter(int stripe, long seq, long afterChangeId, long upToSeq, int limit);
+    int deleteByCreatedAtBefore(Long cutoff);
+
+}
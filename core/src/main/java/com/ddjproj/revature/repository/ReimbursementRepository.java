@@ -1,10 +1,13 @@
 package com.ddjproj.revature.repository;
 
 import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+import com.ddjproj.revature.domain.enums.ReimbursementType;
 import com.ddjproj.revature.domain.entity.Reimbursement;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReimbursementRepository {
     Reimbursement save(Reimbursement reimbursement);
@@ -13,6 +16,21 @@ public interface ReimbursementRepository {
     List<Reimbursement> findByUserId(Long userId);
     List<Reimbursement> findByStatus(ReimbursementStatus status);
     List<Reimbursement> findByUserIdAndStatus(Long userId, ReimbursementStatus status);
+    List<Reimbursement> findAll(ReimbursementScope scope);
+    List<Reimbursement> findAllByIds(Collection<Long> ids);
+    List<Reimbursement> findPage(ReimbursementScope scope, Long beforeId, int limit);
+    Stream<Reimbursement> streamAll(ReimbursementScope scope, ReimbursementType type, Long fromId, Long toId);
+    Optional<Reimbursement> findById(Long id, ReimbursementScope scope);
+    boolean existsById(Long id);
+    Optional<ReimbursementVersion> findVersionById(Long id);
+    List<Long> findExistingIds(Collection<Long> ids);
+    List<Reimbursement> lockByIdsAndStatus(Collection<Long> ids, ReimbursementStatus status);
+    int updateStatus(Collection<Long> ids, ReimbursementStatus from, ReimbursementStatus to);
+    boolean updateStatus(Long id, ReimbursementStatus from, ReimbursementStatus to);
+    boolean updateDetails(Long id, ReimbursementScope scope, String description, ReimbursementType type, Long amount);
+    Optional<Reimbursement> lockById(Long id);
+    List<ReimbursementAggregate> aggregateByStatusAndType();
+    List<ReimbursementAggregate> aggregateByUser();
     void deleteById(Long id);
 
 }
@@ -0,0 +1,139 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.Reimbursement;
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+
+import java.util.Objects;
+
+/**
+ * Row-level predicate over reimbursements: the rows a caller may see for a permission.
+ * Built by the PermissionEvaluator and applied by the repository in the query itself, so rows the
+ * caller may not access are never loaded. A null owner / status means no restriction on that column.
+ */
+public final class ReimbursementScope {
+
+    private static final ReimbursementScope ALL = new ReimbursementScope(null, null, false);
+    private static final ReimbursementScope NONE = new ReimbursementScope(null, null, true);
+
+    private final Long ownerId;
+    private final ReimbursementStatus status;
+    private final boolean none;
+
+    private ReimbursementScope(Long ownerId, ReimbursementStatus status, boolean none) {
+        this.ownerId = ownerId;
+        this.status = status;
+        this.none = none;
+    }
+
+    /**
+     * @return every row
+     */
+    public static ReimbursementScope all() {
+        return ALL;
+    }
+
+    /**
+     * @return no rows at all
+     */
+    public static ReimbursementScope none() {
+        return NONE;
+    }
+
+    /**
+     * @param ownerId
+     * @return userId = :ownerId
+     */
+    public static ReimbursementScope ownedBy(Long ownerId) {
+        return ALL.withOwner(ownerId);
+    }
+
+    /**
+     * narrow the scope to one owner, conflicting owners match nothing
+     *
+     * @param ownerId
+     * @return
+     */
+    public ReimbursementScope withOwner(Long ownerId) {
+        if (none || ownerId == null) {
+            return this;
+        }
+        if (this.ownerId != null && !this.ownerId.equals(ownerId)) {
+            return NONE;
+        }
+        return new ReimbursementScope(ownerId, status, false);
+    }
+
+    /**
+     * narrow the scope to one status, conflicting statuses match nothing
+     *
+     * @param status
+     * @return
+     */
+    public ReimbursementScope withStatus(ReimbursementStatus status) {
+        if (none || status == null) {
+            return this;
+        }
+        if (this.status != null && this.status != status) {
+            return NONE;
+        }
+        return new ReimbursementScope(ownerId, status, false);
+    }
+
+    /**
+     * in-memory form of the same predicate, for rows that were already loaded
+     *
+     * @param reimbursement
+     * @return true if the row is inside the scope
+     */
+    public boolean matches(Reimbursement reimbursement) {
+        return matches(reimbursement.getUserId(), reimbursement.getStatus());
+    }
+
+    /**
+     * same predicate over the two columns it reads, for projections and response DTOs
+     *
+     * @param ownerId
+     * @param status
+     * @return true if a row with these values is inside the scope
+     */
+    public boolean matches(Long ownerId, ReimbursementStatus status) {
+        if (none) {
+            return false;
+        }
+        return (this.ownerId == null || this.ownerId.equals(ownerId))
+                && (this.status == null || this.status == status);
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public ReimbursementStatus getStatus() {
+        return status;
+    }
+
+    public boolean isNone() {
+        return none;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReimbursementScope)) return false;
+        ReimbursementScope that = (ReimbursementScope) o;
+        return none == that.none && Objects.equals(ownerId, that.ownerId) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ownerId, status, none);
+    }
+
+    @Override
+    public String toString() {
+        if (none) {
+            return "ReimbursementScope[none]";
+        }
+        return "ReimbursementScope[ownerId=" + ownerId + ", status=" + status + "]";
+    }
+}
@@ -0,0 +1,37 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.enums.ReimbursementStatus;
+
+/**
+ * the columns of one reimbursement a conditional GET needs: the scope check and the version
+ */
+public class ReimbursementVersion {
+
+    private final Long id;
+    private final Long userId;
+    private final ReimbursementStatus status;
+    private final long version;
+
+    public ReimbursementVersion(Long id, Long userId, ReimbursementStatus status, Long version) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+        this.version = version != null ? version : 0L;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ReimbursementStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.RevokedToken;
+
+import java.util.List;
+
+public interface RevokedTokenRepository {
+    RevokedToken save(RevokedToken revokedToken);
+    List<RevokedToken> findByRevocationIdGreaterThan(Long revocationId, int limit);
+    int deleteByExpiresAtBefore(Long now);
+
+}
@@ -0,0 +1,12 @@
+package com.ddjproj.revature.repository;
+
+import com.ddjproj.revature.domain.entity.SigningKey;
+
+import java.util.List;
+
+public interface SigningKeyRepository {
+    SigningKey save(SigningKey signingKey);
+    List<SigningKey> findAllOrderByCreatedAt();
+    void deleteById(String kid);
+
+}
@@ -3,7 +3,9 @@ package com.ddjproj.revature.repository;
 import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.domain.enums.Roles;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserAccountRepository {
@@ -14,7 +16,19 @@ public interface UserAccountRepository {
 
     UserAccount save(UserAccount userAccount);
     Optional<UserAccount> findById(Long id);
+    Map<Long, String> findEmailsByIds(Collection<Long> ids);
+
+    // full entity including the password hash, never served from a cache.
+    // for authentication and for read-modify-save paths
+    Optional<UserAccount> findByEmailWithCredentials(String email);
+    Optional<UserAccount> findByIdWithCredentials(Long id);
     List<UserAccount> findAll();
     void deleteById(Long id);
 
+    // increments permission_version, locking the row until commit. empty if there is no such account
+    Optional<Long> incrementPermissionVersion(Long id);
+
+    // replaces the password hash only while it is still the expected one, no other column is written
+    boolean updatePasswordHash(Long id, String expectedHash, String newHash);
+
 }
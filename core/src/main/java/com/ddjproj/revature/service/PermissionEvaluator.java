@@ -2,6 +2,7 @@ package com.ddjproj.revature.service;
 
 import com.ddjproj.revature.domain.entity.UserAccount;
 import com.ddjproj.revature.domain.enums.Permissions;
+import com.ddjproj.revature.repository.ReimbursementScope;
 
 
 public interface PermissionEvaluator {
@@ -14,4 +15,13 @@ public interface PermissionEvaluator {
      * @return boolean true if permission is held, else false
      */
     boolean hasPermission(UserAccount userAccount, Permissions permissionType, Object resourceObject);
+
+    /**
+     * the reimbursement rows a UserAccount may access with a permission, as a query predicate
+     *
+     * @param userAccount
+     * @param permissionType
+     * @return scope to apply in the repository query, none if the base permission is not held
+     */
+    ReimbursementScope reimbursementScope(UserAccount userAccount, Permissions permissionType);
 }
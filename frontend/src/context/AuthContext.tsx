@@ -73,7 +73,8 @@ export function AuthProvider({ children }: AuthProviderProps): React.ReactElemen
     const storedToken = authUtils.getToken();
     const storedUser = authUtils.getUser();
     
-    if (storedToken && storedUser && authUtils.isAuthenticated()) {
+    // an expired access token is renewed on the first request if a refresh token is stored
+    if (storedToken && storedUser && (authUtils.isAuthenticated() || authUtils.getRefreshToken())) {
       console.log('AuthContext: Restoring session for user:', storedUser.email);
       setToken(storedToken);
       setUser(storedUser as UserAccount);
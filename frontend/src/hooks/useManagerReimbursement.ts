@@ -23,6 +23,9 @@ interface UseManagerReimbursementsReturn {
   isLoading: boolean;
   error: string | null;
   refresh: () => Promise<void>;
+  loadMore: () => Promise<void>;
+  hasMore: boolean;
+  isLoadingMore: boolean;
   filterByStatus: (status: ReimbursementStatus | null) => void;
   currentFilter: ReimbursementStatus | null;
   resolveReimbursement: (id: number, status: ReimbursementStatus, comment?: string) => Promise<boolean>;
@@ -54,6 +57,8 @@ export function useManagerReimbursements(): UseManagerReimbursementsReturn {
   const [isLoading, setIsLoading] = useState<boolean>(true);
   const [error, setError] = useState<string | null>(null);
   const [currentFilter, setCurrentFilter] = useState<ReimbursementStatus | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState<boolean>(false);
   
   // separate state for resolve operation
   const [isResolving, setIsResolving] = useState<boolean>(false);
@@ -75,10 +80,11 @@ export function useManagerReimbursements(): UseManagerReimbursementsReturn {
       console.log('useManagerReimbursements: Fetching all reimbursements', 
         currentFilter ? `with filter: ${currentFilter}` : '');
       
-      const data = await reimbursementApi.getAll(currentFilter || undefined);
+      const page = await reimbursementApi.getAll(currentFilter || undefined);
       
-      console.log(`useManagerReimbursements: Retrieved ${data.length} reimbursements`);
-      setReimbursements(data);
+      console.log(`useManagerReimbursements: Retrieved ${page.items.length} reimbursements`);
+      setReimbursements(page.items);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error('useManagerReimbursements: Failed to fetch reimbursements:', err);
       
@@ -89,11 +95,35 @@ export function useManagerReimbursements(): UseManagerReimbursementsReturn {
       
       setError(errorMessage);
       setReimbursements([]);
+      setNextCursor(null);
     } finally {
       setIsLoading(false);
     }
   }, [currentFilter]);
 
+  /**
+   * append the next page to the list
+   * 
+   * @returns {Promise<void>}
+   */
+  const loadMore = async (): Promise<void> => {
+    if (!nextCursor || isLoadingMore) {
+      return;
+    }
+    setIsLoadingMore(true);
+
+    try {
+      const page = await reimbursementApi.getAll(currentFilter || undefined, nextCursor);
+      setReimbursements((previous) => [...previous, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('useManagerReimbursements: Failed to load more reimbursements:', err);
+      setError(err instanceof Error ? err.message : 'Failed to load reimbursements. Please try again.');
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   /**
    * fetch reimbursements on mount and when filter changes
    */
@@ -180,6 +210,9 @@ export function useManagerReimbursements(): UseManagerReimbursementsReturn {
     isLoading,
     error,
     refresh,
+    loadMore,
+    hasMore: nextCursor !== null,
+    isLoadingMore,
     filterByStatus,
     currentFilter,
     resolveReimbursement,
@@ -23,6 +23,9 @@ interface UseReimbursementsReturn {
   isLoading: boolean;
   error: string | null;
   refresh: () => Promise<void>;
+  loadMore: () => Promise<void>;
+  hasMore: boolean;
+  isLoadingMore: boolean;
   filterByStatus: (status: ReimbursementStatus | null) => void;
   currentFilter: ReimbursementStatus | null;
 }
@@ -50,6 +53,8 @@ export function useReimbursements(): UseReimbursementsReturn {
   const [isLoading, setIsLoading] = useState<boolean>(true);
   const [error, setError] = useState<string | null>(null);
   const [currentFilter, setCurrentFilter] = useState<ReimbursementStatus | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState<boolean>(false);
   
   const { user } = useAuth();
 
@@ -66,10 +71,11 @@ export function useReimbursements(): UseReimbursementsReturn {
     try {
       console.log('useReimbursements: Fetching reimbursements', currentFilter ? `with filter: ${currentFilter}` : '');
       
-      const data = await reimbursementApi.getMy(currentFilter || undefined);
+      const page = await reimbursementApi.getMy(currentFilter || undefined);
       
-      console.log(`useReimbursements: Retrieved ${data.length} reimbursements`);
-      setReimbursements(data);
+      console.log(`useReimbursements: Retrieved ${page.items.length} reimbursements`);
+      setReimbursements(page.items);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error('useReimbursements: Failed to fetch reimbursements:', err);
       
@@ -80,11 +86,35 @@ export function useReimbursements(): UseReimbursementsReturn {
       
       setError(errorMessage);
       setReimbursements([]);
+      setNextCursor(null);
     } finally {
       setIsLoading(false);
     }
   }, [currentFilter]);
 
+  /**
+   * append the next page to the list
+   * 
+   * @returns {Promise<void>}
+   */
+  const loadMore = async (): Promise<void> => {
+    if (!nextCursor || isLoadingMore) {
+      return;
+    }
+    setIsLoadingMore(true);
+
+    try {
+      const page = await reimbursementApi.getMy(currentFilter || undefined, nextCursor);
+      setReimbursements((previous) => [...previous, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('useReimbursements: Failed to load more reimbursements:', err);
+      setError(err instanceof Error ? err.message : 'Failed to load reimbursements. Please try again.');
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   /**
    * fetch reimbursements on mount and when filter changes
    */
@@ -122,11 +152,13 @@ export function useReimbursements(): UseReimbursementsReturn {
     isLoading,
     error,
     refresh,
+    loadMore,
+    hasMore: nextCursor !== null,
+    isLoadingMore,
     filterByStatus,
     currentFilter
   };
 }
 
-// TODO: pagination support for large lists
 // TODO: sorting capabilities (date, status, etc)
 // TODO: searchability (date, name, id, etc) 
@@ -45,7 +45,7 @@ export function useUpgradeRequest(): UseUpgradeRequestReturn {
   const [error, setError] = useState<string | null>(null);
   const [success, setSuccess] = useState<boolean>(false);
   
-  const { user, updateUser } = useAuth();
+  const { user, login, updateUser } = useAuth();
   const navigate = useNavigate();
 
   /**
@@ -75,12 +75,16 @@ export function useUpgradeRequest(): UseUpgradeRequestReturn {
       console.log('useUpgradeRequest: Requesting employee access for user:', user.userId);
       
       // call api to upgrade user role
-      const updatedUser = await userApi.requestEmployeeAccess(user.userId);
+      const { token: newToken, user: updatedUser } = await userApi.requestEmployeeAccess(user.userId);
       
       console.log('useUpgradeRequest: Upgrade successful, new role:', updatedUser.role);
       
-      // update auth context with new user data
-      updateUser(updatedUser);
+      // old token carries the previous role, switch to the replacement when provided
+      if (newToken) {
+        login(newToken, updatedUser);
+      } else {
+        updateUser(updatedUser);
+      }
       
       setSuccess(true);
       
@@ -32,6 +32,9 @@ function EmployeeDashboard(): React.ReactElement {
     error, 
     refresh, 
     filterByStatus, 
+    loadMore,
+    hasMore,
+    isLoadingMore,
     currentFilter 
   } = useReimbursements();
   
@@ -353,7 +356,7 @@ function EmployeeDashboard(): React.ReactElement {
         {!isLoading && !error && (
           <div>
             <h2 style={{ fontSize: '18px', fontWeight: 'bold', marginBottom: '15px' }}>
-              Your Reimbursements ({reimbursements.length})
+              Your Reimbursements ({reimbursements.length}{hasMore ? '+' : ''})
             </h2>
 
             {reimbursements.length === 0 ? (
@@ -424,6 +427,25 @@ function EmployeeDashboard(): React.ReactElement {
                 ))}
               </div>
             )}
+
+            {hasMore && (
+              <div style={{ textAlign: 'center', marginTop: '15px' }}>
+                <button
+                  onClick={() => loadMore()}
+                  disabled={isLoadingMore}
+                  style={{
+                    padding: '10px 20px',
+                    backgroundColor: '#6c757d',
+                    color: 'white',
+                    border: 'none',
+                    borderRadius: '4px',
+                    cursor: isLoadingMore ? 'not-allowed' : 'pointer'
+                  }}
+                >
+                  {isLoadingMore ? 'Loading...' : 'Load More'}
+                </button>
+              </div>
+            )}
           </div>
         )}
       </div>
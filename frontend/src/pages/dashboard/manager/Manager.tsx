@@ -28,6 +28,9 @@ function ManagerDashboard(): React.ReactElement {
     isLoading,
     error,
     filterByStatus,
+    loadMore,
+    hasMore,
+    isLoadingMore,
     currentFilter,
     resolveReimbursement,
     isResolving,
@@ -199,7 +202,7 @@ function ManagerDashboard(): React.ReactElement {
         {!isLoading && !error && (
           <div>
             <h2 style={{ fontSize: '18px', fontWeight: 'bold', marginBottom: '15px' }}>
-              All Reimbursements ({reimbursements.length})
+              All Reimbursements ({reimbursements.length}{hasMore ? '+' : ''})
             </h2>
 
             {reimbursements.length === 0 ? (
@@ -314,6 +317,25 @@ function ManagerDashboard(): React.ReactElement {
                 ))}
               </div>
             )}
+
+            {hasMore && (
+              <div style={{ textAlign: 'center', marginTop: '15px' }}>
+                <button
+                  onClick={() => loadMore()}
+                  disabled={isLoadingMore}
+                  style={{
+                    padding: '10px 20px',
+                    backgroundColor: '#6c757d',
+                    color: 'white',
+                    border: 'none',
+                    borderRadius: '4px',
+                    cursor: isLoadingMore ? 'not-allowed' : 'pointer'
+                  }}
+                >
+                  {isLoadingMore ? 'Loading...' : 'Load More'}
+                </button>
+              </div>
+            )}
           </div>
         )}
 
@@ -4,9 +4,10 @@
  * @module services
  */
 
-import axios, { AxiosError } from 'axios';
+import axios, { AxiosError, type InternalAxiosRequestConfig } from 'axios';
 import type { UserAccount, RoleType } from '../constant/types.constant';
 import { API_BASE_URL } from '../config/api.config';
+import { authUtils } from '../util/auth.util';
 /**
  * base api configuration
  * uses vite proxy in development, update for production
@@ -35,6 +36,7 @@ interface RegisterRequest {
  */
 interface AuthResponse {
   token: string;
+  refreshToken: string;
   role: string;
   userId: number;
   email: string;
@@ -85,6 +87,7 @@ export const authApi = {
       );
       
       console.log('Login successful, received response');
+      authUtils.setRefreshToken(response.data.refreshToken);
       
       return {
         token: response.data.token,
@@ -121,6 +124,7 @@ export const authApi = {
       );
       
       console.log('Registration successful, new user created');
+      authUtils.setRefreshToken(response.data.refreshToken);
       
       return {
         token: response.data.token,
@@ -161,7 +165,7 @@ export const authApi = {
       
       await axios.post(
         `${API_BASE_URL}/auth/logout`,
-        {},
+        { refreshToken: authUtils.getRefreshToken() },
         {
           headers: {
             Authorization: `Bearer ${token}`
@@ -174,9 +178,71 @@ export const authApi = {
       console.error('Logout request failed:', error);
       // even if backend fails, we'll clear local state
     }
+  },
+
+  /**
+   * exchanges the stored refresh token for a new access token
+   * stores the rotated refresh token and updates the saved access token
+   * 
+   * @returns {Promise<string | null>} new access token, null if the refresh token is missing or rejected
+   */
+  async refresh(): Promise<string | null> {
+    const refreshToken = authUtils.getRefreshToken();
+    if (!refreshToken) {
+      return null;
+    }
+
+    try {
+      const response = await axios.post<AuthResponse>(
+        `${API_BASE_URL}/auth/refresh`,
+        { refreshToken }
+      );
+
+      authUtils.setRefreshToken(response.data.refreshToken);
+      authUtils.setAuthData(response.data.token, mapAuthResponseToUser(response.data));
+      setAuthToken(response.data.token);
+      return response.data.token;
+    } catch (error) {
+      console.error('Token refresh failed:', error);
+      authUtils.setRefreshToken(null);
+      return null;
+    }
   }
 };
 
+/**
+ * in-flight refresh shared by concurrent failing requests (refresh tokens are single use)
+ */
+let pendingRefresh: Promise<string | null> | null = null;
+
+/**
+ * retries a request once with a refreshed access token when it fails with 401/403
+ * auth endpoints are excluded so failed logins and refreshes are not retried
+ */
+axios.interceptors.response.use(
+  (response) => response,
+  async (error: AxiosError) => {
+    const original = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
+    const status = error.response?.status;
+
+    if (!original || original._retried || (status !== 401 && status !== 403)
+        || original.url?.includes('/auth/') || !authUtils.getRefreshToken()) {
+      return Promise.reject(error);
+    }
+
+    original._retried = true;
+    pendingRefresh = pendingRefresh ?? authApi.refresh().finally(() => { pendingRefresh = null; });
+    const newToken = await pendingRefresh;
+
+    if (!newToken) {
+      return Promise.reject(error);
+    }
+
+    original.headers.Authorization = `Bearer ${newToken}`;
+    return axios(original);
+  }
+);
+
 /**
  * configure axios defaults for authenticated requests
  * call this after login to set auth header for all requests
@@ -194,6 +260,5 @@ export function setAuthToken(token: string | null): void {
   }
 }
 
-// TODO: Add token refresh logic when implementing token expiration
 // TODO: Add request/response interceptors for better error handling
 // TODO: Add retry logic for failed requests
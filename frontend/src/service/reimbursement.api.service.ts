@@ -41,6 +41,16 @@ export interface Reimbursement {
   status: ReimbursementStatus;
 }
 
+/**
+ * one keyset page of reimbursements, newest first
+ * matches backend ReimbursementPageDTO
+ */
+export interface ReimbursementPage {
+  items: Reimbursement[];
+  /** opaque cursor for the next page, null on the last page */
+  nextCursor: string | null;
+}
+
 /**
  * request payload for creating reimbursement
  * matches backend CreateReimbursementDTO
@@ -110,30 +120,31 @@ export const reimbursementApi = {
   },
 
   /**
-   * get current user's reimbursements
+   * get a page of the current user's reimbursements
    * 
    * @param {ReimbursementStatus} status - optional status filter
-   * @returns {Promise<Reimbursement[]>} list of user's reimbursements
+   * @param {string} cursor - optional nextCursor of the previous page
+   * @returns {Promise<ReimbursementPage>} page of user's reimbursements
    * @throws {Error} if request fails
    * 
    * @example
-   * // get all reimbursements
-   * const all = await reimbursementApi.getMy();
+   * // first page
+   * const page = await reimbursementApi.getMy();
    * 
-   * // get only pending
-   * const pending = await reimbursementApi.getMy(ReimbursementStatus.PENDING);
+   * // next page of pending only
+   * const next = await reimbursementApi.getMy('PENDING', page.nextCursor);
    */
-  async getMy(status?: ReimbursementStatus): Promise<Reimbursement[]> {
+  async getMy(status?: ReimbursementStatus, cursor?: string | null): Promise<ReimbursementPage> {
     try {
       console.log('Fetching my reimbursements', status ? `with status: ${status}` : '');
       
-      const params = status ? { status } : {};
-      const response = await axios.get<Reimbursement[]>(
+      const params = { ...(status ? { status } : {}), ...(cursor ? { cursor } : {}) };
+      const response = await axios.get<ReimbursementPage>(
         `${API_BASE_URL}/reimbursements/self`,
         { params }
       );
       
-      console.log(`Retrieved ${response.data.length} reimbursements`);
+      console.log(`Retrieved ${response.data.items.length} reimbursements`);
       return response.data;
     } catch (error) {
       console.error('Failed to fetch reimbursements:', error);
@@ -149,23 +160,24 @@ export const reimbursementApi = {
   },
 
   /**
-   * get all reimbursements (manager only)
+   * get a page of all reimbursements (manager only)
    * 
    * @param {ReimbursementStatus} status - optional status filter
-   * @returns {Promise<Reimbursement[]>} list of all reimbursements
+   * @param {string} cursor - optional nextCursor of the previous page
+   * @returns {Promise<ReimbursementPage>} page of all reimbursements
    * @throws {Error} if request fails or unauthorized
    */
-  async getAll(status?: ReimbursementStatus): Promise<Reimbursement[]> {
+  async getAll(status?: ReimbursementStatus, cursor?: string | null): Promise<ReimbursementPage> {
     try {
       console.log('Fetching all reimbursements', status ? `with status: ${status}` : '');
       
-      const params = status ? { status } : {};
-      const response = await axios.get<Reimbursement[]>(
+      const params = { ...(status ? { status } : {}), ...(cursor ? { cursor } : {}) };
+      const response = await axios.get<ReimbursementPage>(
         `${API_BASE_URL}/reimbursements`,
         { params }
       );
       
-      console.log(`Retrieved ${response.data.length} reimbursements`);
+      console.log(`Retrieved ${response.data.items.length} reimbursements`);
       return response.data;
     } catch (error) {
       console.error('Failed to fetch all reimbursements:', error);
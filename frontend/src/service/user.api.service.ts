@@ -50,14 +50,16 @@ export const userApi = {
    * request upgrade from restricted to employee role
    * backend automatically upgrades to employee (only valid upgrade path)
    * 
+   * the role change invalidates the current token, backend returns a new one in the authorization header
+   * 
    * @param {number} userAccountId - ID of user requesting upgrade
-   * @returns {Promise<UserAccount>} updated user account data
+   * @returns {Promise<{token: string | null, user: UserAccount}>} replacement token and updated user account data
    * @throws {Error} if upgrade request fails
    * 
    * @example
-   * const updatedUser = await userApi.requestEmployeeAccess(123);
+   * const { token, user } = await userApi.requestEmployeeAccess(123);
    */
-  async requestEmployeeAccess(userAccountId: number): Promise<UserAccount> {
+  async requestEmployeeAccess(userAccountId: number): Promise<{ token: string | null; user: UserAccount }> {
     try {
       console.log('Requesting employee access for user:', userAccountId);
       
@@ -73,12 +75,18 @@ export const userApi = {
       
       console.log('Employee access granted');
       
+      const authHeader: string | undefined = response.headers['authorization'];
+      const token = authHeader && authHeader.startsWith('Bearer ') ? authHeader.substring(7) : null;
+      
       // convert to useraccount format
       return {
-        userId: response.data.userAccountId,
-        email: response.data.email,
-        role: response.data.role as RoleType,
-        permissions: response.data.permissions
+        token,
+        user: {
+          userId: response.data.userAccountId,
+          email: response.data.email,
+          role: response.data.role as RoleType,
+          permissions: response.data.permissions
+        }
       };
     } catch (error) {
       console.error('Employee access request failed:', error);
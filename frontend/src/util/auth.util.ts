@@ -11,6 +11,7 @@ interface TokenPayload {
 
 const AUTH_KEYS = {
   ACCESS_TOKEN: "authToken",
+  REFRESH_TOKEN: "refreshToken",
   USER: "authUser",
 };
 
@@ -32,6 +33,26 @@ export const authUtils = {
   },
 
 
+  /**
+   * stores the refresh token used to renew short lived access tokens
+   * @param refreshToken - opaque refresh token from backend
+   */
+  setRefreshToken(refreshToken: string | null | undefined): void {
+    if (refreshToken) {
+      localStorage.setItem(AUTH_KEYS.REFRESH_TOKEN, refreshToken);
+    } else {
+      localStorage.removeItem(AUTH_KEYS.REFRESH_TOKEN);
+    }
+  },
+
+  /**
+   * retrieves the stored refresh token
+   * @returns The stored refresh token or null
+   */
+  getRefreshToken(): string | null {
+    return localStorage.getItem(AUTH_KEYS.REFRESH_TOKEN);
+  },
+
   /**
    * retrieves the stored token
    * @returns The stored token or null
@@ -60,6 +81,7 @@ export const authUtils = {
   clearAuthData(): void {
     console.log("Clearing auth data");
     localStorage.removeItem(AUTH_KEYS.ACCESS_TOKEN);
+    localStorage.removeItem(AUTH_KEYS.REFRESH_TOKEN);
     localStorage.removeItem(AUTH_KEYS.USER);
   },
 